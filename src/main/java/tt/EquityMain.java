@@ -0,0 +1,66 @@
+package tt;
+
+import tt.models.Card;
+import tt.models.Equity;
+import tt.models.EquityResult;
+import tt.services.DeckCreator;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.decks.SampledPokerDeckCreator;
+import tt.services.impl.equity.MonteCarloEquityCalculator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.util.CardUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Estimate the equity of five card hands from the command line, e.g.
+ * {@code --trials 10000000 --opponents 2 --dead "2C 3C" "AS AH AD" "KS KH"}.
+ */
+public class EquityMain {
+  public static void main(String[] args) {
+    long trials = 1_000_000;
+    int opponents = 0;
+    List<Card> deadCards = List.of();
+    Long seed = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    List<List<Card>> hands = new ArrayList<>();
+
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--trials" -> trials = Long.parseLong(valueOf(args, ++i));
+        case "--opponents" -> opponents = Integer.parseInt(valueOf(args, ++i));
+        case "--dead" -> deadCards = CardUtils.parseCardFromString(valueOf(args, ++i));
+        case "--seed" -> seed = Long.parseLong(valueOf(args, ++i));
+        case "--threads" -> threads = Integer.parseInt(valueOf(args, ++i));
+        default -> hands.add(CardUtils.parseCardFromString(args[i]));
+      }
+    }
+
+    DeckCreator creator = seed == null ? new SampledPokerDeckCreator()
+        : new CounterBasedPokerDeckCreator(seed);
+    try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+      EquityResult result = new MonteCarloEquityCalculator(creator,
+          new PerfectHashHandTypeAnalyzer(), pool).calculate(hands, deadCards, opponents, trials);
+
+      for (Equity equity : result.equities()) {
+        System.out.printf("%-16s win %6.2f%%  tie %6.2f%%  loss %6.2f%%  equity %6.2f%%%n",
+            equity.cards().stream().map(Card::toSymbolString).collect(Collectors.joining(" ")),
+            100 * equity.winProbability(), 100 * equity.tieProbability(),
+            100 * equity.lossProbability(), 100 * equity.equity());
+      }
+      System.out.printf("%nopponents: %d, trials: %,d in %d ms (%,.0f trials/s on %d threads)%n",
+          opponents, result.trials(), result.duration().toMillis(), result.trialsPerSecond(),
+          threads);
+    }
+  }
+
+  private static String valueOf(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("missing value for " + args[index - 1]);
+    }
+    return args[index];
+  }
+}
@@ -1,21 +1,69 @@
 package tt;
 
 import tt.models.Card;
+import tt.models.CardSet;
+import tt.models.HandType;
 import tt.models.Player;
 import tt.models.PokerDeck;
+import tt.models.SimulationResult;
 import tt.services.DeckCreator;
+import tt.services.GameListener;
+import tt.services.impl.archive.GameArchive;
+import tt.services.impl.archive.GameArchiveWriter;
+import tt.services.impl.archive.GameFilter;
+import tt.services.impl.archive.WinningTypeCounts;
+import tt.services.impl.dealer.DealerSimulation;
 import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
 import tt.services.impl.decks.DefaultShuffledPokerDeckCreator;
-import tt.services.impl.decks.UnshuffledPokerDeckCreator;
+import tt.services.impl.decks.SampledPokerDeckCreator;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.hands.VectorSupport;
+import tt.services.impl.history.HandHistoryEvaluator;
+import tt.services.impl.history.HandHistoryPipeline;
+import tt.services.impl.history.HandHistoryReader;
+import tt.services.impl.journal.GameJournal;
+import tt.services.impl.journal.JournalOptions;
+import tt.services.impl.server.EvaluationServer;
 import tt.util.CardUtils;
 import tt.util.Tuple;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 public class Main {
   public static void main(String[] args) {
+    if (args.length > 0 && args[0].equals("--simulate")) {
+      simulate(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--pipeline")) {
+      pipeline(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--score")) {
+      score(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--archive")) {
+      archive(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--query")) {
+      query(args);
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--serve")) {
+      serve(args);
+      return;
+    }
+
     System.out.println("""
         🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱🂱
         🂡🂡  Poker Face Off 🂡🂡
@@ -47,6 +95,192 @@ public class Main {
         winners.stream().map(Player::name).collect(Collectors.joining("\n")));
   }
 
+  /**
+   * Play many games without printing them, e.g. {@code --simulate 10000000 --threads 8 --seed 42
+   * --players 7}, and print the aggregated outcomes at the end. With
+   * {@code --journal games.journal} every game is also recorded in a journal.
+   *
+   * @param args the arguments of the simulation
+   */
+  private static void simulate(String[] args) {
+    long games = 0;
+    int threads = Runtime.getRuntime().availableProcessors();
+    Long seed = null;
+    int numberOfPlayers = 2;
+    Path journalPath = null;
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("missing value for " + args[i]);
+      }
+      switch (args[i]) {
+        case "--simulate" -> games = Long.parseLong(args[i + 1]);
+        case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+        case "--seed" -> seed = Long.parseLong(args[i + 1]);
+        case "--players" -> numberOfPlayers = Integer.parseInt(args[i + 1]);
+        case "--journal" -> journalPath = Path.of(args[i + 1]);
+        default -> throw new IllegalArgumentException("unknown argument " + args[i]);
+      }
+    }
+
+    DeckCreator creator = seed == null ? new SampledPokerDeckCreator()
+        : new CounterBasedPokerDeckCreator(seed);
+    GameJournal journal = journalPath == null ? null
+        : new GameJournal(journalPath, JournalOptions.defaults());
+    FiveCardDrawDealer dealer = new FiveCardDrawDealer(creator, new PerfectHashHandTypeAnalyzer(),
+        journal == null ? GameListener.NONE : journal);
+    SimulationResult result;
+    try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+      result = new DealerSimulation(dealer, pool).simulate(numberOfPlayers, games);
+    } finally {
+      if (journal != null) {
+        journal.close();
+      }
+    }
+
+    System.out.printf("%,d games of %d players on %d threads%n%n", result.games(),
+        numberOfPlayers, threads);
+    System.out.println("winning hand        frequency");
+    for (HandType type : HandType.values()) {
+      System.out.printf("%-18s %9.4f%%%n", type.getFullName(), 100 * result.winFrequencyOf(type));
+    }
+    System.out.printf("%nsplit pots: %.4f%%%n", 100 * result.splitPotRate());
+    System.out.printf("time: %,d ms (%,.0f games/s), gc: %,d ms%n", result.duration().toMillis(),
+        result.gamesPerSecond(), result.gcDuration().toMillis());
+    if (journal != null) {
+      System.out.printf("journal: %,d games written to %s%n", journal.getDurableGames(),
+          journalPath);
+    }
+  }
+
+  /**
+   * Score a file of showdowns, e.g. {@code --score showdowns.txt winners.txt}, with one showdown
+   * per line in the format of the hands of the command line.
+   *
+   * @param args the arguments with the input and the output file
+   */
+  private static void score(String[] args) {
+    if (args.length != 3) {
+      throw new IllegalArgumentException("usage: --score <showdowns> <winners>");
+    }
+
+    long start = System.nanoTime();
+    long lines;
+    try (ForkJoinPool pool = new ForkJoinPool()) {
+      lines = new HandHistoryEvaluator(VectorSupport.createAnalyzer(), pool)
+          .evaluate(Path.of(args[1]), Path.of(args[2]));
+    }
+    System.out.printf("scored %,d showdowns in %,d ms%n", lines,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Score a binary hand history and store the games in a columnar archive, e.g.
+   * {@code --archive games.bin archive}.
+   *
+   * @param args the arguments with the hand history and the directory of the archive
+   */
+  private static void archive(String[] args) {
+    if (args.length != 3) {
+      throw new IllegalArgumentException("usage: --archive <hand history> <archive>");
+    }
+
+    long start = System.nanoTime();
+    long games;
+    try (ForkJoinPool pool = new ForkJoinPool();
+         HandHistoryReader reader = HandHistoryReader.open(Path.of(args[1]));
+         GameArchiveWriter writer = new GameArchiveWriter(Path.of(args[2]),
+             reader.getNumberOfPlayers())) {
+      games = new HandHistoryEvaluator(VectorSupport.createAnalyzer(), pool)
+          .archive(reader, writer);
+      // a failed import leaves an incomplete archive that can't be opened
+      writer.commit();
+    }
+    System.out.printf("archived %,d games in %,d ms%n", games,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Query an archive, e.g. {@code --query archive --type FULL_HOUSE --min-players 6}, and print
+   * the number of selected games and the split pot rate per winning type.
+   *
+   * @param args the arguments with the directory of the archive and the filter
+   */
+  private static void query(String[] args) {
+    if (args.length < 2 || args.length % 2 != 0) {
+      throw new IllegalArgumentException(
+          "usage: --query <archive> [--type <hand type>] [--min-players <players>]");
+    }
+
+    GameFilter filter = GameFilter.ALL;
+    for (int i = 2; i < args.length; i += 2) {
+      switch (args[i]) {
+        case "--type" -> filter = filter.withWinningType(HandType.valueOf(args[i + 1]));
+        case "--min-players" -> filter = filter.withPlayers(Integer.parseInt(args[i + 1]),
+            Integer.MAX_VALUE);
+        default -> throw new IllegalArgumentException("unknown option " + args[i]);
+      }
+    }
+
+    long start = System.nanoTime();
+    try (ForkJoinPool pool = new ForkJoinPool();
+         GameArchive archive = GameArchive.open(Path.of(args[1]), pool)) {
+      WinningTypeCounts counts = archive.winningTypeCounts(filter);
+      Map<HandType, Double> rates = counts.splitPotRates();
+      System.out.printf("%,d of %,d games selected%n", counts.totalGames(),
+          archive.getNumberOfGames());
+      for (HandType type : HandType.values()) {
+        if (counts.games().get(type) > 0) {
+          System.out.printf("%-16s %,14d  split pots: %6.3f %%%n", type.getFullName(),
+              counts.games().get(type), 100 * rates.get(type));
+        }
+      }
+    }
+    System.out.printf("time: %,d ms%n", (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Score the showdowns of the standard input as they arrive and write the winners of each line to
+   * the standard output in the same order, e.g. {@code --pipeline --threads 4}.
+   *
+   * @param args the arguments of the pipeline
+   */
+  private static void pipeline(String[] args) {
+    int threads = Runtime.getRuntime().availableProcessors();
+    if (args.length == 3 && args[1].equals("--threads")) {
+      threads = Integer.parseInt(args[2]);
+    } else if (args.length != 1) {
+      throw new IllegalArgumentException("usage: --pipeline [--threads <threads>]");
+    }
+
+    new HandHistoryPipeline(VectorSupport.createAnalyzer(), threads, 4 * threads)
+        .run(System.in, new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+  }
+
+  /**
+   * Serve the evaluation of hands over HTTP until the process is stopped, e.g.
+   * {@code --serve --port 8080}.
+   *
+   * @param args the arguments of the server
+   */
+  private static void serve(String[] args) {
+    int port = 8080;
+    if (args.length == 3 && args[1].equals("--port")) {
+      port = Integer.parseInt(args[2]);
+    } else if (args.length != 1) {
+      throw new IllegalArgumentException("usage: --serve [--port <port>]");
+    }
+
+    // small responses must not wait for the acknowledgement of the previous packet, the JDK reads
+    // the property once, so it must be set before the first server is created
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+    // the threads of the server keep the process alive, the hook stops it gracefully
+    EvaluationServer server = new EvaluationServer(VectorSupport.createAnalyzer(), port);
+    Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    System.out.printf("listening on port %d%n", server.getPort());
+  }
+
   private static Tuple<Integer, DeckCreator> parseArguments(String[] args) {
     if (args.length == 0) {
       // if no arguments are given, then we play heads up with a shuffled deck
@@ -80,7 +314,7 @@ public class Main {
         .toList();
 
     // collect all the specified cards in an order that allows them to be drawn in the right order
-    Set<Card> allCards = new HashSet<>();
+    long allCards = 0;
     List<Card> cardsInOrder = new ArrayList<>(numberOfPlayers * 5);
     for (int round = 0; round < 5; round++) {
       for (int player = 0; player < numberOfPlayers; player++) {
@@ -90,21 +324,19 @@ public class Main {
         }
 
         Card nextCard = currentPlayer.get(round);
-        if (!allCards.add(nextCard)) {
+        long nextBit = CardSet.bitOf(nextCard);
+        if ((allCards & nextBit) != 0) {
           throw new IllegalArgumentException(
               "duplicate card specified! " + nextCard.toSymbolString());
         }
 
+        allCards |= nextBit;
         cardsInOrder.add(nextCard);
       }
     }
 
     // insert all missing cards in order at the end, so the list of cards for the deck is complete
-    new UnshuffledPokerDeckCreator().create().forEach(card -> {
-      if (!allCards.contains(card)) {
-        cardsInOrder.add(card);
-      }
-    });
+    new CardSet(allCards).complement().forEach(cardsInOrder::add);
 
     // create the deck
     return () -> new PokerDeck(cardsInOrder);
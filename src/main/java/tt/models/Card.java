@@ -4,11 +4,64 @@ import java.util.Optional;
 
 /**
  * Defines a card by specifying its value and suit.
+ * <p>
+ * There is one canonical instance for each of the 52 cards, which is returned by
+ * {@link #of(CardValue, CardSuit)}, {@link #fromIndex(int)} and {@link #of(String)}. The index of
+ * a card is {@code suit * 13 + value}, which is the same order as an unshuffled deck.
  *
  * @param value the face value of the card
  * @param suit  the suit of the card
  */
 public record Card(CardValue value, CardSuit suit) {
+  /**
+   * The number of cards in a deck.
+   */
+  public static final int NUMBER_OF_CARDS = 52;
+
+  private static final int NUMBER_OF_VALUES = CardValue.values().length;
+  private static final Card[] CARDS = new Card[NUMBER_OF_CARDS];
+
+  static {
+    for (CardSuit suit : CardSuit.values()) {
+      for (CardValue value : CardValue.values()) {
+        CARDS[suit.ordinal() * NUMBER_OF_VALUES + value.ordinal()] = new Card(value, suit);
+      }
+    }
+  }
+
+  /**
+   * Returns the canonical instance of the card.
+   *
+   * @param value the face value of the card
+   * @param suit  the suit of the card
+   * @return the card
+   */
+  public static Card of(CardValue value, CardSuit suit) {
+    return CARDS[suit.ordinal() * NUMBER_OF_VALUES + value.ordinal()];
+  }
+
+  /**
+   * Returns the canonical instance of the card with the given index.
+   *
+   * @param index the index between 0 and 51 (incl.)
+   * @return the card
+   */
+  public static Card fromIndex(int index) {
+    if (index < 0 || index >= NUMBER_OF_CARDS) {
+      throw new IndexOutOfBoundsException("There is no card with the index " + index);
+    }
+    return CARDS[index];
+  }
+
+  /**
+   * Returns the index of this card between 0 and 51 (incl.).
+   *
+   * @return the index of the card
+   */
+  public int ordinalIndex() {
+    return suit.ordinal() * NUMBER_OF_VALUES + value.ordinal();
+  }
+
   @Override
   public String toString() {
     return "%s of %s".formatted(value.getName(), suit.getFullName());
@@ -39,14 +92,14 @@ public record Card(CardValue value, CardSuit suit) {
     }
 
     // determine the value
-    Optional<CardValue> value = CardValue.of(text.substring(0, 1));
+    Optional<CardValue> value = CardValue.of(text.charAt(0));
     if (value.isEmpty()) {
       return Optional.empty();
     }
 
     // determine the suit
-    Optional<CardSuit> suit = CardSuit.of(text.substring(1));
-    return suit.map(cardSuit -> new Card(value.get(), cardSuit));
+    Optional<CardSuit> suit = CardSuit.of(text.charAt(1));
+    return suit.map(cardSuit -> of(value.get(), cardSuit));
   }
 
 }
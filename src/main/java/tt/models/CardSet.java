@@ -0,0 +1,192 @@
+package tt.models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Defines a set of cards as a 52-bit mask. Every card is represented by a single bit, so set
+ * operations are plain bit operations on the long value and no collection is needed.
+ * <p>
+ * The bit of a card is given by its {@link Card#ordinalIndex() index}, which is the same order
+ * as an unshuffled deck.
+ *
+ * @param bits the mask of the cards in this set
+ */
+public record CardSet(long bits) implements Iterable<Card> {
+  /**
+   * The mask of all 52 cards.
+   */
+  public static final long ALL_CARDS = (1L << 52) - 1;
+
+  /**
+   * The set that doesn't contain any card.
+   */
+  public static final CardSet EMPTY = new CardSet(0);
+
+  /**
+   * The set that contains the complete deck of 52 cards.
+   */
+  public static final CardSet FULL_DECK = new CardSet(ALL_CARDS);
+
+  public CardSet {
+    if ((bits & ~ALL_CARDS) != 0) {
+      throw new IllegalArgumentException("a card set can only contain the bits of 52 cards");
+    }
+  }
+
+  /**
+   * Create a new set from the given cards. Duplicates are ignored.
+   *
+   * @param cards the cards
+   * @return the set of the cards
+   * @throws IllegalArgumentException if any card is null
+   */
+  public static CardSet of(Collection<Card> cards) {
+    long bits = 0;
+    for (Card card : cards) {
+      if (card == null) {
+        throw new IllegalArgumentException("all cards must not be null");
+      }
+      bits |= bitOf(card);
+    }
+    return new CardSet(bits);
+  }
+
+  /**
+   * Returns the bit of the card in a set.
+   *
+   * @param card the card
+   * @return the mask with only the bit of the card
+   */
+  public static long bitOf(Card card) {
+    return 1L << card.ordinalIndex();
+  }
+
+  /**
+   * Returns a new set that additionally contains the card.
+   *
+   * @param card the card
+   * @return the new set
+   */
+  public CardSet with(Card card) {
+    return new CardSet(bits | bitOf(card));
+  }
+
+  /**
+   * Returns a new set that contains the cards of both sets.
+   *
+   * @param other the other set
+   * @return the union of both sets
+   */
+  public CardSet union(CardSet other) {
+    return new CardSet(bits | other.bits);
+  }
+
+  /**
+   * Returns a new set that only contains the cards that are present in both sets.
+   *
+   * @param other the other set
+   * @return the intersection of both sets
+   */
+  public CardSet intersection(CardSet other) {
+    return new CardSet(bits & other.bits);
+  }
+
+  /**
+   * Returns a new set without the cards of the other set.
+   *
+   * @param other the cards that should be removed
+   * @return the difference of both sets
+   */
+  public CardSet without(CardSet other) {
+    return new CardSet(bits & ~other.bits);
+  }
+
+  /**
+   * Returns a new set that contains all the cards of the deck that are not in this set.
+   *
+   * @return the complement of this set
+   */
+  public CardSet complement() {
+    return new CardSet(~bits & ALL_CARDS);
+  }
+
+  /**
+   * Determine if the card is present in this set.
+   *
+   * @param card the card
+   * @return true if the card is in this set
+   */
+  public boolean contains(Card card) {
+    return (bits & bitOf(card)) != 0;
+  }
+
+  /**
+   * Determine if all the cards of the other set are present in this set.
+   *
+   * @param other the other set
+   * @return true if the other set is a subset of this set
+   */
+  public boolean containsAll(CardSet other) {
+    return (bits & other.bits) == other.bits;
+  }
+
+  /**
+   * Determine if both sets share at least one card.
+   *
+   * @param other the other set
+   * @return true if there is at least one card in both sets
+   */
+  public boolean intersects(CardSet other) {
+    return (bits & other.bits) != 0;
+  }
+
+  /**
+   * Returns the number of cards in this set.
+   *
+   * @return the number of cards
+   */
+  public int size() {
+    return Long.bitCount(bits);
+  }
+
+  public boolean isEmpty() {
+    return bits == 0;
+  }
+
+  /**
+   * Returns the cards of this set ordered by their index.
+   *
+   * @return the list of cards
+   */
+  public List<Card> toList() {
+    List<Card> cards = new ArrayList<>(size());
+    forEach(cards::add);
+    return cards;
+  }
+
+  @Override
+  public Iterator<Card> iterator() {
+    return new Iterator<>() {
+      private long remaining = bits;
+
+      @Override
+      public boolean hasNext() {
+        return remaining != 0;
+      }
+
+      @Override
+      public Card next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+        int index = Long.numberOfTrailingZeros(remaining);
+        remaining &= remaining - 1;
+        return Card.fromIndex(index);
+      }
+    };
+  }
+}
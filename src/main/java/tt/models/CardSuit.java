@@ -1,6 +1,8 @@
 package tt.models;
 
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -13,6 +15,21 @@ public enum CardSuit {
   SPADES("Spades", "S", "♠️"),
   ;
 
+  private static final CardSuit[] SUITS = values();
+  private static final CardSuit[] BY_SHORT_NAME = new CardSuit[128];
+  private static final Map<String, CardSuit> BY_NAME = new HashMap<>();
+
+  static {
+    for (CardSuit suit : SUITS) {
+      char shortName = suit.getShortName().charAt(0);
+      BY_SHORT_NAME[Character.toUpperCase(shortName)] = suit;
+      BY_SHORT_NAME[Character.toLowerCase(shortName)] = suit;
+      BY_NAME.put(suit.getShortName().toLowerCase(Locale.ROOT), suit);
+      BY_NAME.put(suit.getFullName().toLowerCase(Locale.ROOT), suit);
+      BY_NAME.put(suit.getSymbol(), suit);
+    }
+  }
+
   private final String fullName;
   private final String shortName;
   private final String symbol;
@@ -48,10 +65,28 @@ public enum CardSuit {
     }
 
     // match any string representation
-    return Arrays.stream(values())
-        .filter(value -> value.getShortName().equalsIgnoreCase(text) || value.getSymbol()
-            .equalsIgnoreCase(text) || value.getFullName().equalsIgnoreCase(text))
-        .findFirst();
+    return Optional.ofNullable(BY_NAME.get(text.toLowerCase(Locale.ROOT)));
+  }
+
+  /**
+   * Return the CardSuit that matches the short name.
+   *
+   * @param shortName the short name of the suit, case-insensitive
+   * @return an optional CardSuit that matches the short name
+   */
+  public static Optional<CardSuit> of(char shortName) {
+    return shortName < BY_SHORT_NAME.length ? Optional.ofNullable(BY_SHORT_NAME[shortName])
+        : Optional.empty();
+  }
+
+  /**
+   * Return the CardSuit with the given ordinal without copying the suits.
+   *
+   * @param ordinal the ordinal between 0 and 3 (incl.)
+   * @return the CardSuit
+   */
+  public static CardSuit fromOrdinal(int ordinal) {
+    return SUITS[ordinal];
   }
 
 }
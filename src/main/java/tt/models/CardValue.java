@@ -1,6 +1,5 @@
 package tt.models;
 
-import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -21,6 +20,17 @@ public enum CardValue {
   KING("K"),
   ACE("A"),
   ;
+  private static final CardValue[] VALUES = values();
+  private static final CardValue[] BY_NAME = new CardValue[128];
+
+  static {
+    for (CardValue value : VALUES) {
+      char name = value.getName().charAt(0);
+      BY_NAME[Character.toUpperCase(name)] = value;
+      BY_NAME[Character.toLowerCase(name)] = value;
+    }
+  }
+
   private final String name;
 
   CardValue(String name) {
@@ -38,9 +48,27 @@ public enum CardValue {
       return Optional.empty();
     }
 
-    return Arrays.stream(values())
-        .filter(value -> value.getName().equalsIgnoreCase(text))
-        .findFirst();
+    return of(text.charAt(0));
+  }
+
+  /**
+   * Return the CardValue that matches the name.
+   *
+   * @param name the name of the value, case-insensitive
+   * @return an optional CardValue that matches the name of a card value
+   */
+  public static Optional<CardValue> of(char name) {
+    return name < BY_NAME.length ? Optional.ofNullable(BY_NAME[name]) : Optional.empty();
+  }
+
+  /**
+   * Return the CardValue with the given ordinal without copying the values.
+   *
+   * @param ordinal the ordinal between 0 and 12 (incl.)
+   * @return the CardValue
+   */
+  public static CardValue fromOrdinal(int ordinal) {
+    return VALUES[ordinal];
   }
 
   public String getName() {
@@ -0,0 +1,81 @@
+package tt.models;
+
+/**
+ * The position of the next card in the drawn cards of a deck, e.g. to deal the replacements of
+ * the draw round. The cards are given by their {@link Card#ordinalIndex() index} and the cursor
+ * can be reset for the next game, so it doesn't have to be created again.
+ */
+public class DeckCursor {
+  private final int[] cards;
+  private int position;
+  private int limit;
+
+  /**
+   * Create a cursor over the given cards.
+   *
+   * @param cards    the indices of the cards in the order of the deck
+   * @param position the position of the next card
+   * @param limit    the number of cards that were drawn, the cursor stops there
+   */
+  public DeckCursor(int[] cards, int position, int limit) {
+    this.cards = cards;
+    reset(position, limit);
+  }
+
+  /**
+   * Create a cursor over the cards of the deck.
+   *
+   * @param deck     the deck
+   * @param position the position of the next card
+   * @return the cursor
+   */
+  public static DeckCursor of(PokerDeck deck, int position) {
+    int[] cards = new int[Card.NUMBER_OF_CARDS];
+    for (int index = 0; index < cards.length; index++) {
+      cards[index] = deck.drawCard(index).ordinalIndex();
+    }
+    return new DeckCursor(cards, position, cards.length);
+  }
+
+  /**
+   * Move the cursor to the given position of the cards.
+   *
+   * @param position the position of the next card
+   * @param limit    the number of cards that were drawn, the cursor stops there
+   */
+  public void reset(int position, int limit) {
+    if (limit < 0 || limit > cards.length || position < 0 || position > limit) {
+      throw new IndexOutOfBoundsException(
+          "Can't move to card %d of %d cards!".formatted(position, limit));
+    }
+
+    this.position = position;
+    this.limit = limit;
+  }
+
+  /**
+   * Draw the next card.
+   *
+   * @return the index of the card
+   * @throws IllegalStateException if there are no cards left
+   */
+  public int next() {
+    if (position >= limit) {
+      throw new IllegalStateException("There are no cards left to draw from the deck!");
+    }
+    return cards[position++];
+  }
+
+  public int position() {
+    return position;
+  }
+
+  /**
+   * Returns the number of cards that can still be drawn.
+   *
+   * @return the number of remaining cards
+   */
+  public int remaining() {
+    return limit - position;
+  }
+}
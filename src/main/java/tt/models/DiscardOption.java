@@ -0,0 +1,44 @@
+package tt.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The exact outcomes of one choice of discards in the draw round over all possible replacements.
+ *
+ * @param discards   the positions of the discarded cards, where bit i is the card at position i
+ * @param keptCards  the cards that are kept
+ * @param draws      the number of possible replacements
+ * @param typeCounts the number of replacements that result in each type of hand
+ * @param wins       the number of replacements that beat the opponent
+ * @param ties       the number of replacements that tie with the opponent
+ */
+public record DiscardOption(int discards, List<Card> keptCards, long draws,
+                            Map<HandType, Long> typeCounts, long wins, long ties) {
+  /**
+   * Returns the probability of ending up with a hand of the given type.
+   *
+   * @param type the type of the hand
+   * @return the probability between 0 and 1 (incl.)
+   */
+  public double probabilityOf(HandType type) {
+    return (double) typeCounts.getOrDefault(type, 0L) / draws;
+  }
+
+  public double winProbability() {
+    return (double) wins / draws;
+  }
+
+  public double tieProbability() {
+    return (double) ties / draws;
+  }
+
+  /**
+   * Returns the expected share of the pot against the opponent, where a tie counts half.
+   *
+   * @return the equity between 0 and 1 (incl.)
+   */
+  public double equity() {
+    return (wins + ties / 2.0) / draws;
+  }
+}
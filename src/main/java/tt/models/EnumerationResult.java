@@ -0,0 +1,86 @@
+package tt.models;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The exact number of hands per rank class and per type of an enumeration of five card hands. The
+ * rank classes are the 7462 equivalence classes as defined by
+ * {@link tt.services.impl.hands.lookup.FiveCardRankTable}.
+ */
+public class EnumerationResult {
+  private final long[] rankCounts;
+  private final Map<HandType, Long> typeCounts;
+  private final long numberOfHands;
+  private final Duration duration;
+
+  /**
+   * Create the result of an enumeration.
+   *
+   * @param rankCounts the number of hands per rank class
+   * @param typeCounts the number of hands per type
+   * @param duration   the time the enumeration took
+   */
+  public EnumerationResult(long[] rankCounts, Map<HandType, Long> typeCounts, Duration duration) {
+    this.rankCounts = rankCounts.clone();
+    this.typeCounts = new EnumMap<>(HandType.class);
+    for (HandType type : HandType.values()) {
+      this.typeCounts.put(type, typeCounts.getOrDefault(type, 0L));
+    }
+    this.numberOfHands = Arrays.stream(rankCounts).sum();
+    this.duration = duration;
+  }
+
+  /**
+   * Returns the number of enumerated hands.
+   *
+   * @return the number of hands
+   */
+  public long numberOfHands() {
+    return numberOfHands;
+  }
+
+  /**
+   * Returns the number of hands of the given type.
+   *
+   * @param type the type of the hands
+   * @return the number of hands
+   */
+  public long countOf(HandType type) {
+    return typeCounts.get(type);
+  }
+
+  /**
+   * Returns the number of hands of the given rank class.
+   *
+   * @param rank the rank between 0 and 7461 (incl.)
+   * @return the number of hands
+   */
+  public long countOfRank(int rank) {
+    return rankCounts[rank];
+  }
+
+  /**
+   * Returns the number of rank classes that at least one of the hands belongs to.
+   *
+   * @return the number of distinct rank classes
+   */
+  public int numberOfRankClasses() {
+    return (int) Arrays.stream(rankCounts).filter(count -> count > 0).count();
+  }
+
+  public Duration duration() {
+    return duration;
+  }
+
+  /**
+   * Returns the throughput of the enumeration.
+   *
+   * @return the number of hands per second
+   */
+  public double handsPerSecond() {
+    return numberOfHands / Math.max(1e-9, duration.toNanos() / 1e9);
+  }
+}
@@ -0,0 +1,44 @@
+package tt.models;
+
+import java.util.List;
+
+/**
+ * The outcomes of a hand over all trials of an equity calculation.
+ *
+ * @param cards  the known cards of the hand
+ * @param wins   the number of trials the hand won alone
+ * @param ties   the number of trials the hand split the pot
+ * @param losses the number of trials the hand lost
+ * @param share  the share of the pot the hand won over all trials, where 1.0 is a whole pot
+ */
+public record Equity(List<Card> cards, long wins, long ties, long losses, double share) {
+  /**
+   * Returns the number of trials.
+   *
+   * @return the number of trials
+   */
+  public long trials() {
+    return wins + ties + losses;
+  }
+
+  public double winProbability() {
+    return (double) wins / trials();
+  }
+
+  public double tieProbability() {
+    return (double) ties / trials();
+  }
+
+  public double lossProbability() {
+    return (double) losses / trials();
+  }
+
+  /**
+   * Returns the expected share of the pot, where split pots count with their part.
+   *
+   * @return the equity between 0 and 1 (incl.)
+   */
+  public double equity() {
+    return share / trials();
+  }
+}
@@ -0,0 +1,22 @@
+package tt.models;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The result of an equity calculation.
+ *
+ * @param equities the equity of each known hand in the order of the hands
+ * @param trials   the number of dealt games
+ * @param duration the time the calculation took
+ */
+public record EquityResult(List<Equity> equities, long trials, Duration duration) {
+  /**
+   * Returns the throughput of the calculation.
+   *
+   * @return the number of trials per second
+   */
+  public double trialsPerSecond() {
+    return trials / Math.max(1e-9, duration.toNanos() / 1e9);
+  }
+}
@@ -0,0 +1,144 @@
+package tt.models;
+
+import tt.util.PackedHands;
+
+/**
+ * Holds the state of a single game in primitive arrays, so it can be reused for every game of a
+ * simulation without creating any objects. Each thread should use its own context.
+ * <p>
+ * The hands of the players are packed as defined by {@link PackedHands} and the strengths are
+ * the ones of the analyzer that evaluated the hands.
+ */
+public class GameContext {
+  /**
+   * The maximum number of players that can be dealt 5 cards from a single deck.
+   */
+  public static final int MAX_PLAYERS = Card.NUMBER_OF_CARDS / 5;
+
+  private final int[] deck = new int[Card.NUMBER_OF_CARDS];
+  private final DeckCursor cursor = new DeckCursor(deck, 0, 0);
+  private final int[] hands;
+  private final int[] strengths;
+  private final int[] winners;
+  private int numberOfPlayers;
+  private int numberOfWinners;
+
+  /**
+   * Create a context for games of up to the given number of players.
+   *
+   * @param maxPlayers the maximum number of players
+   */
+  public GameContext(int maxPlayers) {
+    if (maxPlayers < 1 || maxPlayers > MAX_PLAYERS) {
+      throw new IllegalArgumentException(
+          "A game context can hold 1 to %d players, not %d!".formatted(MAX_PLAYERS, maxPlayers));
+    }
+
+    this.hands = new int[maxPlayers];
+    this.strengths = new int[maxPlayers];
+    this.winners = new int[maxPlayers];
+  }
+
+  /**
+   * Start a new game with the given number of players. The hands and winners of the previous game
+   * are discarded.
+   *
+   * @param numberOfPlayers the number of players of the new game
+   */
+  public void reset(int numberOfPlayers) {
+    if (numberOfPlayers < 0 || numberOfPlayers > hands.length) {
+      throw new IllegalArgumentException(
+          "This context can hold up to %d players, not %d!".formatted(hands.length,
+              numberOfPlayers));
+    }
+
+    this.numberOfPlayers = numberOfPlayers;
+    this.numberOfWinners = 0;
+    cursor.reset(0, 0);
+  }
+
+  /**
+   * Returns the buffer for the cards of the deck by their {@link Card#ordinalIndex() index}.
+   *
+   * @return the deck buffer of 52 cards
+   */
+  public int[] getDeck() {
+    return deck;
+  }
+
+  /**
+   * Returns the cursor of the cards in the deck buffer that haven't been dealt yet. It is empty
+   * until a dealer moves it behind the dealt cards.
+   *
+   * @return the cursor of the deck
+   */
+  public DeckCursor getCursor() {
+    return cursor;
+  }
+
+  public int getNumberOfPlayers() {
+    return numberOfPlayers;
+  }
+
+  /**
+   * Set the hand of the player and its strength.
+   *
+   * @param player   the index of the player
+   * @param hand     the packed hand
+   * @param strength the strength of the hand
+   */
+  public void setHand(int player, int hand, int strength) {
+    hands[player] = hand;
+    strengths[player] = strength;
+  }
+
+  /**
+   * Returns the hand of the player.
+   *
+   * @param player the index of the player
+   * @return the packed hand
+   */
+  public int getHand(int player) {
+    return hands[player];
+  }
+
+  /**
+   * Returns the strength of the hand of the player.
+   *
+   * @param player the index of the player
+   * @return the strength of the hand
+   */
+  public int getStrength(int player) {
+    return strengths[player];
+  }
+
+  /**
+   * Remove all winners of the game.
+   */
+  public void clearWinners() {
+    numberOfWinners = 0;
+  }
+
+  /**
+   * Add the player to the winners of the game.
+   *
+   * @param player the index of the player
+   */
+  public void addWinner(int player) {
+    winners[numberOfWinners++] = player;
+  }
+
+  public int getNumberOfWinners() {
+    return numberOfWinners;
+  }
+
+  /**
+   * Returns the player at the position of the winners.
+   *
+   * @param position the position between 0 and the number of winners (excl.)
+   * @return the index of the player
+   */
+  public int getWinner(int position) {
+    return winners[position];
+  }
+}
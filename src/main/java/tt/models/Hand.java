@@ -1,5 +1,7 @@
 package tt.models;
 
+import tt.util.HandStrengths;
+
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -10,10 +12,14 @@ import java.util.stream.Stream;
 public class Hand {
   private final Card[] cards;
   private final HandType type;
+  private final int strength;
+  private final CardSet cardSet;
 
-  private Hand(HandType type, Card[] cards) {
+  private Hand(HandType type, int strength, CardSet cardSet, Card[] cards) {
     this.cards = cards;
     this.type = type;
+    this.strength = strength;
+    this.cardSet = cardSet;
   }
 
   /**
@@ -24,14 +30,35 @@ public class Hand {
    * @return the hand
    */
   public static Hand of(HandType type, Collection<Card> cards) {
-    var cardsAsSet = new HashSet<>(cards);
-    if (cardsAsSet.size() != 5) {
+    CardSet cardSet = validate(cards);
+    return new Hand(type, HandStrengths.of(type, cards), cardSet, cards.toArray(Card[]::new));
+  }
+
+  /**
+   * Create a new Hand of poker from the given cards with an already determined strength. There
+   * must be exactly 5 cards.
+   *
+   * @param type     the type
+   * @param strength the strength of the cards as defined by {@link HandStrengths}
+   * @param cards    the cards
+   * @return the hand
+   */
+  public static Hand of(HandType type, int strength, Collection<Card> cards) {
+    CardSet cardSet = validate(cards);
+    return new Hand(type, strength, cardSet, cards.toArray(Card[]::new));
+  }
+
+  private static CardSet validate(Collection<Card> cards) {
+    if (cards.size() != 5) {
       throw new IllegalArgumentException("must have exactly 5 distinct cards");
-    } else if (cardsAsSet.contains(null)) {
-      throw new IllegalArgumentException("all cards must not be null");
     }
 
-    return new Hand(type, cards.toArray(Card[]::new));
+    // a duplicate card sets the same bit twice, so fewer bits than cards are set
+    CardSet cardSet = CardSet.of(cards);
+    if (cardSet.size() != 5) {
+      throw new IllegalArgumentException("must have exactly 5 distinct cards");
+    }
+    return cardSet;
   }
 
   /**
@@ -43,6 +70,25 @@ public class Hand {
     return type;
   }
 
+  /**
+   * Returns the strength of the hand. A hand with a higher strength beats a hand with a lower
+   * strength and hands of equal strength split the pot.
+   *
+   * @return the strength
+   */
+  public int getStrength() {
+    return strength;
+  }
+
+  /**
+   * Returns the cards in this hand as a set.
+   *
+   * @return the set of cards
+   */
+  public CardSet getCardSet() {
+    return cardSet;
+  }
+
   /**
    * Returns the cards in this hand. There is no order to the cards!
    *
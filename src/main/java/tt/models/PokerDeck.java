@@ -18,6 +18,41 @@ public class PokerDeck implements Iterable<Card> {
     this.cards = fill(cards);
   }
 
+  private PokerDeck(Card[] cards) {
+    this.cards = cards;
+  }
+
+  /**
+   * Create a deck from a permutation of the card indices as defined by {@link Card#ordinalIndex}.
+   * The permutation is validated with the bits of the cards, so it is as cheap as copying it.
+   *
+   * @param permutation the indices of all 52 cards in the order of the deck
+   * @return the deck with the cards in the order of the permutation
+   * @throws IllegalArgumentException if the permutation doesn't contain every card exactly once
+   */
+  public static PokerDeck fromPermutation(int[] permutation) {
+    if (permutation == null || permutation.length != Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("A valid deck must contain exactly 52 cards!");
+    }
+
+    Card[] cards = new Card[Card.NUMBER_OF_CARDS];
+    long bits = 0;
+    for (int index = 0; index < cards.length; index++) {
+      int card = permutation[index];
+      if (card < 0 || card >= Card.NUMBER_OF_CARDS) {
+        throw new IllegalArgumentException("There is no card with the index " + card + "!");
+      }
+      cards[index] = Card.fromIndex(card);
+      bits |= 1L << card;
+    }
+
+    // a duplicate leaves the bit of a missing card unset
+    if (bits != CardSet.ALL_CARDS) {
+      throw new IllegalArgumentException("There cannot be any duplicate cards in the deck!");
+    }
+    return new PokerDeck(cards);
+  }
+
   /**
    * Perform validations of the provided cards, so that this represents a valid deck.
    *
@@ -29,15 +64,18 @@ public class PokerDeck implements Iterable<Card> {
       throw new IllegalArgumentException("A valid deck must contain exactly 52 cards!");
     }
 
-    // check if there are any duplicates
-    Set<Card> cardsAsSet = new HashSet<>(cards);
-    if (cardsAsSet.size() != 52) {
-      throw new IllegalArgumentException("There cannot be any duplicate cards in the deck!");
+    long bits = 0;
+    for (Card card : cards) {
+      // there can't be a null value present!
+      if (card == null) {
+        throw new IllegalArgumentException("Null is not a valid card!");
+      }
+      bits |= CardSet.bitOf(card);
     }
 
-    // there can't be a null value present!
-    if (cardsAsSet.contains(null)) {
-      throw new IllegalArgumentException("Null is not a valid card!");
+    // check if there are any duplicates, which would leave the bit of a missing card unset
+    if (bits != CardSet.ALL_CARDS) {
+      throw new IllegalArgumentException("There cannot be any duplicate cards in the deck!");
     }
   }
 
@@ -63,6 +101,36 @@ public class PokerDeck implements Iterable<Card> {
     return cards[index];
   }
 
+  /**
+   * Returns the set of the cards in this deck, which is always the complete deck.
+   *
+   * @return the set of all cards
+   */
+  public CardSet getCardSet() {
+    return CardSet.FULL_DECK;
+  }
+
+  /**
+   * Returns the set of the cards between the two indices, e.g. the cards that have already been
+   * dealt.
+   *
+   * @param fromIndex the index of the first card (incl.)
+   * @param toIndex   the index of the last card (excl.)
+   * @return the set of the cards in the range
+   */
+  public CardSet getCardSet(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > cards.length || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "Can't select the cards from " + fromIndex + " to " + toIndex + " of a 52 card deck!");
+    }
+
+    long bits = 0;
+    for (int index = fromIndex; index < toIndex; index++) {
+      bits |= CardSet.bitOf(cards[index]);
+    }
+    return new CardSet(bits);
+  }
+
   @Override
   public Iterator<Card> iterator() {
     return Arrays.stream(cards).iterator();
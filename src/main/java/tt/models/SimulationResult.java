@@ -0,0 +1,39 @@
+package tt.models;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The aggregated outcomes of a simulation of many games.
+ *
+ * @param games        the number of played games
+ * @param winsByType   the number of games won by a hand of each type
+ * @param splitPots    the number of games with more than one winner
+ * @param duration     the time the simulation took
+ * @param gcDuration   the time the garbage collectors spent during the simulation
+ */
+public record SimulationResult(long games, Map<HandType, Long> winsByType, long splitPots,
+                               Duration duration, Duration gcDuration) {
+  /**
+   * Returns the share of the games that were won by a hand of the given type.
+   *
+   * @param type the type of the winning hand
+   * @return the frequency between 0 and 1 (incl.)
+   */
+  public double winFrequencyOf(HandType type) {
+    return (double) winsByType.getOrDefault(type, 0L) / games;
+  }
+
+  public double splitPotRate() {
+    return (double) splitPots / games;
+  }
+
+  /**
+   * Returns the throughput of the simulation.
+   *
+   * @return the number of games per second
+   */
+  public double gamesPerSecond() {
+    return games / Math.max(1e-9, duration.toNanos() / 1e9);
+  }
+}
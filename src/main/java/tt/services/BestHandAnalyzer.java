@@ -0,0 +1,20 @@
+package tt.services;
+
+import tt.models.Card;
+import tt.models.Hand;
+
+import java.util.Collection;
+
+/**
+ * Determines the best hand of poker that can be formed from more than 5 cards, e.g. the hole
+ * cards and the board of Texas Hold'em or the 7 cards of Stud.
+ */
+public interface BestHandAnalyzer {
+  /**
+   * Create the best hand of 5 cards that can be formed from the given cards.
+   *
+   * @param cards the 5 to 7 distinct cards to choose from
+   * @return the best hand of poker
+   */
+  Hand createBestHand(Collection<Card> cards);
+}
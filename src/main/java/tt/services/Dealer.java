@@ -1,7 +1,9 @@
 package tt.services;
 
+import tt.models.GameContext;
 import tt.models.Hand;
 import tt.models.Player;
+import tt.util.PackedHands;
 
 import java.util.List;
 
@@ -24,4 +26,41 @@ public interface Dealer {
    * @return the player hands that are winning
    */
   List<Player> showdown(List<Player> players);
+
+  /**
+   * Deal a hand for every player into the context. The hands and strengths of the previous game
+   * in the context are replaced.
+   *
+   * @param numberOfPlayers the number of players that should receive cards
+   * @param context         the context that receives the hands of the players
+   */
+  default void deal(int numberOfPlayers, GameContext context) {
+    List<Player> players = deal(numberOfPlayers);
+    context.reset(players.size());
+    for (int player = 0; player < players.size(); player++) {
+      Hand hand = players.get(player).hand();
+      context.setHand(player, PackedHands.pack(hand.getCards()), hand.getStrength());
+    }
+  }
+
+  /**
+   * Determine the winners of the hands in the context. The winners are the players with the
+   * highest strength in the order of their seats.
+   *
+   * @param context the context with the dealt hands, which receives the winners
+   */
+  default void showdown(GameContext context) {
+    context.clearWinners();
+    int winningStrength = Integer.MIN_VALUE;
+    for (int player = 0; player < context.getNumberOfPlayers(); player++) {
+      int strength = context.getStrength(player);
+      if (strength > winningStrength) {
+        context.clearWinners();
+        winningStrength = strength;
+      }
+      if (strength == winningStrength) {
+        context.addWinner(player);
+      }
+    }
+  }
 }
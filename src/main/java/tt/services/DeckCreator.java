@@ -1,5 +1,7 @@
 package tt.services;
 
+import tt.models.Card;
+import tt.models.CardSet;
 import tt.models.PokerDeck;
 
 /**
@@ -12,4 +14,53 @@ public interface DeckCreator {
    * @return a valid poker deck of 52 cards
    */
   PokerDeck create();
+
+  /**
+   * Draw the first cards of a new deck into the given array by their
+   * {@link tt.models.Card#ordinalIndex() index}.
+   *
+   * @param cards         the array that receives the cards
+   * @param numberOfCards the number of cards to draw
+   */
+  default void draw(int[] cards, int numberOfCards) {
+    PokerDeck deck = create();
+    for (int i = 0; i < numberOfCards; i++) {
+      cards[i] = deck.drawCard(i).ordinalIndex();
+    }
+  }
+
+  /**
+   * Draw more cards of a deck whose first cards are already in the array, e.g. the replacements
+   * of the draw round. The new cards are drawn from the cards that aren't in the array yet.
+   * <p>
+   * By default the new cards are the remaining cards of a new deck in the order of that deck.
+   * Creators that can continue the deck they dealt, or whose decks must not depend on the number
+   * of draw rounds, override it.
+   *
+   * @param cards         the array with the drawn cards at its start, which receives the new
+   *                      cards behind them
+   * @param drawnCards    the number of cards that are already drawn
+   * @param numberOfCards the number of new cards
+   * @throws IllegalArgumentException if there aren't enough cards left
+   */
+  default void drawMore(int[] cards, int drawnCards, int numberOfCards) {
+    if (drawnCards < 0 || numberOfCards < 0 || drawnCards + numberOfCards > Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Can't draw %d more cards after %d of 52 cards!".formatted(
+          numberOfCards, drawnCards));
+    }
+
+    long drawn = 0;
+    for (int i = 0; i < drawnCards; i++) {
+      drawn |= 1L << cards[i];
+    }
+    int position = drawnCards;
+    for (Card card : create()) {
+      if (position == drawnCards + numberOfCards) {
+        break;
+      }
+      if ((drawn & CardSet.bitOf(card)) == 0) {
+        cards[position++] = card.ordinalIndex();
+      }
+    }
+  }
 }
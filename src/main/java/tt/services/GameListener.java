@@ -0,0 +1,34 @@
+package tt.services;
+
+import tt.models.GameContext;
+
+/**
+ * Observes the games of a dealer, e.g. to record them. The methods are called on the thread that
+ * plays the game and the context is reused for the next game, so a listener must copy what it
+ * keeps and return quickly.
+ */
+public interface GameListener {
+  /**
+   * The listener that ignores every game.
+   */
+  GameListener NONE = new GameListener() {
+  };
+
+  /**
+   * Called after the hands were dealt into the context.
+   *
+   * @param context the context with the dealt hands
+   */
+  default void dealt(GameContext context) {
+    // ignored
+  }
+
+  /**
+   * Called after the winners of the game were determined.
+   *
+   * @param context the context with the hands and the winners
+   */
+  default void showdown(GameContext context) {
+    // ignored
+  }
+}
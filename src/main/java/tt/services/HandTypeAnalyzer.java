@@ -2,6 +2,7 @@ package tt.services;
 
 import tt.models.Card;
 import tt.models.Hand;
+import tt.util.PackedHands;
 
 import java.util.Collection;
 
@@ -21,4 +22,40 @@ public interface HandTypeAnalyzer {
    * @return the list of hands that are winning the tiebreaker
    */
   Collection<Hand> tiebreak(Collection<Hand> hands);
+
+  /**
+   * Determine the strength of a single hand that is packed as defined by {@link PackedHands}. The
+   * strength is the same as the one of the hand created by {@link #createHand(Collection)}.
+   *
+   * @param hand the packed hand
+   * @return the strength of the hand
+   * @throws IllegalArgumentException if the hand doesn't consist of 5 distinct cards
+   */
+  default int evaluate(int hand) {
+    if (!PackedHands.isValid(hand)) {
+      throw new IllegalArgumentException("must have exactly 5 distinct cards");
+    }
+    return createHand(PackedHands.toCards(hand)).getStrength();
+  }
+
+  /**
+   * Determine the strength of many hands that are packed as defined by {@link PackedHands}. The
+   * strengths are the same as the ones of the hands created by {@link #createHand(Collection)},
+   * so the winners of a showdown are the hands with the highest strength.
+   *
+   * @param hands         the packed hands
+   * @param strengths     the array that receives the strength of each hand at its position
+   * @param numberOfHands the number of hands to evaluate from the start of the arrays
+   * @throws IllegalArgumentException if any hand doesn't consist of 5 distinct cards or the
+   *                                  arrays are too short
+   */
+  default void evaluate(int[] hands, int[] strengths, int numberOfHands) {
+    if (numberOfHands < 0 || hands.length < numberOfHands || strengths.length < numberOfHands) {
+      throw new IllegalArgumentException("the arrays must hold " + numberOfHands + " hands");
+    }
+
+    for (int i = 0; i < numberOfHands; i++) {
+      strengths[i] = evaluate(hands[i]);
+    }
+  }
 }
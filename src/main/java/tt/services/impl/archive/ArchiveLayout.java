@@ -0,0 +1,40 @@
+package tt.services.impl.archive;
+
+import java.nio.ByteOrder;
+
+/**
+ * The files of a game archive. Every column is stored in its own file, so a query only reads the
+ * columns it needs:
+ * <ul>
+ *   <li>{@value #PLAYERS}: the number of players of every game as a byte</li>
+ *   <li>{@value #HANDS}: the packed hand of every seat as an int, {@code seats} per game</li>
+ *   <li>{@value #STRENGTHS}: the strength of every seat as an int, {@code seats} per game</li>
+ *   <li>{@value #WINNING_TYPES}: the ordinal of the type of the winning hand as a byte</li>
+ *   <li>{@value #SPLITS}: 1 if the pot was split, otherwise 0, as a byte</li>
+ *   <li>{@value #INDEX}: the minimum and maximum number of players and winning type of every
+ *   block of {@value #BLOCK_SIZE} games and its number of split pots</li>
+ * </ul>
+ * The file {@value #HEADER} holds the magic, the version, the number of seats per game, the block
+ * size and the number of games. It is written last, so an archive without it is incomplete. All
+ * numbers are little endian and unused seats are 0.
+ */
+final class ArchiveLayout {
+  static final String HEADER = "archive.header";
+  static final String PLAYERS = "players.col";
+  static final String HANDS = "hands.col";
+  static final String STRENGTHS = "strengths.col";
+  static final String WINNING_TYPES = "winning-types.col";
+  static final String SPLITS = "splits.col";
+  static final String INDEX = "blocks.idx";
+
+  static final int MAGIC = 0x41474650;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 24;
+  static final int BLOCK_SIZE = 1 << 12;
+  static final int INDEX_ENTRY_SIZE = 8;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private ArchiveLayout() {
+    // no instance
+  }
+}
@@ -0,0 +1,488 @@
+package tt.services.impl.archive;
+
+import tt.models.HandType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Answers queries over a game archive written by {@link GameArchiveWriter}, e.g. all games of 6 or
+ * more players won by a full house or the split pot rate per winning type, without evaluating any
+ * hand again.
+ * <p>
+ * The index of the blocks is loaded when the archive is opened. A query skips every block whose
+ * range of players and winning types doesn't intersect the filter and the blocks that lie
+ * completely within the filter are often answered by the index alone. The other blocks are split
+ * over the pool and only the columns the query needs are read. The columns are memory-mapped in
+ * segments of {@value #BLOCKS_PER_SEGMENT} blocks when they are first touched, so the archive
+ * can be larger than the address space of a single mapping.
+ */
+public class GameArchive implements AutoCloseable {
+  private static final int BLOCKS_PER_SEGMENT = 1 << 10;
+  private static final int BLOCKS_PER_TASK = 4;
+  private static final HandType[] TYPES = HandType.values();
+
+  private final Path directory;
+  private final ForkJoinPool pool;
+  private final int seats;
+  private final long numberOfGames;
+  private final int numberOfBlocks;
+  private final byte[] minPlayers;
+  private final byte[] maxPlayers;
+  private final byte[] minTypes;
+  private final byte[] maxTypes;
+  private final int[] splits;
+  private final Column playersColumn;
+  private final Column handsColumn;
+  private final Column strengthsColumn;
+  private final Column winningTypesColumn;
+  private final Column splitsColumn;
+
+  private GameArchive(Path directory, ForkJoinPool pool, int seats, long numberOfGames)
+      throws IOException {
+    this.directory = directory;
+    this.pool = pool;
+    this.seats = seats;
+    this.numberOfGames = numberOfGames;
+    this.numberOfBlocks = (int) ((numberOfGames + ArchiveLayout.BLOCK_SIZE - 1)
+        / ArchiveLayout.BLOCK_SIZE);
+
+    ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(ArchiveLayout.INDEX)))
+        .order(ArchiveLayout.ORDER);
+    if (index.remaining() != numberOfBlocks * ArchiveLayout.INDEX_ENTRY_SIZE) {
+      throw new IllegalArgumentException("the index doesn't match the number of games");
+    }
+    minPlayers = new byte[numberOfBlocks];
+    maxPlayers = new byte[numberOfBlocks];
+    minTypes = new byte[numberOfBlocks];
+    maxTypes = new byte[numberOfBlocks];
+    splits = new int[numberOfBlocks];
+    for (int block = 0; block < numberOfBlocks; block++) {
+      minPlayers[block] = index.get();
+      maxPlayers[block] = index.get();
+      minTypes[block] = index.get();
+      maxTypes[block] = index.get();
+      splits[block] = index.getInt();
+    }
+
+    playersColumn = new Column(ArchiveLayout.PLAYERS, 1);
+    handsColumn = new Column(ArchiveLayout.HANDS, seats * Integer.BYTES);
+    strengthsColumn = new Column(ArchiveLayout.STRENGTHS, seats * Integer.BYTES);
+    winningTypesColumn = new Column(ArchiveLayout.WINNING_TYPES, 1);
+    splitsColumn = new Column(ArchiveLayout.SPLITS, 1);
+  }
+
+  /**
+   * Open a complete archive.
+   *
+   * @param directory the directory of the archive
+   * @param pool      the pool that scans the blocks
+   * @return the archive
+   * @throws IllegalArgumentException if the directory doesn't hold a complete archive
+   */
+  public static GameArchive open(Path directory, ForkJoinPool pool) {
+    try {
+      ByteBuffer header;
+      try {
+        header = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(ArchiveLayout.HEADER)))
+            .order(ArchiveLayout.ORDER);
+      } catch (NoSuchFileException e) {
+        throw new IllegalArgumentException("there is no complete archive in " + directory);
+      }
+      if (header.remaining() != ArchiveLayout.HEADER_SIZE
+          || header.getInt() != ArchiveLayout.MAGIC || header.getInt() != ArchiveLayout.VERSION) {
+        throw new IllegalArgumentException("this is not an archive of version "
+            + ArchiveLayout.VERSION);
+      }
+      int seats = header.getInt();
+      int blockSize = header.getInt();
+      long numberOfGames = header.getLong();
+      if (blockSize != ArchiveLayout.BLOCK_SIZE || seats < 1 || numberOfGames < 0) {
+        throw new IllegalArgumentException("the header of the archive is invalid");
+      }
+      return new GameArchive(directory, pool, seats, numberOfGames);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't open the archive " + directory, e);
+    }
+  }
+
+  public int getSeats() {
+    return seats;
+  }
+
+  public long getNumberOfGames() {
+    return numberOfGames;
+  }
+
+  /**
+   * Returns the number of players of a game.
+   *
+   * @param game the number of the game in the order of the archive
+   * @return the number of players
+   */
+  public int numberOfPlayersOf(long game) {
+    return playersColumn.get(validateGame(game));
+  }
+
+  /**
+   * Returns the packed hand of a player as defined by {@link tt.util.PackedHands}.
+   *
+   * @param game   the number of the game in the order of the archive
+   * @param player the seat of the player
+   * @return the packed hand
+   */
+  public int handOf(long game, int player) {
+    return handsColumn.getInt(validateGame(game), validateSeat(game, player));
+  }
+
+  /**
+   * Returns the strength of the hand of a player.
+   *
+   * @param game   the number of the game in the order of the archive
+   * @param player the seat of the player
+   * @return the strength of the hand
+   */
+  public int strengthOf(long game, int player) {
+    return strengthsColumn.getInt(validateGame(game), validateSeat(game, player));
+  }
+
+  /**
+   * Returns the type of the winning hand of a game.
+   *
+   * @param game the number of the game in the order of the archive
+   * @return the type of the winning hand
+   */
+  public HandType winningTypeOf(long game) {
+    return TYPES[winningTypesColumn.get(validateGame(game))];
+  }
+
+  /**
+   * Returns whether the pot of a game was split.
+   *
+   * @param game the number of the game in the order of the archive
+   * @return true if several players had the winning hand
+   */
+  public boolean isSplit(long game) {
+    return splitsColumn.get(validateGame(game)) != 0;
+  }
+
+  /**
+   * Count the games the filter selects.
+   *
+   * @param filter the filter of the games
+   * @return the number of selected games
+   */
+  public long count(GameFilter filter) {
+    return scan(filter, () -> new long[1], (block, covered, count) -> {
+      if (covered) {
+        count[0] += filter.splitsOnly() ? splits[block] : gamesIn(block);
+        return;
+      }
+
+      long end = endOf(block);
+      for (long game = startOf(block); game < end; game++) {
+        if (matches(filter, game)) {
+          count[0]++;
+        }
+      }
+    }, (left, right) -> {
+      left[0] += right[0];
+      return left;
+    })[0];
+  }
+
+  /**
+   * Find the games the filter selects.
+   *
+   * @param filter the filter of the games
+   * @return the numbers of the selected games in ascending order
+   */
+  public long[] findGames(GameFilter filter) {
+    return scan(filter, GameList::new, (block, covered, games) -> {
+      long end = endOf(block);
+      for (long game = startOf(block); game < end; game++) {
+        if ((covered && !filter.splitsOnly()) || matches(filter, game)) {
+          games.add(game);
+        }
+      }
+    }, GameList::append).toArray();
+  }
+
+  /**
+   * Count the games the filter selects and their split pots per type of the winning hand in a
+   * single scan.
+   *
+   * @param filter the filter of the games
+   * @return the number of selected games and split pots per winning type
+   */
+  public WinningTypeCounts winningTypeCounts(GameFilter filter) {
+    long[] counts = countGamesAndSplits(filter);
+    Map<HandType, Long> games = new EnumMap<>(HandType.class);
+    Map<HandType, Long> splitPots = new EnumMap<>(HandType.class);
+    for (HandType type : TYPES) {
+      games.put(type, counts[type.ordinal()]);
+      splitPots.put(type, counts[TYPES.length + type.ordinal()]);
+    }
+    return new WinningTypeCounts(games, splitPots);
+  }
+
+  /**
+   * Count the games the filter selects per type of the winning hand.
+   *
+   * @param filter the filter of the games
+   * @return the number of selected games per winning type
+   */
+  public Map<HandType, Long> countByWinningType(GameFilter filter) {
+    return winningTypeCounts(filter).games();
+  }
+
+  /**
+   * Determine the share of the games with a split pot per type of the winning hand.
+   *
+   * @param filter the filter of the games
+   * @return the split pot rate per winning type, which is missing for types without any game
+   */
+  public Map<HandType, Double> splitPotRateByWinningType(GameFilter filter) {
+    return winningTypeCounts(filter).splitPotRates();
+  }
+
+  /**
+   * Counts the games per winning type followed by the split pots per winning type. A block of a
+   * single winning type within the filter is counted from the index alone.
+   */
+  private long[] countGamesAndSplits(GameFilter filter) {
+    return scan(filter, () -> new long[2 * TYPES.length], (block, covered, counts) -> {
+      if (covered && minTypes[block] == maxTypes[block]) {
+        int type = minTypes[block];
+        counts[type] += filter.splitsOnly() ? splits[block] : gamesIn(block);
+        counts[TYPES.length + type] += splits[block];
+        return;
+      }
+
+      long end = endOf(block);
+      for (long game = startOf(block); game < end; game++) {
+        if (matches(filter, game)) {
+          int type = winningTypesColumn.get(game);
+          counts[type]++;
+          counts[TYPES.length + type] += splitsColumn.get(game);
+        }
+      }
+    }, (left, right) -> {
+      Arrays.setAll(left, i -> left[i] + right[i]);
+      return left;
+    });
+  }
+
+  private boolean matches(GameFilter filter, long game) {
+    return filter.matches(playersColumn.get(game), winningTypesColumn.get(game),
+        splitsColumn.get(game) != 0);
+  }
+
+  private <T> T scan(GameFilter filter, Supplier<T> create, BlockScan<T> scan,
+                     BinaryOperator<T> merge) {
+    return pool.invoke(new ScanTask<>(filter, 0, numberOfBlocks, create, scan, merge));
+  }
+
+  private long startOf(int block) {
+    return (long) block * ArchiveLayout.BLOCK_SIZE;
+  }
+
+  private long endOf(int block) {
+    return Math.min(numberOfGames, startOf(block + 1));
+  }
+
+  private int gamesIn(int block) {
+    return (int) (endOf(block) - startOf(block));
+  }
+
+  private long validateGame(long game) {
+    if (game < 0 || game >= numberOfGames) {
+      throw new IllegalArgumentException("The archive holds %d games, there is no game %d!"
+          .formatted(numberOfGames, game));
+    }
+    return game;
+  }
+
+  private int validateSeat(long game, int player) {
+    if (player < 0 || player >= numberOfPlayersOf(game)) {
+      throw new IllegalArgumentException("The game %d has no player %d!".formatted(game, player));
+    }
+    return player;
+  }
+
+  @Override
+  public void close() {
+    for (Column column : new Column[]{playersColumn, handsColumn, strengthsColumn,
+        winningTypesColumn, splitsColumn}) {
+      column.close();
+    }
+  }
+
+  /**
+   * Scans a single block that intersects the filter into the accumulator of the task. A block is
+   * covered if the index shows that all its games lie within the ranges of the filter, only their
+   * split flags may still differ.
+   */
+  @FunctionalInterface
+  private interface BlockScan<T> {
+    void scan(int block, boolean covered, T accumulator);
+  }
+
+  /**
+   * Scans a range of blocks, every task accumulates into its own result, which is merged with the
+   * results of the other tasks when they are joined.
+   */
+  private final class ScanTask<T> extends RecursiveTask<T> {
+    private final GameFilter filter;
+    private final int from;
+    private final int to;
+    private final Supplier<T> create;
+    private final BlockScan<T> scan;
+    private final BinaryOperator<T> merge;
+
+    private ScanTask(GameFilter filter, int from, int to, Supplier<T> create, BlockScan<T> scan,
+                     BinaryOperator<T> merge) {
+      this.filter = filter;
+      this.from = from;
+      this.to = to;
+      this.create = create;
+      this.scan = scan;
+      this.merge = merge;
+    }
+
+    @Override
+    protected T compute() {
+      if (to - from > BLOCKS_PER_TASK) {
+        int middle = (from + to) >>> 1;
+        ScanTask<T> right = new ScanTask<>(filter, middle, to, create, scan, merge);
+        right.fork();
+        T left = new ScanTask<>(filter, from, middle, create, scan, merge).compute();
+        return merge.apply(left, right.join());
+      }
+
+      T accumulator = create.get();
+      for (int block = from; block < to; block++) {
+        if (maxPlayers[block] < filter.minPlayers() || minPlayers[block] > filter.maxPlayers()
+            || maxTypes[block] < filter.minType().ordinal()
+            || minTypes[block] > filter.maxType().ordinal()
+            || (filter.splitsOnly() && splits[block] == 0)) {
+          continue;
+        }
+
+        boolean covered = minPlayers[block] >= filter.minPlayers()
+            && maxPlayers[block] <= filter.maxPlayers()
+            && minTypes[block] >= filter.minType().ordinal()
+            && maxTypes[block] <= filter.maxType().ordinal();
+        scan.scan(block, covered, accumulator);
+      }
+      return accumulator;
+    }
+  }
+
+  /**
+   * The numbers of the found games, the games of the left tasks come first when they are merged.
+   */
+  private static final class GameList {
+    private long[] games = new long[16];
+    private int size;
+
+    void add(long game) {
+      if (size == games.length) {
+        games = Arrays.copyOf(games, 2 * size);
+      }
+      games[size++] = game;
+    }
+
+    GameList append(GameList other) {
+      if (size + other.size > games.length) {
+        games = Arrays.copyOf(games, Math.max(2 * games.length, size + other.size));
+      }
+      System.arraycopy(other.games, 0, games, size, other.size);
+      size += other.size;
+      return this;
+    }
+
+    long[] toArray() {
+      return Arrays.copyOf(games, size);
+    }
+  }
+
+  /**
+   * A column file with a fixed number of bytes per game. The segments are mapped when they are
+   * first read and shared by all threads, which only use absolute reads.
+   */
+  private final class Column {
+    private final FileChannel channel;
+    private final int bytesPerGame;
+    private final long size;
+    private final AtomicReferenceArray<ByteBuffer> segments;
+
+    private Column(String name, int bytesPerGame) throws IOException {
+      this.channel = FileChannel.open(directory.resolve(name), StandardOpenOption.READ);
+      this.bytesPerGame = bytesPerGame;
+      this.size = numberOfGames * bytesPerGame;
+      if (channel.size() != size) {
+        channel.close();
+        throw new IllegalArgumentException("the column %s doesn't match the number of games"
+            .formatted(name));
+      }
+      this.segments = new AtomicReferenceArray<>(
+          (numberOfBlocks + BLOCKS_PER_SEGMENT - 1) / BLOCKS_PER_SEGMENT);
+    }
+
+    int get(long game) {
+      return segmentOf(game).get(offsetOf(game)) & 0xFF;
+    }
+
+    int getInt(long game, int seat) {
+      return segmentOf(game).getInt(offsetOf(game) + seat * Integer.BYTES);
+    }
+
+    private int offsetOf(long game) {
+      return (int) (game % ((long) BLOCKS_PER_SEGMENT * ArchiveLayout.BLOCK_SIZE)) * bytesPerGame;
+    }
+
+    private ByteBuffer segmentOf(long game) {
+      int index = (int) (game / ArchiveLayout.BLOCK_SIZE / BLOCKS_PER_SEGMENT);
+      ByteBuffer segment = segments.get(index);
+      if (segment == null) {
+        // a segment that is mapped by two threads at once is only kept once
+        long start = (long) index * BLOCKS_PER_SEGMENT * ArchiveLayout.BLOCK_SIZE * bytesPerGame;
+        long length = Math.min(size - start,
+            (long) BLOCKS_PER_SEGMENT * ArchiveLayout.BLOCK_SIZE * bytesPerGame);
+        try {
+          segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length)
+              .order(ArchiveLayout.ORDER);
+        } catch (IOException e) {
+          throw new UncheckedIOException("couldn't map the archive from " + start, e);
+        }
+        if (!segments.compareAndSet(index, null, segment)) {
+          segment = segments.get(index);
+        }
+      }
+      return segment;
+    }
+
+    private void close() {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("couldn't close the archive " + directory, e);
+      }
+    }
+  }
+}
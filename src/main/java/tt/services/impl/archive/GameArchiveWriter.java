@@ -0,0 +1,261 @@
+package tt.services.impl.archive;
+
+import tt.models.GameContext;
+import tt.util.HandStrengths;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends scored games to a game archive as described by {@link ArchiveLayout}. The columns are
+ * collected in direct buffers of one block each, so appending a game doesn't create any objects,
+ * and the statistics of the block are written to the index when the block is complete.
+ * <p>
+ * The archive is only complete once {@link #commit()} wrote its header. A writer that is closed
+ * without a commit, e.g. since the import failed, leaves an archive that can't be opened.
+ */
+public class GameArchiveWriter implements AutoCloseable {
+  private final Path directory;
+  private final int seats;
+  private final FileChannel playersColumn;
+  private final FileChannel handsColumn;
+  private final FileChannel strengthsColumn;
+  private final FileChannel winningTypesColumn;
+  private final FileChannel splitsColumn;
+  private final FileChannel indexFile;
+  private final ByteBuffer playersBuffer;
+  private final ByteBuffer handsBuffer;
+  private final ByteBuffer strengthsBuffer;
+  private final ByteBuffer winningTypesBuffer;
+  private final ByteBuffer splitsBuffer;
+  private final ByteBuffer indexBuffer;
+  private final int[] hands = new int[GameContext.MAX_PLAYERS];
+  private final int[] strengths = new int[GameContext.MAX_PLAYERS];
+  private long numberOfGames;
+  private int minPlayers;
+  private int maxPlayers;
+  private int minType;
+  private int maxType;
+  private int numberOfSplits;
+  private boolean committed;
+
+  /**
+   * Create a new archive in the directory, the files of an existing archive are replaced.
+   *
+   * @param directory the directory of the archive
+   * @param seats     the maximum number of players of a game
+   */
+  public GameArchiveWriter(Path directory, int seats) {
+    if (seats < 1 || seats > GameContext.MAX_PLAYERS) {
+      throw new IllegalArgumentException("An archive can hold games of 1 to %d players, not %d!"
+          .formatted(GameContext.MAX_PLAYERS, seats));
+    }
+
+    this.directory = directory;
+    this.seats = seats;
+    try {
+      Files.createDirectories(directory);
+      Files.deleteIfExists(directory.resolve(ArchiveLayout.HEADER));
+      this.playersColumn = create(ArchiveLayout.PLAYERS);
+      this.handsColumn = create(ArchiveLayout.HANDS);
+      this.strengthsColumn = create(ArchiveLayout.STRENGTHS);
+      this.winningTypesColumn = create(ArchiveLayout.WINNING_TYPES);
+      this.splitsColumn = create(ArchiveLayout.SPLITS);
+      this.indexFile = create(ArchiveLayout.INDEX);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't create the archive " + directory, e);
+    }
+
+    this.playersBuffer = allocate(ArchiveLayout.BLOCK_SIZE);
+    this.handsBuffer = allocate(ArchiveLayout.BLOCK_SIZE * seats * Integer.BYTES);
+    this.strengthsBuffer = allocate(ArchiveLayout.BLOCK_SIZE * seats * Integer.BYTES);
+    this.winningTypesBuffer = allocate(ArchiveLayout.BLOCK_SIZE);
+    this.splitsBuffer = allocate(ArchiveLayout.BLOCK_SIZE);
+    this.indexBuffer = allocate(ArchiveLayout.INDEX_ENTRY_SIZE);
+    resetBlock();
+  }
+
+  private FileChannel create(String name) throws IOException {
+    return FileChannel.open(directory.resolve(name), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity).order(ArchiveLayout.ORDER);
+  }
+
+  /**
+   * Append the game of the context, the strengths of the hands must already be evaluated.
+   *
+   * @param context the context with the hands of the game
+   */
+  public void append(GameContext context) {
+    int numberOfPlayers = context.getNumberOfPlayers();
+    validateNumberOfPlayers(numberOfPlayers);
+    for (int player = 0; player < numberOfPlayers; player++) {
+      hands[player] = context.getHand(player);
+      strengths[player] = context.getStrength(player);
+    }
+    append(hands, strengths, 0, numberOfPlayers);
+  }
+
+  /**
+   * Append a game from the arrays of a batch, e.g. as read from a hand history and evaluated with
+   * {@link tt.services.HandTypeAnalyzer#evaluate(int[], int[], int)}. The winners are the players
+   * with the highest strength.
+   *
+   * @param packedHands     the packed hands as defined by {@link tt.util.PackedHands}
+   * @param handStrengths   the strengths of the hands
+   * @param offset          the index of the hand of the first player of the game
+   * @param numberOfPlayers the number of players of the game
+   */
+  public void append(int[] packedHands, int[] handStrengths, int offset, int numberOfPlayers) {
+    validateNumberOfPlayers(numberOfPlayers);
+    if (committed) {
+      throw new IllegalStateException("The archive is already committed!");
+    }
+
+    int winningStrength = Integer.MIN_VALUE;
+    int numberOfWinners = 0;
+    playersBuffer.put((byte) numberOfPlayers);
+    for (int seat = 0; seat < seats; seat++) {
+      boolean taken = seat < numberOfPlayers;
+      int strength = taken ? handStrengths[offset + seat] : 0;
+      handsBuffer.putInt(taken ? packedHands[offset + seat] : 0);
+      strengthsBuffer.putInt(strength);
+      if (!taken) {
+        continue;
+      }
+      if (strength > winningStrength) {
+        winningStrength = strength;
+        numberOfWinners = 0;
+      }
+      if (strength == winningStrength) {
+        numberOfWinners++;
+      }
+    }
+
+    int type = HandStrengths.typeOf(winningStrength).ordinal();
+    boolean split = numberOfWinners > 1;
+    winningTypesBuffer.put((byte) type);
+    splitsBuffer.put((byte) (split ? 1 : 0));
+
+    minPlayers = Math.min(minPlayers, numberOfPlayers);
+    maxPlayers = Math.max(maxPlayers, numberOfPlayers);
+    minType = Math.min(minType, type);
+    maxType = Math.max(maxType, type);
+    numberOfSplits += split ? 1 : 0;
+    numberOfGames++;
+    if (!playersBuffer.hasRemaining()) {
+      flushBlock();
+    }
+  }
+
+  private void validateNumberOfPlayers(int numberOfPlayers) {
+    if (numberOfPlayers < 1 || numberOfPlayers > seats) {
+      throw new IllegalArgumentException("The archive holds games of up to %d players, not %d!"
+          .formatted(seats, numberOfPlayers));
+    }
+  }
+
+  public int getSeats() {
+    return seats;
+  }
+
+  public long getNumberOfGames() {
+    return numberOfGames;
+  }
+
+  private void flushBlock() {
+    if (playersBuffer.position() == 0) {
+      return;
+    }
+
+    indexBuffer.put((byte) minPlayers).put((byte) maxPlayers).put((byte) minType)
+        .put((byte) maxType).putInt(numberOfSplits);
+    write(playersColumn, playersBuffer);
+    write(handsColumn, handsBuffer);
+    write(strengthsColumn, strengthsBuffer);
+    write(winningTypesColumn, winningTypesBuffer);
+    write(splitsColumn, splitsBuffer);
+    write(indexFile, indexBuffer);
+    resetBlock();
+  }
+
+  private void resetBlock() {
+    minPlayers = Integer.MAX_VALUE;
+    maxPlayers = 0;
+    minType = Integer.MAX_VALUE;
+    maxType = 0;
+    numberOfSplits = 0;
+  }
+
+  private static void write(FileChannel channel, ByteBuffer buffer) {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't write the archive", e);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Write the last block, force the columns to the disk and write the header, the archive is
+   * complete afterward and no more games can be appended.
+   */
+  public void commit() {
+    if (committed) {
+      return;
+    }
+
+    flushBlock();
+    try {
+      for (FileChannel channel : channels()) {
+        channel.force(false);
+      }
+
+      ByteBuffer header = ByteBuffer.allocate(ArchiveLayout.HEADER_SIZE).order(ArchiveLayout.ORDER);
+      header.putInt(ArchiveLayout.MAGIC).putInt(ArchiveLayout.VERSION).putInt(seats)
+          .putInt(ArchiveLayout.BLOCK_SIZE).putLong(numberOfGames).flip();
+      Files.write(directory.resolve(ArchiveLayout.HEADER), header.array());
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't complete the archive " + directory, e);
+    }
+    committed = true;
+  }
+
+  private FileChannel[] channels() {
+    return new FileChannel[]{playersColumn, handsColumn, strengthsColumn, winningTypesColumn,
+        splitsColumn, indexFile};
+  }
+
+  /**
+   * Close the files. The archive stays incomplete if it wasn't committed.
+   */
+  @Override
+  public void close() {
+    UncheckedIOException failure = null;
+    for (FileChannel channel : channels()) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = new UncheckedIOException("couldn't close the archive " + directory, e);
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
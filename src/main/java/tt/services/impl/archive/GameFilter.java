@@ -0,0 +1,76 @@
+package tt.services.impl.archive;
+
+import tt.models.HandType;
+
+/**
+ * The games a query of a {@link GameArchive} selects, e.g.
+ * {@code GameFilter.ALL.withWinningType(HandType.FULL_HOUSE).withPlayers(6, 10)} for all games of
+ * 6 or more players that are won by a full house. The ranges are inclusive.
+ *
+ * @param minPlayers the minimum number of players
+ * @param maxPlayers the maximum number of players
+ * @param minType    the lowest type of the winning hand
+ * @param maxType    the highest type of the winning hand
+ * @param splitsOnly whether only games with a split pot are selected
+ */
+public record GameFilter(int minPlayers, int maxPlayers, HandType minType, HandType maxType,
+                         boolean splitsOnly) {
+  /**
+   * Selects every game.
+   */
+  public static final GameFilter ALL = new GameFilter(1, Integer.MAX_VALUE, HandType.HIGH_CARD,
+      HandType.STRAIGHT_FLUSH, false);
+
+  public GameFilter {
+    if (minPlayers > maxPlayers || minType.compareTo(maxType) > 0) {
+      throw new IllegalArgumentException("The filter doesn't select any game!");
+    }
+  }
+
+  /**
+   * Returns a filter with the given range of players instead of the current one.
+   *
+   * @param min the minimum number of players
+   * @param max the maximum number of players
+   * @return the filter
+   */
+  public GameFilter withPlayers(int min, int max) {
+    return new GameFilter(min, max, minType, maxType, splitsOnly);
+  }
+
+  /**
+   * Returns a filter with a single type of the winning hand instead of the current range.
+   *
+   * @param type the type of the winning hand
+   * @return the filter
+   */
+  public GameFilter withWinningType(HandType type) {
+    return withWinningTypes(type, type);
+  }
+
+  /**
+   * Returns a filter with the given range of winning types instead of the current one.
+   *
+   * @param min the lowest type of the winning hand
+   * @param max the highest type of the winning hand
+   * @return the filter
+   */
+  public GameFilter withWinningTypes(HandType min, HandType max) {
+    return new GameFilter(minPlayers, maxPlayers, min, max, splitsOnly);
+  }
+
+  /**
+   * Returns a filter that only selects the games with a split pot among the games of this
+   * filter.
+   *
+   * @return the filter
+   */
+  public GameFilter withSplitsOnly() {
+    return new GameFilter(minPlayers, maxPlayers, minType, maxType, true);
+  }
+
+  boolean matches(int numberOfPlayers, int type, boolean split) {
+    return numberOfPlayers >= minPlayers && numberOfPlayers <= maxPlayers
+        && type >= minType.ordinal() && type <= maxType.ordinal() && (split || !splitsOnly);
+  }
+}
@@ -0,0 +1,39 @@
+package tt.services.impl.archive;
+
+import tt.models.HandType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The number of games and split pots per type of the winning hand, as counted by a single scan of
+ * a {@link GameArchive}.
+ *
+ * @param games     the number of selected games per winning type
+ * @param splitPots the number of selected games with a split pot per winning type
+ */
+public record WinningTypeCounts(Map<HandType, Long> games, Map<HandType, Long> splitPots) {
+  /**
+   * Returns the number of all selected games.
+   *
+   * @return the number of games
+   */
+  public long totalGames() {
+    return games.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Determine the share of the games with a split pot per winning type.
+   *
+   * @return the split pot rate per winning type, which is missing for types without any game
+   */
+  public Map<HandType, Double> splitPotRates() {
+    Map<HandType, Double> rates = new EnumMap<>(HandType.class);
+    games.forEach((type, count) -> {
+      if (count > 0) {
+        rates.put(type, (double) splitPots.get(type) / count);
+      }
+    });
+    return rates;
+  }
+}
@@ -0,0 +1,118 @@
+package tt.services.impl.dealer;
+
+import tt.models.GameContext;
+import tt.models.HandType;
+import tt.models.SimulationResult;
+import tt.util.HandStrengths;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Play many games with a {@link FiveCardDrawDealer} without any output and aggregate the
+ * outcomes, e.g. as a throughput test. The games are split over the given pool; every task deals
+ * into its own {@link GameContext} and counts into its own arrays, which are only merged when the
+ * tasks are joined.
+ */
+public class DealerSimulation {
+  private static final long GAMES_PER_TASK = 1 << 14;
+  private static final HandType[] TYPES = HandType.values();
+
+  private final FiveCardDrawDealer dealer;
+  private final ForkJoinPool pool;
+
+  /**
+   * Create a simulation.
+   *
+   * @param dealer the dealer of the games, which must be safe to use from several threads
+   * @param pool   the pool that plays the games
+   */
+  public DealerSimulation(FiveCardDrawDealer dealer, ForkJoinPool pool) {
+    this.dealer = dealer;
+    this.pool = pool;
+  }
+
+  /**
+   * Play the given number of games.
+   *
+   * @param numberOfPlayers the number of players of every game
+   * @param games           the number of games
+   * @return the aggregated outcomes
+   */
+  public SimulationResult simulate(int numberOfPlayers, long games) {
+    if (games < 1) {
+      throw new IllegalArgumentException("There must be at least one game, not %d!".formatted(
+          games));
+    }
+
+    long gcStart = gcMillis();
+    long start = System.nanoTime();
+    long[] counts = pool.invoke(new GameTask(numberOfPlayers, games));
+    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+    Duration gcDuration = Duration.ofMillis(gcMillis() - gcStart);
+
+    Map<HandType, Long> winsByType = new EnumMap<>(HandType.class);
+    for (HandType type : TYPES) {
+      winsByType.put(type, counts[type.ordinal()]);
+    }
+    return new SimulationResult(games, winsByType, counts[TYPES.length], duration, gcDuration);
+  }
+
+  private static long gcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      // collectors that don't support it report -1
+      millis += Math.max(0, collector.getCollectionTime());
+    }
+    return millis;
+  }
+
+  /**
+   * Counts the games won per type of the winning hand and the split pots in the last element.
+   */
+  private final class GameTask extends RecursiveTask<long[]> {
+    private final int numberOfPlayers;
+    private final long games;
+
+    private GameTask(int numberOfPlayers, long games) {
+      this.numberOfPlayers = numberOfPlayers;
+      this.games = games;
+    }
+
+    @Override
+    protected long[] compute() {
+      if (games <= GAMES_PER_TASK) {
+        return play();
+      }
+
+      GameTask left = new GameTask(numberOfPlayers, games / 2);
+      left.fork();
+      long[] counts = new GameTask(numberOfPlayers, games - games / 2).compute();
+      long[] leftCounts = left.join();
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] += leftCounts[i];
+      }
+      return counts;
+    }
+
+    private long[] play() {
+      long[] counts = new long[TYPES.length + 1];
+      GameContext context = new GameContext(numberOfPlayers);
+      for (long game = 0; game < games; game++) {
+        dealer.deal(numberOfPlayers, context);
+        dealer.showdown(context);
+        int winner = context.getWinner(0);
+        counts[HandStrengths.typeOf(context.getStrength(winner)).ordinal()]++;
+        if (context.getNumberOfWinners() > 1) {
+          counts[TYPES.length]++;
+        }
+      }
+      return counts;
+    }
+  }
+}
@@ -1,75 +1,189 @@
 package tt.services.impl.dealer;
 
-import tt.models.Hand;
-import tt.models.HandType;
+import tt.models.Card;
+import tt.models.DeckCursor;
+import tt.models.GameContext;
 import tt.models.Player;
 import tt.models.PokerDeck;
 import tt.services.Dealer;
 import tt.services.DeckCreator;
+import tt.services.GameListener;
 import tt.services.HandTypeAnalyzer;
-import tt.util.Tuple;
+import tt.services.impl.hands.RankTableHandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.util.HandStrengths;
+import tt.util.PackedHands;
 
-import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 /**
  * Deal hands for five card draw poker
  */
 public class FiveCardDrawDealer implements Dealer {
+  /**
+   * The mask of the discards of all 5 cards.
+   */
+  public static final int ALL_POSITIONS = (1 << 5) - 1;
+
   private final DeckCreator creator;
   private final HandTypeAnalyzer analyzer;
+  private final GameListener listener;
+  private final boolean rankTable;
 
   public FiveCardDrawDealer(DeckCreator creator, HandTypeAnalyzer analyzer) {
+    this(creator, analyzer, GameListener.NONE);
+  }
+
+  /**
+   * Create a dealer that reports the games that are played with a {@link GameContext} to the
+   * listener, e.g. a {@link tt.services.impl.journal.GameJournal}.
+   *
+   * @param creator  the creator of the decks
+   * @param analyzer the analyzer of the hands
+   * @param listener the listener that is called after the deal and the showdown
+   */
+  public FiveCardDrawDealer(DeckCreator creator, HandTypeAnalyzer analyzer,
+                            GameListener listener) {
     this.creator = creator;
     this.analyzer = analyzer;
+    this.listener = listener;
+    this.rankTable = analyzer instanceof RankTableHandTypeAnalyzer;
   }
 
   @Override
   public List<Player> deal(int numberOfPlayers) {
-    if (numberOfPlayers < 2 || numberOfPlayers > 7) {
-      throw new IllegalArgumentException(
-          ("Five card draw can only be played by 2 to 7 players! You tried to start a game with " + "%d" + " players!").formatted(
-              numberOfPlayers));
-    }
+    validateNumberOfPlayers(numberOfPlayers);
 
+    // the cards are dealt one per player in turn
     PokerDeck deck = creator.create();
-    return IntStream.range(0, numberOfPlayers * 5)
-        .mapToObj(idx -> new Tuple<>(idx % numberOfPlayers, deck.drawCard(idx)))
-        .collect(Collectors.groupingBy(Tuple::first))
-        .values()
-        .stream()
-        .map(tuples -> {
-          var cards = tuples.stream().map(Tuple::second).toList();
-          return new Player("Player " + (tuples.getFirst().first() + 1),
-              analyzer.createHand(cards));
-        })
+    return IntStream.range(0, numberOfPlayers)
+        .mapToObj(player -> new Player("Player " + (player + 1), analyzer.createHand(List.of(
+            deck.drawCard(player), deck.drawCard(player + numberOfPlayers),
+            deck.drawCard(player + 2 * numberOfPlayers),
+            deck.drawCard(player + 3 * numberOfPlayers),
+            deck.drawCard(player + 4 * numberOfPlayers)))))
         .toList();
   }
 
+  @Override
+  public void deal(int numberOfPlayers, GameContext context) {
+    validateNumberOfPlayers(numberOfPlayers);
+
+    // the cards are drawn into the context and the hands are evaluated in their packed form, the
+    // replacements of the draw round are only drawn if it is played
+    context.reset(numberOfPlayers);
+    int[] deck = context.getDeck();
+    int numberOfCards = 5 * numberOfPlayers;
+    creator.draw(deck, numberOfCards);
+    context.getCursor().reset(numberOfCards, numberOfCards);
+    for (int player = 0; player < numberOfPlayers; player++) {
+      int hand = PackedHands.pack(deck[player], deck[player + numberOfPlayers],
+          deck[player + 2 * numberOfPlayers], deck[player + 3 * numberOfPlayers],
+          deck[player + 4 * numberOfPlayers]);
+      context.setHand(player, hand, analyzer.evaluate(hand));
+    }
+    listener.dealt(context);
+  }
+
+  /**
+   * Play the draw round of the hands in the context: every player discards the cards at the
+   * positions of the mask and receives the replacements in the order of the seats. The
+   * replacements are drawn by {@link DeckCreator#drawMore} behind the dealt cards and taken from
+   * the cursor of the context. All masks are validated before any hand is changed.
+   * <p>
+   * The new hands are evaluated by the analyzer of the dealer, so the strengths of a context never
+   * mix two evaluators. If it looks up the ranks in {@link FiveCardRankTable}, the strengths are
+   * updated from the rank table codes of the kept cards plus the codes of the replacements
+   * instead, which is the same rank without evaluating the hand again.
+   *
+   * @param context  the context with the dealt hands
+   * @param discards the positions of the discarded cards of each player, where bit i is the card
+   *                 at position i of the packed hand
+   * @throws IllegalArgumentException if a mask is invalid
+   * @throws IllegalStateException    if the deck runs out of cards
+   */
+  public void draw(GameContext context, int[] discards) {
+    int numberOfPlayers = context.getNumberOfPlayers();
+    if (discards.length < numberOfPlayers) {
+      throw new IllegalArgumentException("Every one of the %d players must choose the discards!"
+          .formatted(numberOfPlayers));
+    }
+
+    int numberOfReplacements = 0;
+    for (int player = 0; player < numberOfPlayers; player++) {
+      int discard = discards[player];
+      if (discard < 0 || discard > ALL_POSITIONS) {
+        throw new IllegalArgumentException("Invalid discards %s of player %d!".formatted(
+            Integer.toBinaryString(discard), player + 1));
+      }
+      numberOfReplacements += Integer.bitCount(discard);
+    }
+    if (numberOfReplacements == 0) {
+      return;
+    }
+
+    DeckCursor cursor = context.getCursor();
+    int drawnCards = cursor.position();
+    if (drawnCards + numberOfReplacements > Card.NUMBER_OF_CARDS) {
+      throw new IllegalStateException("There are only %d cards left for %d replacements!"
+          .formatted(Card.NUMBER_OF_CARDS - drawnCards, numberOfReplacements));
+    }
+    creator.drawMore(context.getDeck(), drawnCards, numberOfReplacements);
+    cursor.reset(drawnCards, drawnCards + numberOfReplacements);
+
+    for (int player = 0; player < numberOfPlayers; player++) {
+      int discard = discards[player];
+      if (discard == 0) {
+        continue;
+      }
+
+      int hand = context.getHand(player);
+      if (!rankTable) {
+        for (int position = 0; position < 5; position++) {
+          if ((discard & (1 << position)) != 0) {
+            hand = PackedHands.withCardAt(hand, position, cursor.next());
+          }
+        }
+        context.setHand(player, hand, analyzer.evaluate(hand));
+        continue;
+      }
+
+      long code = 0;
+      for (int position = 0; position < 5; position++) {
+        if ((discard & (1 << position)) == 0) {
+          code += FiveCardRankTable.codeOf(PackedHands.cardAt(hand, position));
+        } else {
+          int card = cursor.next();
+          code += FiveCardRankTable.codeOf(card);
+          hand = PackedHands.withCardAt(hand, position, card);
+        }
+      }
+      context.setHand(player, hand, FiveCardRankTable.strengthOf(FiveCardRankTable.rank(code)));
+    }
+  }
+
   @Override
   public List<Player> showdown(List<Player> players) {
-    Map<HandType, List<Player>> handsByType = players.stream()
-        .collect(Collectors.groupingBy(player -> player.hand().getType()));
+    if (players.isEmpty()) {
+      throw new IllegalArgumentException("there must be at least one player in the showdown");
+    }
 
-    HandType winningHandType = handsByType.keySet()
-        .stream()
-        .max(Comparator.comparing(HandType::ordinal))
-        .orElseThrow();
+    // the strength already orders the types, so one pass finds the winners in seat order
+    return HandStrengths.strongest(players, player -> player.hand().getStrength());
+  }
 
-    List<Player> potentialWinners = handsByType.get(winningHandType);
-    return tiebreaker(potentialWinners);
+  @Override
+  public void showdown(GameContext context) {
+    Dealer.super.showdown(context);
+    listener.showdown(context);
   }
 
-  private List<Player> tiebreaker(List<Player> potentialWinners) {
-    Map<Hand, List<Player>> playersByHand = potentialWinners.stream()
-        .collect(Collectors.groupingBy(Player::hand));
-    Collection<Hand> winningHands = analyzer.tiebreak(playersByHand.keySet());
-    return potentialWinners.stream()
-        .filter(player -> winningHands.contains(player.hand()))
-        .toList();
+  private static void validateNumberOfPlayers(int numberOfPlayers) {
+    if (numberOfPlayers < 2 || numberOfPlayers > 7) {
+      throw new IllegalArgumentException(
+          ("Five card draw can only be played by 2 to 7 players! You tried to start a game with " + "%d" + " players!").formatted(
+              numberOfPlayers));
+    }
   }
 }
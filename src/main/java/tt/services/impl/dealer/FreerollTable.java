@@ -0,0 +1,188 @@
+package tt.services.impl.dealer;
+
+import tt.models.Player;
+import tt.models.PokerDeck;
+import tt.services.DeckCreator;
+import tt.services.HandTypeAnalyzer;
+import tt.util.PackedHands;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A single showdown where every entrant gets five cards, e.g. for freeroll promotions with
+ * hundreds of thousands of entrants. The seats are stored column by column: the hand of each seat
+ * is packed into an int array as defined by {@link PackedHands}, the strengths are kept in a
+ * second int array and the names are only created by their index when they are needed. A
+ * {@link Player} is only created for the seats that are asked for, e.g. the winners.
+ * <p>
+ * Every deck deals the hands of up to {@value #SEATS_PER_DECK} seats, one card per seat in turn
+ * like the {@link FiveCardDrawDealer}, so the entrants are spread over as many decks as needed.
+ * The hands are evaluated and ranked in parallel on the given pool.
+ */
+public class FreerollTable {
+  /**
+   * The number of seats that are dealt from a single deck.
+   */
+  public static final int SEATS_PER_DECK = 10;
+
+  private final DeckCreator creator;
+  private final HandTypeAnalyzer analyzer;
+  private final ForkJoinPool pool;
+  private final IntFunction<String> names;
+  private final int[] hands;
+  private final int[] strengths;
+  private boolean dealt;
+
+  /**
+   * Create a table where the seats are named "Player 1", "Player 2" and so on.
+   *
+   * @param creator       the creator of the decks
+   * @param analyzer      the analyzer that evaluates the packed hands
+   * @param pool          the pool that evaluates and ranks the hands
+   * @param numberOfSeats the number of entrants
+   */
+  public FreerollTable(DeckCreator creator, HandTypeAnalyzer analyzer, ForkJoinPool pool,
+                       int numberOfSeats) {
+    this(creator, analyzer, pool, numberOfSeats, seat -> "Player " + (seat + 1));
+  }
+
+  /**
+   * Create a table with the given names of the seats.
+   *
+   * @param creator       the creator of the decks
+   * @param analyzer      the analyzer that evaluates the packed hands
+   * @param pool          the pool that evaluates and ranks the hands
+   * @param numberOfSeats the number of entrants
+   * @param names         the name of each seat by its index
+   */
+  public FreerollTable(DeckCreator creator, HandTypeAnalyzer analyzer, ForkJoinPool pool,
+                       int numberOfSeats, IntFunction<String> names) {
+    if (numberOfSeats < 2) {
+      throw new IllegalArgumentException(
+          "A freeroll needs at least 2 entrants! You tried to start one with %d entrants!".formatted(
+              numberOfSeats));
+    }
+
+    this.creator = creator;
+    this.analyzer = analyzer;
+    this.pool = pool;
+    this.names = names;
+    this.hands = new int[numberOfSeats];
+    this.strengths = new int[numberOfSeats];
+  }
+
+  /**
+   * Deal a new hand to every seat and evaluate all hands.
+   */
+  public void deal() {
+    for (int firstSeat = 0; firstSeat < hands.length; firstSeat += SEATS_PER_DECK) {
+      dealFromDeck(creator.create(), firstSeat, Math.min(SEATS_PER_DECK, hands.length - firstSeat));
+    }
+    pool.submit(() -> analyzer.evaluate(hands, strengths, hands.length)).join();
+    dealt = true;
+  }
+
+  private void dealFromDeck(PokerDeck deck, int firstSeat, int numberOfSeats) {
+    // the cards are dealt one per seat in turn
+    for (int seat = 0; seat < numberOfSeats; seat++) {
+      hands[firstSeat + seat] = PackedHands.pack(deck.drawCard(seat).ordinalIndex(),
+          deck.drawCard(seat + numberOfSeats).ordinalIndex(),
+          deck.drawCard(seat + 2 * numberOfSeats).ordinalIndex(),
+          deck.drawCard(seat + 3 * numberOfSeats).ordinalIndex(),
+          deck.drawCard(seat + 4 * numberOfSeats).ordinalIndex());
+    }
+  }
+
+  /**
+   * Returns the number of seats.
+   *
+   * @return the number of entrants
+   */
+  public int size() {
+    return hands.length;
+  }
+
+  /**
+   * Returns the hand of the seat.
+   *
+   * @param seat the index of the seat
+   * @return the packed hand as defined by {@link PackedHands}
+   */
+  public int handOf(int seat) {
+    return hands[seat];
+  }
+
+  /**
+   * Returns the strength of the hand of the seat.
+   *
+   * @param seat the index of the seat
+   * @return the strength as determined by the analyzer
+   */
+  public int strengthOf(int seat) {
+    return strengths[seat];
+  }
+
+  /**
+   * Determine the seats with the strongest hand.
+   *
+   * @return the indices of the winning seats in seat order
+   * @throws IllegalStateException if no hands were dealt yet
+   */
+  public int[] winners() {
+    requireDealt();
+    return pool.submit(() -> {
+      int winningStrength = IntStream.of(strengths).parallel().max().orElseThrow();
+      return IntStream.range(0, strengths.length)
+          .parallel()
+          .filter(seat -> strengths[seat] == winningStrength)
+          .toArray();
+    }).join();
+  }
+
+  /**
+   * Rank all seats from the strongest to the weakest hand. Seats with hands of equal strength
+   * keep their seat order.
+   *
+   * @return the indices of all seats ordered by their rank
+   * @throws IllegalStateException if no hands were dealt yet
+   */
+  public int[] ranking() {
+    requireDealt();
+    return pool.submit(() -> {
+      // the inverted strength in the upper half sorts the strongest hands first
+      long[] keys = new long[strengths.length];
+      Arrays.parallelSetAll(keys, seat -> ((long) ~strengths[seat] << 32) | seat);
+      Arrays.parallelSort(keys);
+      return Arrays.stream(keys).parallel().mapToInt(key -> (int) key).toArray();
+    }).join();
+  }
+
+  private void requireDealt() {
+    if (!dealt) {
+      throw new IllegalStateException("The hands must be dealt before the showdown!");
+    }
+  }
+
+  /**
+   * Create the player of the seat with its name and hand.
+   *
+   * @param seat the index of the seat
+   * @return the player
+   */
+  public Player player(int seat) {
+    return new Player(names.apply(seat), analyzer.createHand(PackedHands.toCards(hands[seat])));
+  }
+
+  /**
+   * Create the players of the winning seats.
+   *
+   * @return the winners in seat order
+   */
+  public List<Player> winningPlayers() {
+    return Arrays.stream(winners()).mapToObj(this::player).toList();
+  }
+}
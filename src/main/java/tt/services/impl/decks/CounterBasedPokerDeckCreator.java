@@ -0,0 +1,180 @@
+package tt.services.impl.decks;
+
+import tt.models.Card;
+import tt.models.PokerDeck;
+import tt.services.DeckCreator;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Create seeded decks where the deck of every game is a pure function of the seed and the number
+ * of the game. Unlike {@link SeededShuffledPokerDeckCreator}, any game can be created without
+ * creating the games before it, so a simulation can be split over threads or processes by the
+ * game numbers and still produces the same decks, and a single game can be created again for
+ * debugging.
+ * <p>
+ * The random numbers of a game come from a counter: the seed and the game number select a
+ * starting point and the position in the deck is added as a counter, which is scrambled with
+ * the finalizer of SplitMix64.
+ * <p>
+ * The replacements of a draw round are the next cards of the same deck: {@link #drawMore} continues
+ * the shuffle of the last game of the calling thread instead of starting a new game, so the game
+ * numbers and the decks of the later games don't depend on the draw rounds.
+ */
+public class CounterBasedPokerDeckCreator implements DeckCreator {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final long seed;
+  private final AtomicLong nextGame = new AtomicLong();
+  private final ThreadLocal<Shuffle> shuffles = ThreadLocal.withInitial(Shuffle::new);
+
+  /**
+   * Create decks for the given seed, starting with game number 0.
+   *
+   * @param seed the seed of all games
+   */
+  public CounterBasedPokerDeckCreator(long seed) {
+    this.seed = seed;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Create the deck of the next game, the games are numbered in the order of the calls.
+   *
+   * @return the deck of the next game
+   */
+  @Override
+  public PokerDeck create() {
+    return deck(nextGame.getAndIncrement());
+  }
+
+  /**
+   * Draw the first cards of the deck of the next game.
+   *
+   * @param cards         the array that receives the cards
+   * @param numberOfCards the number of cards to draw
+   */
+  @Override
+  public void draw(int[] cards, int numberOfCards) {
+    draw(nextGame.getAndIncrement(), cards, numberOfCards);
+  }
+
+  /**
+   * Create the deck of the game with the given number. The result only depends on the seed and
+   * the game number.
+   *
+   * @param gameNumber the number of the game
+   * @return the deck of the game
+   */
+  public PokerDeck deck(long gameNumber) {
+    Shuffle shuffle = shuffles.get();
+    shuffle(gameNumber, shuffle, Card.NUMBER_OF_CARDS);
+    return PokerDeck.fromPermutation(shuffle.permutation);
+  }
+
+  /**
+   * Draw the first cards of the deck of the game with the given number by their
+   * {@link Card#ordinalIndex() index}. These are the same cards as the first cards of
+   * {@link #deck(long)}.
+   *
+   * @param gameNumber    the number of the game
+   * @param cards         the array that receives the cards
+   * @param numberOfCards the number of cards to draw
+   */
+  public void draw(long gameNumber, int[] cards, int numberOfCards) {
+    if (numberOfCards < 0 || numberOfCards > Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Can't draw %d cards from a 52 card deck!".formatted(
+          numberOfCards));
+    }
+
+    Shuffle shuffle = shuffles.get();
+    shuffle(gameNumber, shuffle, numberOfCards);
+    System.arraycopy(shuffle.permutation, 0, cards, 0, numberOfCards);
+  }
+
+  /**
+   * Draw the next cards of the deck of the last game this thread created or drew, e.g. the
+   * replacements of the draw round. No new game is started, so the new cards are the cards of
+   * {@link #deck(long)} behind the drawn ones.
+   *
+   * @param cards         the array with the drawn cards at its start, which receives the new
+   *                      cards behind them
+   * @param drawnCards    the number of cards that are already drawn
+   * @param numberOfCards the number of new cards
+   * @throws IllegalArgumentException if there aren't enough cards left or the drawn cards aren't
+   *                                  the first cards of the last game of this thread
+   */
+  @Override
+  public void drawMore(int[] cards, int drawnCards, int numberOfCards) {
+    if (drawnCards < 0 || numberOfCards < 0 || drawnCards + numberOfCards > Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Can't draw %d more cards after %d of 52 cards!".formatted(
+          numberOfCards, drawnCards));
+    }
+
+    Shuffle shuffle = shuffles.get();
+    if (!shuffle.started) {
+      throw new IllegalArgumentException("This thread hasn't drawn a game yet!");
+    }
+    // the shuffle of a prefix doesn't depend on its length, so the first cards are unchanged
+    shuffle(shuffle.gameNumber, shuffle, drawnCards + numberOfCards);
+    if (!Arrays.equals(shuffle.permutation, 0, drawnCards, cards, 0, drawnCards)) {
+      throw new IllegalArgumentException("The drawn cards aren't the cards of game %d!".formatted(
+          shuffle.gameNumber));
+    }
+    System.arraycopy(shuffle.permutation, drawnCards, cards, drawnCards, numberOfCards);
+  }
+
+  /**
+   * Continue the game with the given number next, e.g. to resume a simulation.
+   *
+   * @param gameNumber the number of the next game
+   */
+  public void skipTo(long gameNumber) {
+    nextGame.set(gameNumber);
+  }
+
+  /**
+   * A partial Fisher-Yates shuffle of the sorted cards, so the drawn cards don't depend on the
+   * games that were created before.
+   */
+  private void shuffle(long gameNumber, Shuffle shuffle, int numberOfCards) {
+    int[] permutation = shuffle.permutation;
+    shuffle.gameNumber = gameNumber;
+    shuffle.started = true;
+    for (int index = 0; index < permutation.length; index++) {
+      permutation[index] = index;
+    }
+
+    long base = mix64(seed ^ mix64(gameNumber * GOLDEN_GAMMA));
+    for (int i = 0; i < numberOfCards; i++) {
+      long random = mix64(base + (i + 1) * GOLDEN_GAMMA);
+      // the upper 32 bits scaled to the remaining cards, the bias is below 2^-26
+      int j = i + (int) (((random >>> 32) * (permutation.length - i)) >>> 32);
+      int card = permutation[j];
+      permutation[j] = permutation[i];
+      permutation[i] = card;
+    }
+  }
+
+  /**
+   * The finalizer of SplitMix64, which maps every long to a well distributed long.
+   */
+  private static long mix64(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * The permutation of a thread and the number of the game it was last shuffled for.
+   */
+  private static final class Shuffle {
+    private final int[] permutation = new int[Card.NUMBER_OF_CARDS];
+    private long gameNumber;
+    private boolean started;
+  }
+}
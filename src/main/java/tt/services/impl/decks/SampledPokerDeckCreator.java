@@ -0,0 +1,135 @@
+package tt.services.impl.decks;
+
+import tt.models.Card;
+import tt.models.PokerDeck;
+import tt.services.DeckCreator;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Create decks with a partial Fisher-Yates shuffle of a reusable permutation of the card indices.
+ * Only the cards that are actually drawn are shuffled, e.g. 35 of the 52 cards for 7 players.
+ * <p>
+ * Every thread keeps its own permutation and random generator, so the creator can be shared by
+ * the threads of a simulation. The shuffle doesn't depend on the previous order of the
+ * permutation, so it is never reset.
+ */
+public class SampledPokerDeckCreator implements DeckCreator {
+  /**
+   * The default algorithm of the random generators.
+   */
+  public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+  private final ThreadLocal<Sampler> samplers;
+
+  /**
+   * Create decks with random generators of the {@link #DEFAULT_ALGORITHM}.
+   */
+  public SampledPokerDeckCreator() {
+    this(DEFAULT_ALGORITHM);
+  }
+
+  /**
+   * Create decks with random generators of the given algorithm.
+   *
+   * @param algorithm the name of the algorithm as defined by {@link RandomGeneratorFactory}
+   */
+  public SampledPokerDeckCreator(String algorithm) {
+    RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+    this.samplers = ThreadLocal.withInitial(() -> new Sampler(factory.create()));
+  }
+
+  @Override
+  public PokerDeck create() {
+    Sampler sampler = samplers.get();
+    sampler.shuffle(Card.NUMBER_OF_CARDS);
+    return PokerDeck.fromPermutation(sampler.permutation);
+  }
+
+  @Override
+  public void draw(int[] cards, int numberOfCards) {
+    if (numberOfCards < 0 || numberOfCards > Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Can't draw %d cards from a 52 card deck!".formatted(
+          numberOfCards));
+    }
+
+    Sampler sampler = samplers.get();
+    sampler.shuffle(numberOfCards);
+    System.arraycopy(sampler.permutation, 0, cards, 0, numberOfCards);
+  }
+
+  /**
+   * Draw more cards by continuing the partial shuffle behind the drawn cards, so only the new
+   * cards are shuffled.
+   *
+   * @param cards         the array with the drawn cards at its start, which receives the new
+   *                      cards behind them
+   * @param drawnCards    the number of cards that are already drawn
+   * @param numberOfCards the number of new cards
+   */
+  @Override
+  public void drawMore(int[] cards, int drawnCards, int numberOfCards) {
+    if (drawnCards < 0 || numberOfCards < 0 || drawnCards + numberOfCards > Card.NUMBER_OF_CARDS) {
+      throw new IllegalArgumentException("Can't draw %d more cards after %d of 52 cards!".formatted(
+          numberOfCards, drawnCards));
+    }
+
+    Sampler sampler = samplers.get();
+    sampler.continueWith(cards, drawnCards);
+    sampler.shuffle(drawnCards, drawnCards + numberOfCards);
+    System.arraycopy(sampler.permutation, drawnCards, cards, drawnCards, numberOfCards);
+  }
+
+  private static final class Sampler {
+    private final RandomGenerator random;
+    private final int[] permutation = new int[Card.NUMBER_OF_CARDS];
+
+    private Sampler(RandomGenerator random) {
+      this.random = random;
+      for (int index = 0; index < permutation.length; index++) {
+        permutation[index] = index;
+      }
+    }
+
+    /**
+     * Move a uniformly chosen card of the remaining ones to each of the first positions.
+     */
+    private void shuffle(int numberOfCards) {
+      shuffle(0, numberOfCards);
+    }
+
+    /**
+     * Move a uniformly chosen card of the remaining ones to each of the positions in the range.
+     */
+    private void shuffle(int fromPosition, int toPosition) {
+      for (int i = fromPosition; i < toPosition; i++) {
+        int j = i + random.nextInt(permutation.length - i);
+        int card = permutation[j];
+        permutation[j] = permutation[i];
+        permutation[i] = card;
+      }
+    }
+
+    /**
+     * Put the drawn cards in front of the permutation and the remaining cards behind them.
+     */
+    private void continueWith(int[] cards, int drawnCards) {
+      long drawn = 0;
+      for (int i = 0; i < drawnCards; i++) {
+        permutation[i] = cards[i];
+        drawn |= 1L << cards[i];
+      }
+      if (Long.bitCount(drawn) != drawnCards) {
+        throw new IllegalArgumentException("The drawn cards must be distinct!");
+      }
+
+      int position = drawnCards;
+      for (int card = 0; card < permutation.length; card++) {
+        if ((drawn & (1L << card)) == 0) {
+          permutation[position++] = card;
+        }
+      }
+    }
+  }
+}
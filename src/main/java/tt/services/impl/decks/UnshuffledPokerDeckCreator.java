@@ -1,15 +1,11 @@
 package tt.services.impl.decks;
 
 import tt.models.Card;
-import tt.models.CardSuit;
-import tt.models.CardValue;
 import tt.models.PokerDeck;
 import tt.services.DeckCreator;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Create an unshuffled poker deck.
@@ -28,9 +24,12 @@ public class UnshuffledPokerDeckCreator implements DeckCreator {
    * @return the list of all 52 cards
    */
   private static List<Card> generateCards() {
-    return Arrays.stream(CardSuit.values())
-        .flatMap(suit -> Arrays.stream(CardValue.values()).map(value -> new Card(value, suit)))
-        .collect(Collectors.toCollection(ArrayList::new));
+    // the canonical cards are already in the order of the deck
+    List<Card> cards = new ArrayList<>(Card.NUMBER_OF_CARDS);
+    for (int index = 0; index < Card.NUMBER_OF_CARDS; index++) {
+      cards.add(Card.fromIndex(index));
+    }
+    return cards;
   }
 
   /**
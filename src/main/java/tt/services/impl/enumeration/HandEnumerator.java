@@ -0,0 +1,142 @@
+package tt.services.impl.enumeration;
+
+import tt.models.Card;
+import tt.models.CardSet;
+import tt.models.EnumerationResult;
+import tt.models.HandType;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.util.PackedHands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Enumerate every combination of 5 of the live cards and count the hands exactly per rank class
+ * and per type. Without dead cards these are all 2,598,960 hands of the deck, so the result is an
+ * oracle for the analyzers, e.g. there are exactly 36 straight flushes, since the ace can't be
+ * the low card of a straight.
+ * <p>
+ * The combinations are split over the pool by their highest card. Each task packs the hands of its
+ * highest card into a batch, evaluates the batch with the analyzer and counts into its own
+ * array, the arrays are only summed up at the end. Any analyzer can be used, e.g. the
+ * {@link tt.services.impl.hands.DefaultHandTypeAnalyzer} to compare it with the rank tables.
+ */
+public class HandEnumerator {
+  private final HandTypeAnalyzer analyzer;
+  private final ForkJoinPool pool;
+
+  /**
+   * Create an enumerator.
+   *
+   * @param analyzer the analyzer that evaluates the packed hands
+   * @param pool     the pool that evaluates the hands
+   */
+  public HandEnumerator(HandTypeAnalyzer analyzer, ForkJoinPool pool) {
+    this.analyzer = analyzer;
+    this.pool = pool;
+  }
+
+  /**
+   * Enumerate all hands of the deck.
+   *
+   * @return the counts of the hands
+   */
+  public EnumerationResult enumerate() {
+    return enumerate(List.of());
+  }
+
+  /**
+   * Enumerate all hands that don't contain any of the dead cards.
+   *
+   * @param deadCards the cards that are out of play
+   * @return the counts of the hands
+   */
+  public EnumerationResult enumerate(Collection<Card> deadCards) {
+    int[] liveCards = new CardSet(CardSet.ALL_CARDS).without(CardSet.of(deadCards)).toList()
+        .stream()
+        .mapToInt(Card::ordinalIndex)
+        .toArray();
+
+    long start = System.nanoTime();
+    long[] rankCounts = pool.invoke(new EnumerationTask(liveCards));
+    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+    Map<HandType, Long> typeCounts = new EnumMap<>(HandType.class);
+    for (int rank = 0; rank < rankCounts.length; rank++) {
+      typeCounts.merge(FiveCardRankTable.handTypeOf(rank), rankCounts[rank], Long::sum);
+    }
+    return new EnumerationResult(rankCounts, typeCounts, duration);
+  }
+
+  private final class EnumerationTask extends RecursiveTask<long[]> {
+    private final int[] liveCards;
+
+    private EnumerationTask(int[] liveCards) {
+      this.liveCards = liveCards;
+    }
+
+    @Override
+    protected long[] compute() {
+      List<HighestCardTask> tasks = new ArrayList<>();
+      for (int c4 = 4; c4 < liveCards.length; c4++) {
+        tasks.add(new HighestCardTask(liveCards, c4));
+      }
+
+      long[] rankCounts = new long[FiveCardRankTable.NUMBER_OF_RANK_CLASSES];
+      for (HighestCardTask task : ForkJoinTask.invokeAll(tasks)) {
+        long[] counts = task.join();
+        for (int rank = 0; rank < rankCounts.length; rank++) {
+          rankCounts[rank] += counts[rank];
+        }
+      }
+      return rankCounts;
+    }
+  }
+
+  /**
+   * Counts the hands whose highest live card is at the given position.
+   */
+  private final class HighestCardTask extends RecursiveTask<long[]> {
+    private final int[] liveCards;
+    private final int c4;
+
+    private HighestCardTask(int[] liveCards, int c4) {
+      this.liveCards = liveCards;
+      this.c4 = c4;
+    }
+
+    @Override
+    protected long[] compute() {
+      // C(c4, 4) hands have the highest card at the position c4
+      long numberOfHands = (long) c4 * (c4 - 1) * (c4 - 2) * (c4 - 3) / 24;
+      int[] hands = new int[(int) numberOfHands];
+      int hand = 0;
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              hands[hand++] = PackedHands.pack(liveCards[c0], liveCards[c1], liveCards[c2],
+                  liveCards[c3], liveCards[c4]);
+            }
+          }
+        }
+      }
+
+      int[] strengths = new int[hands.length];
+      analyzer.evaluate(hands, strengths, hands.length);
+      long[] rankCounts = new long[FiveCardRankTable.NUMBER_OF_RANK_CLASSES];
+      for (int strength : strengths) {
+        rankCounts[FiveCardRankTable.rankOf(strength)]++;
+      }
+      return rankCounts;
+    }
+  }
+}
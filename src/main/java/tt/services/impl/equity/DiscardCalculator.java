@@ -0,0 +1,203 @@
+package tt.services.impl.equity;
+
+import tt.models.Card;
+import tt.models.CardSet;
+import tt.models.DiscardOption;
+import tt.models.Hand;
+import tt.models.HandType;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Determine the exact outcomes of all 32 choices of discards of a five card hand by enumerating
+ * every possible replacement from the live cards, i.e. all cards except the hand and the dead
+ * cards. Discarding all 5 cards alone has C(47, 5) replacements, all choices together about 2.6
+ * million.
+ * <p>
+ * Every choice is split by the lowest replacement card into its own task on the pool. The codes of
+ * the kept cards are summed up once per choice and the codes of the replacements are added while
+ * enumerating, so each replacement costs a single lookup in the shared {@link FiveCardRankTable}.
+ */
+public class DiscardCalculator {
+  /**
+   * The number of choices of discards of a five card hand.
+   */
+  public static final int NUMBER_OF_OPTIONS = 1 << 5;
+
+  private static final HandType[] TYPES = HandType.values();
+
+  private final ForkJoinPool pool;
+
+  /**
+   * Create a calculator.
+   *
+   * @param pool the pool that enumerates the replacements
+   */
+  public DiscardCalculator(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Determine the outcomes of all choices of discards against the hand of an opponent.
+   *
+   * @param cards     the 5 cards of the hand
+   * @param deadCards the cards that can't be drawn, e.g. the known cards of other players
+   * @param opponent  the hand of the opponent, as created by any analyzer
+   * @return the outcomes by the mask of the discards
+   */
+  public List<DiscardOption> calculate(List<Card> cards, Collection<Card> deadCards,
+                                       Hand opponent) {
+    return calculate(cards, CardSet.of(deadCards).union(opponent.getCardSet()).toList(),
+        opponent.getStrength());
+  }
+
+  /**
+   * Determine the outcomes of all choices of discards against the given strength.
+   *
+   * @param cards            the 5 cards of the hand
+   * @param deadCards        the cards that can't be drawn, e.g. the known cards of other players
+   * @param opponentStrength the strength that has to be beaten
+   * @return the outcomes by the mask of the discards
+   */
+  public List<DiscardOption> calculate(List<Card> cards, Collection<Card> deadCards,
+                                       int opponentStrength) {
+    CardSet hand = CardSet.of(cards);
+    if (cards.size() != 5 || hand.size() != 5) {
+      throw new IllegalArgumentException("The hand must consist of 5 distinct cards: " + cards);
+    }
+    CardSet dead = CardSet.of(deadCards);
+    if (hand.intersects(dead)) {
+      throw new IllegalArgumentException("A card of the hand can't be dead: "
+          + hand.intersection(dead).toList());
+    }
+
+    long[] liveCodes = hand.union(dead).complement().toList().stream()
+        .mapToLong(card -> FiveCardRankTable.codeOf(card.ordinalIndex()))
+        .toArray();
+    if (liveCodes.length < 5) {
+      throw new IllegalArgumentException("There must be at least 5 live cards to draw from!");
+    }
+
+    List<List<ReplacementTask>> tasks = new ArrayList<>(NUMBER_OF_OPTIONS);
+    for (int discards = 0; discards < NUMBER_OF_OPTIONS; discards++) {
+      long keptCode = 0;
+      for (int position = 0; position < 5; position++) {
+        if ((discards & (1 << position)) == 0) {
+          keptCode += FiveCardRankTable.codeOf(cards.get(position).ordinalIndex());
+        }
+      }
+
+      List<ReplacementTask> optionTasks = new ArrayList<>();
+      int numberOfDiscards = Integer.bitCount(discards);
+      if (numberOfDiscards == 0) {
+        optionTasks.add(new ReplacementTask(liveCodes, keptCode, -1, 0, opponentStrength));
+      }
+      for (int first = 0; numberOfDiscards > 0 && first <= liveCodes.length - numberOfDiscards;
+           first++) {
+        optionTasks.add(new ReplacementTask(liveCodes, keptCode, first, numberOfDiscards - 1,
+            opponentStrength));
+      }
+      tasks.add(optionTasks);
+    }
+    List<ReplacementTask> allTasks = tasks.stream().flatMap(List::stream).toList();
+    pool.submit(() -> ForkJoinTask.invokeAll(allTasks)).join();
+
+    List<DiscardOption> options = new ArrayList<>(NUMBER_OF_OPTIONS);
+    for (int discards = 0; discards < NUMBER_OF_OPTIONS; discards++) {
+      options.add(toOption(cards, discards, tasks.get(discards)));
+    }
+    return List.copyOf(options);
+  }
+
+  private static DiscardOption toOption(List<Card> cards, int discards,
+                                        List<ReplacementTask> tasks) {
+    List<Card> keptCards = new ArrayList<>();
+    for (int position = 0; position < 5; position++) {
+      if ((discards & (1 << position)) == 0) {
+        keptCards.add(cards.get(position));
+      }
+    }
+
+    long[] typeCounts = new long[TYPES.length];
+    long wins = 0;
+    long ties = 0;
+    for (ReplacementTask task : tasks) {
+      for (int type = 0; type < TYPES.length; type++) {
+        typeCounts[type] += task.typeCounts[type];
+      }
+      wins += task.wins;
+      ties += task.ties;
+    }
+
+    long draws = 0;
+    Map<HandType, Long> counts = new EnumMap<>(HandType.class);
+    for (HandType type : TYPES) {
+      counts.put(type, typeCounts[type.ordinal()]);
+      draws += typeCounts[type.ordinal()];
+    }
+    return new DiscardOption(discards, List.copyOf(keptCards), draws, counts, wins, ties);
+  }
+
+  /**
+   * Counts the replacements of one choice whose lowest card is the first given card, the other
+   * cards are chosen from the live cards after it.
+   */
+  private static final class ReplacementTask extends RecursiveTask<Void> {
+    private final long[] liveCodes;
+    private final long keptCode;
+    private final int first;
+    private final int numberOfOtherCards;
+    private final int opponentStrength;
+    private final long[] typeCounts = new long[TYPES.length];
+    private long wins;
+    private long ties;
+
+    private ReplacementTask(long[] liveCodes, long keptCode, int first, int numberOfOtherCards,
+                            int opponentStrength) {
+      this.liveCodes = liveCodes;
+      this.keptCode = keptCode;
+      this.first = first;
+      this.numberOfOtherCards = numberOfOtherCards;
+      this.opponentStrength = opponentStrength;
+    }
+
+    @Override
+    protected Void compute() {
+      if (first < 0) {
+        count(keptCode);
+      } else {
+        enumerate(first + 1, numberOfOtherCards, keptCode + liveCodes[first]);
+      }
+      return null;
+    }
+
+    private void enumerate(int start, int remaining, long code) {
+      if (remaining == 0) {
+        count(code);
+        return;
+      }
+      for (int card = start; card <= liveCodes.length - remaining; card++) {
+        enumerate(card + 1, remaining - 1, code + liveCodes[card]);
+      }
+    }
+
+    private void count(long code) {
+      int rank = FiveCardRankTable.rank(code);
+      typeCounts[FiveCardRankTable.handTypeOf(rank).ordinal()]++;
+      int strength = FiveCardRankTable.strengthOf(rank);
+      if (strength > opponentStrength) {
+        wins++;
+      } else if (strength == opponentStrength) {
+        ties++;
+      }
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package tt.services.impl.equity;
+
+import tt.models.Card;
+import tt.models.CardSet;
+import tt.models.Equity;
+import tt.models.EquityResult;
+import tt.services.DeckCreator;
+import tt.services.HandTypeAnalyzer;
+import tt.util.PackedHands;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Estimate the equity of known five card hands by dealing the unknown cards many times. A known
+ * hand can be complete or consist of only some of its cards, the missing cards are dealt together
+ * with the hands of the unknown opponents. Dead cards are never dealt.
+ * <p>
+ * The trials are split over the given pool. Every task counts the outcomes in its own
+ * accumulator, the accumulators are only merged when the tasks are joined. Split pots are counted
+ * in parts of {@value #SHARE_UNIT}, which every number of winners divides, so the counts are
+ * exact and don't depend on the order of the merges. With a
+ * {@link tt.services.impl.decks.CounterBasedPokerDeckCreator} the result is the same for every
+ * pool.
+ */
+public class MonteCarloEquityCalculator {
+  /**
+   * The maximum number of players whose hands can be dealt from a single deck.
+   */
+  public static final int MAX_PLAYERS = Card.NUMBER_OF_CARDS / 5;
+
+  private static final int SHARE_UNIT = 2520;
+  private static final long TRIALS_PER_TASK = 1 << 14;
+
+  private final DeckCreator creator;
+  private final HandTypeAnalyzer analyzer;
+  private final ForkJoinPool pool;
+
+  /**
+   * Create a calculator.
+   *
+   * @param creator  the creator of the decks that the unknown cards are dealt from
+   * @param analyzer the analyzer that evaluates the packed hands
+   * @param pool     the pool that runs the trials
+   */
+  public MonteCarloEquityCalculator(DeckCreator creator, HandTypeAnalyzer analyzer,
+                                    ForkJoinPool pool) {
+    this.creator = creator;
+    this.analyzer = analyzer;
+    this.pool = pool;
+  }
+
+  /**
+   * Estimate the equity of the known hands.
+   *
+   * @param hands             the known cards of each hand, between 0 and 5 cards per hand
+   * @param deadCards         the cards that are out of play
+   * @param numberOfOpponents the number of opponents with unknown hands
+   * @param trials            the number of games to deal
+   * @return the equity of the known hands
+   */
+  public EquityResult calculate(List<List<Card>> hands, Collection<Card> deadCards,
+                                int numberOfOpponents, long trials) {
+    Game game = new Game(hands, deadCards, numberOfOpponents);
+    if (trials < 1) {
+      throw new IllegalArgumentException("There must be at least one trial, not %d!".formatted(
+          trials));
+    }
+
+    long start = System.nanoTime();
+    Accumulator accumulator = pool.invoke(new TrialTask(game, trials));
+    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+    List<Equity> equities = new ArrayList<>(hands.size());
+    for (int hand = 0; hand < hands.size(); hand++) {
+      equities.add(new Equity(List.copyOf(hands.get(hand)), accumulator.wins[hand],
+          accumulator.ties[hand], trials - accumulator.wins[hand] - accumulator.ties[hand],
+          (double) accumulator.shares[hand] / SHARE_UNIT));
+    }
+    return new EquityResult(List.copyOf(equities), trials, duration);
+  }
+
+  /**
+   * The validated setup of the games, which is shared by all tasks.
+   */
+  private static final class Game {
+    private final int[][] knownCards;
+    private final int numberOfPlayers;
+    private final long excludedCards;
+    private final int numberOfUnknownCards;
+
+    private Game(List<List<Card>> hands, Collection<Card> deadCards, int numberOfOpponents) {
+      if (hands.isEmpty()) {
+        throw new IllegalArgumentException("There must be at least one known hand!");
+      }
+      if (numberOfOpponents < 0) {
+        throw new IllegalArgumentException(
+            "The number of opponents can't be negative: %d".formatted(numberOfOpponents));
+      }
+      numberOfPlayers = hands.size() + numberOfOpponents;
+      if (numberOfPlayers < 2 || numberOfPlayers > MAX_PLAYERS) {
+        throw new IllegalArgumentException("There must be 2 to %d players, not %d!".formatted(
+            MAX_PLAYERS, numberOfPlayers));
+      }
+
+      long cards = 0;
+      int numberOfKnownCards = 0;
+      knownCards = new int[hands.size()][];
+      for (int hand = 0; hand < hands.size(); hand++) {
+        List<Card> handCards = hands.get(hand);
+        if (handCards.size() > 5) {
+          throw new IllegalArgumentException("A hand can't have more than 5 cards: " + handCards);
+        }
+        knownCards[hand] = new int[handCards.size()];
+        for (int i = 0; i < handCards.size(); i++) {
+          knownCards[hand][i] = handCards.get(i).ordinalIndex();
+        }
+        cards |= CardSet.of(handCards).bits();
+        numberOfKnownCards += handCards.size();
+      }
+      if (Long.bitCount(cards) != numberOfKnownCards) {
+        throw new IllegalArgumentException("There cannot be any duplicate cards in the hands!");
+      }
+
+      long dead = CardSet.of(deadCards).bits();
+      if ((cards & dead) != 0) {
+        throw new IllegalArgumentException("A card of the hands can't be dead: "
+            + new CardSet(cards & dead).toList());
+      }
+
+      excludedCards = cards | dead;
+      numberOfUnknownCards = 5 * numberOfPlayers - numberOfKnownCards;
+      if (numberOfUnknownCards > Card.NUMBER_OF_CARDS - Long.bitCount(excludedCards)) {
+        throw new IllegalArgumentException("There are not enough cards left to deal the hands!");
+      }
+    }
+  }
+
+  /**
+   * The outcomes of the known hands counted by a single task.
+   */
+  private static final class Accumulator {
+    private final long[] wins;
+    private final long[] ties;
+    private final long[] shares;
+
+    private Accumulator(int numberOfHands) {
+      this.wins = new long[numberOfHands];
+      this.ties = new long[numberOfHands];
+      this.shares = new long[numberOfHands];
+    }
+
+    private Accumulator merge(Accumulator other) {
+      for (int hand = 0; hand < wins.length; hand++) {
+        wins[hand] += other.wins[hand];
+        ties[hand] += other.ties[hand];
+        shares[hand] += other.shares[hand];
+      }
+      return this;
+    }
+  }
+
+  private final class TrialTask extends RecursiveTask<Accumulator> {
+    private final Game game;
+    private final long trials;
+
+    private TrialTask(Game game, long trials) {
+      this.game = game;
+      this.trials = trials;
+    }
+
+    @Override
+    protected Accumulator compute() {
+      if (trials <= TRIALS_PER_TASK) {
+        return run();
+      }
+
+      TrialTask left = new TrialTask(game, trials / 2);
+      left.fork();
+      Accumulator right = new TrialTask(game, trials - trials / 2).compute();
+      return right.merge(left.join());
+    }
+
+    private Accumulator run() {
+      Accumulator accumulator = new Accumulator(game.knownCards.length);
+      int[] deck = new int[Card.NUMBER_OF_CARDS];
+      int[] cards = new int[5];
+      int[] strengths = new int[game.numberOfPlayers];
+
+      // the excluded cards could all come first, so only that many more cards are drawn
+      int numberOfDrawnCards = Math.min(Card.NUMBER_OF_CARDS,
+          game.numberOfUnknownCards + Long.bitCount(game.excludedCards));
+      for (long trial = 0; trial < trials; trial++) {
+        creator.draw(deck, numberOfDrawnCards);
+        int next = 0;
+        for (int player = 0; player < game.numberOfPlayers; player++) {
+          int numberOfKnownCards = 0;
+          if (player < game.knownCards.length) {
+            numberOfKnownCards = game.knownCards[player].length;
+            System.arraycopy(game.knownCards[player], 0, cards, 0, numberOfKnownCards);
+          }
+          for (int i = numberOfKnownCards; i < 5; i++) {
+            while ((game.excludedCards & (1L << deck[next])) != 0) {
+              next++;
+            }
+            cards[i] = deck[next++];
+          }
+          strengths[player] = analyzer.evaluate(
+              PackedHands.pack(cards[0], cards[1], cards[2], cards[3], cards[4]));
+        }
+        score(strengths, accumulator);
+      }
+      return accumulator;
+    }
+
+    private void score(int[] strengths, Accumulator accumulator) {
+      int best = Integer.MIN_VALUE;
+      int numberOfWinners = 0;
+      for (int strength : strengths) {
+        if (strength > best) {
+          best = strength;
+          numberOfWinners = 1;
+        } else if (strength == best) {
+          numberOfWinners++;
+        }
+      }
+
+      for (int hand = 0; hand < accumulator.wins.length; hand++) {
+        if (strengths[hand] == best) {
+          if (numberOfWinners == 1) {
+            accumulator.wins[hand]++;
+          } else {
+            accumulator.ties[hand]++;
+          }
+          accumulator.shares[hand] += SHARE_UNIT / numberOfWinners;
+        }
+      }
+    }
+  }
+}
@@ -6,26 +6,44 @@ import tt.models.HandType;
 import tt.models.ShowdownResult;
 import tt.services.HandTypeAnalyzer;
 import tt.services.impl.hands.strategies.*;
+import tt.util.HandClassifier;
+import tt.util.HandStrengths;
 
 import java.util.*;
-import java.util.stream.Stream;
 
 /**
  * Abstract implementation for all strategies that analyze hands.
+ * <p>
+ * The type of a hand is determined by the {@link HandClassifier} in a single pass over the cards.
+ * If custom strategies are given, the types are matched by the strategies instead, from the
+ * highest to the lowest type, and the strategy of the type determines the strength and breaks the
+ * ties.
  */
 public class DefaultHandTypeAnalyzer implements HandTypeAnalyzer {
 
   private final Map<HandType, HandTypeStrategy> strategies;
+  private final boolean customStrategies;
 
   public DefaultHandTypeAnalyzer() {
+    this(Collections.emptyMap());
+  }
+
+  /**
+   * Create an analyzer where the given strategies replace the default strategies of their type.
+   *
+   * @param customStrategies the strategies by the type they match
+   */
+  public DefaultHandTypeAnalyzer(Map<HandType, HandTypeStrategy> customStrategies) {
     this.strategies = initStrategies();
+    this.strategies.putAll(customStrategies);
+    this.customStrategies = !customStrategies.isEmpty();
   }
 
   private Map<HandType, HandTypeStrategy> initStrategies() {
-    Map<HandType, HandTypeStrategy> strategies = new HashMap<>();
+    Map<HandType, HandTypeStrategy> strategies = new EnumMap<>(HandType.class);
 
     // Add all the strategies to the map
-    strategies.put(HandType.HIGH_CARD, new HighCardStrategy(this));
+    strategies.put(HandType.HIGH_CARD, new HighCardStrategy());
     strategies.put(HandType.PAIR, new SinglePairStrategy());
     strategies.put(HandType.TWO_PAIRS, new TwoPairStrategy());
     strategies.put(HandType.THREE_OF_A_KIND, new ThreeOfAKindStrategy());
@@ -44,8 +62,14 @@ public class DefaultHandTypeAnalyzer implements HandTypeAnalyzer {
       throw new IllegalArgumentException("must provide exactly 5 cards");
     }
 
-    // determine the type from highest to lowest and match it by the strategy
-    return Hand.of(getHandType(cards), cards);
+    if (customStrategies) {
+      // determine the type from highest to lowest and match it by the strategy
+      HandType type = getHandType(cards);
+      return Hand.of(type, strategies.get(type).strengthOf(type, cards), cards);
+    }
+
+    int strength = HandClassifier.strengthOf(cards);
+    return Hand.of(HandStrengths.typeOf(strength), strength, cards);
   }
 
   private HandType getHandType(Collection<Card> cards) {
@@ -64,28 +88,29 @@ public class DefaultHandTypeAnalyzer implements HandTypeAnalyzer {
       throw new IllegalArgumentException("only hands of a single type can be tie-broken");
     }
 
-    // do the tie-breaking procedure
-    return hands.stream()
-        .map(List::of)
-        .reduce(Collections.emptyList(), (winningHands, nextHands) -> {
-          // currently no hand is winning
-          if (winningHands.isEmpty()) {
-            return nextHands;
-          } else {
-            // compare the currently winning hand with the next hand
-            return switch (tiebreak(nextHands.getFirst(), winningHands.getLast())) {
-              case LOWER ->
-                // nothing to do since the current hand still has the tiebreaker
-                  winningHands;
-              case HIGHER ->
-                // the current hand wins over the previous hands and therefore is the new winner
-                  nextHands;
-              case SPLIT ->
-                // both hands are of equal strength and are the current winners
-                  Stream.concat(winningHands.stream(), nextHands.stream()).toList();
-            };
-          }
-        });
+    if (!customStrategies) {
+      // the hand with the highest strength wins, equal strengths split the pot
+      return HandStrengths.strongest(hands, Hand::getStrength);
+    }
+
+    // a custom strategy may order the hands of its type differently, so it breaks the ties
+    List<Hand> winners = new ArrayList<>();
+    for (Hand hand : hands) {
+      ShowdownResult result = winners.isEmpty()
+          ? ShowdownResult.HIGHER
+          : tiebreak(hand.getType(), hand, winners.getFirst());
+      switch (result) {
+        case HIGHER -> {
+          winners.clear();
+          winners.add(hand);
+        }
+        case SPLIT -> winners.add(hand);
+        case LOWER -> {
+          // the current winners still have the tiebreaker
+        }
+      }
+    }
+    return winners;
   }
 
   /**
@@ -99,18 +124,6 @@ public class DefaultHandTypeAnalyzer implements HandTypeAnalyzer {
     return strategies.get(handType).matches(cards);
   }
 
-  /**
-   * Determine the result of the tiebreaker of the two hands.
-   *
-   * @param hand1 the first hand
-   * @param hand2 the second hand
-   * @return the result of the showdown
-   */
-  private ShowdownResult tiebreak(Hand hand1, Hand hand2) {
-    HandType type = hand1.getType();
-    return tiebreak(type, hand1, hand2);
-  }
-
   public ShowdownResult tiebreak(HandType type, Hand hand1, Hand hand2) {
     HandTypeStrategy strategy = strategies.get(type);
     return strategy.determineTiebreakResult(hand1, hand2);
@@ -2,7 +2,9 @@ package tt.services.impl.hands;
 
 import tt.models.Card;
 import tt.models.Hand;
+import tt.models.HandType;
 import tt.models.ShowdownResult;
+import tt.util.HandStrengths;
 
 import java.util.Collection;
 import java.util.List;
@@ -11,4 +13,18 @@ public interface HandTypeStrategy {
   boolean matches(Collection<Card> cards);
 
   ShowdownResult determineTiebreakResult(Hand hand1, Hand hand2);
+
+  /**
+   * Determine the strength of cards that are matched by this strategy. The strengths are compared
+   * by the showdowns, so a strategy that changes the order of the hands of its type must also
+   * return strengths in that order, e.g. a strategy that allows the ace as the lowest card of a
+   * straight.
+   *
+   * @param type  the type that the strategy matched
+   * @param cards the 5 distinct cards of the hand
+   * @return the strength of the hand as defined by {@link HandStrengths}
+   */
+  default int strengthOf(HandType type, Collection<Card> cards) {
+    return HandStrengths.of(type, cards);
+  }
 }
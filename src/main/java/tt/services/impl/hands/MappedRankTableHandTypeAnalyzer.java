@@ -0,0 +1,28 @@
+package tt.services.impl.hands;
+
+import tt.services.impl.hands.lookup.MappedRankTable;
+
+/**
+ * Analyzes hands with the memory-mapped table of {@link MappedRankTable}, which holds the rank of
+ * every five card hand. The results are the same as the ones of {@link DefaultHandTypeAnalyzer}.
+ */
+public class MappedRankTableHandTypeAnalyzer extends RankTableHandTypeAnalyzer {
+  private final MappedRankTable table;
+
+  /**
+   * Create a new analyzer with the table at the default location, which is generated on the
+   * first run.
+   */
+  public MappedRankTableHandTypeAnalyzer() {
+    this(MappedRankTable.open());
+  }
+
+  public MappedRankTableHandTypeAnalyzer(MappedRankTable table) {
+    this.table = table;
+  }
+
+  @Override
+  protected int rank(int c0, int c1, int c2, int c3, int c4) {
+    return table.rank(c0, c1, c2, c3, c4);
+  }
+}
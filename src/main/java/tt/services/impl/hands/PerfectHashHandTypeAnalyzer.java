@@ -0,0 +1,15 @@
+package tt.services.impl.hands;
+
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+
+/**
+ * Analyzes hands with the precomputed lookup tables of {@link FiveCardRankTable} instead of the
+ * strategies. The results are the same as the ones of {@link DefaultHandTypeAnalyzer}.
+ */
+public class PerfectHashHandTypeAnalyzer extends RankTableHandTypeAnalyzer {
+
+  @Override
+  protected int rank(int c0, int c1, int c2, int c3, int c4) {
+    return FiveCardRankTable.rank(c0, c1, c2, c3, c4);
+  }
+}
@@ -0,0 +1,170 @@
+package tt.services.impl.hands;
+
+import tt.models.Card;
+import tt.models.Hand;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.util.HandStrengths;
+import tt.util.PackedHands;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Base class for analyzers that look up the rank of a hand in a precomputed table instead of
+ * using the strategies. The rank is one of the 7462 equivalence classes of
+ * {@link FiveCardRankTable}, so the results are the same as the ones of
+ * {@link DefaultHandTypeAnalyzer}.
+ * <p>
+ * Packed hands are evaluated without creating any objects. Large batches are split into chunks
+ * that are evaluated in parallel on the fork/join pool of the calling task, or on the common pool
+ * if the caller isn't a fork/join task.
+ */
+public abstract class RankTableHandTypeAnalyzer implements HandTypeAnalyzer {
+  /**
+   * The number of hands up to which a batch is evaluated by the calling thread alone.
+   */
+  public static final int PARALLEL_THRESHOLD = 1 << 14;
+
+  @Override
+  public Hand createHand(Collection<Card> cards) {
+    if (cards == null || cards.size() != 5) {
+      throw new IllegalArgumentException("must provide exactly 5 cards");
+    }
+
+    int[] indices = indicesOf(cards);
+    int rank = rank(indices[0], indices[1], indices[2], indices[3], indices[4]);
+    return Hand.of(FiveCardRankTable.handTypeOf(rank), FiveCardRankTable.strengthOf(rank), cards);
+  }
+
+  @Override
+  public Collection<Hand> tiebreak(Collection<Hand> hands) {
+    if (hands.size() <= 1) {
+      // none or one hand, so all hands win
+      return hands;
+    } else if (hands.stream().map(Hand::getType).distinct().count() != 1) {
+      throw new IllegalArgumentException("only hands of a single type can be tie-broken");
+    }
+
+    // keep all the hands with the highest strength in their original order
+    return HandStrengths.strongest(hands, Hand::getStrength);
+  }
+
+  @Override
+  public int evaluate(int hand) {
+    if (!PackedHands.isValid(hand)) {
+      throw new IllegalArgumentException("must have exactly 5 distinct cards");
+    }
+    return FiveCardRankTable.strengthOf(rank(PackedHands.cardAt(hand, 0),
+        PackedHands.cardAt(hand, 1), PackedHands.cardAt(hand, 2), PackedHands.cardAt(hand, 3),
+        PackedHands.cardAt(hand, 4)));
+  }
+
+  @Override
+  public void evaluate(int[] hands, int[] strengths, int numberOfHands) {
+    if (numberOfHands < 0 || hands.length < numberOfHands || strengths.length < numberOfHands) {
+      throw new IllegalArgumentException("the arrays must hold " + numberOfHands + " hands");
+    }
+
+    if (numberOfHands <= PARALLEL_THRESHOLD) {
+      evaluate(hands, strengths, 0, numberOfHands);
+    } else {
+      // the chunks are forked into the pool of the calling worker or into the common pool
+      new EvaluateAction(hands, strengths, 0, numberOfHands).invoke();
+    }
+  }
+
+  /**
+   * Determine the rank of the hand between 0 and 7461 (incl.). A higher rank beats a lower one.
+   *
+   * @param hand the hand
+   * @return the rank of the hand
+   */
+  public int rank(Hand hand) {
+    int[] indices = indicesOf(hand.getCards());
+    return rank(indices[0], indices[1], indices[2], indices[3], indices[4]);
+  }
+
+  /**
+   * Determine the rank of 5 distinct cards given by their index as defined by
+   * {@link Card#ordinalIndex}. The cards can be given in any order.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @return the rank between 0 and 7461 (incl.)
+   */
+  protected abstract int rank(int c0, int c1, int c2, int c3, int c4);
+
+  /**
+   * Determine the strengths of the hands in the given range. This is the work of a single
+   * thread, the range is at most {@link #PARALLEL_THRESHOLD} hands long.
+   *
+   * @param hands     the packed hands
+   * @param strengths the array that receives the strength of each hand at its position
+   * @param from      the first hand (incl.)
+   * @param to        the last hand (excl.)
+   */
+  protected void evaluate(int[] hands, int[] strengths, int from, int to) {
+    for (int i = from; i < to; i++) {
+      strengths[i] = evaluate(hands[i]);
+    }
+  }
+
+  /**
+   * Determine the indices of the cards. Duplicates must be rejected before the lookup, since they
+   * would produce the rank of a different hand.
+   *
+   * @param cards the 5 cards of the hand
+   * @return the indices of the cards
+   */
+  private static int[] indicesOf(Collection<Card> cards) {
+    int[] indices = new int[5];
+    int numberOfCards = 0;
+    long seen = 0;
+    for (Card card : cards) {
+      if (card == null) {
+        throw new IllegalArgumentException("all cards must not be null");
+      }
+
+      int index = card.ordinalIndex();
+      if ((seen & (1L << index)) != 0) {
+        throw new IllegalArgumentException("must have exactly 5 distinct cards");
+      }
+      seen |= 1L << index;
+      indices[numberOfCards++] = index;
+    }
+    return indices;
+  }
+
+  /**
+   * Splits a range of hands in halves until it is small enough to be evaluated directly.
+   */
+  private final class EvaluateAction extends RecursiveAction {
+    private final int[] hands;
+    private final int[] strengths;
+    private final int from;
+    private final int to;
+
+    private EvaluateAction(int[] hands, int[] strengths, int from, int to) {
+      this.hands = hands;
+      this.strengths = strengths;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= PARALLEL_THRESHOLD) {
+        evaluate(hands, strengths, from, to);
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new EvaluateAction(hands, strengths, from, middle),
+            new EvaluateAction(hands, strengths, middle, to));
+      }
+    }
+  }
+}
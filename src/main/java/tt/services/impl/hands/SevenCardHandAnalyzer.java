@@ -0,0 +1,119 @@
+package tt.services.impl.hands;
+
+import tt.models.Card;
+import tt.models.Hand;
+import tt.models.HandType;
+import tt.services.BestHandAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.services.impl.hands.lookup.SevenCardRankTable;
+import tt.util.HandStrengths;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Analyzes hands of 5 cards like the {@link PerfectHashHandTypeAnalyzer} and additionally finds
+ * the best hand of 6 or 7 cards with the lookup tables of {@link SevenCardRankTable}. The best
+ * hand has the same type and strength as the one the 5-card path determines for its cards.
+ */
+public class SevenCardHandAnalyzer extends PerfectHashHandTypeAnalyzer implements BestHandAnalyzer {
+
+  @Override
+  public Hand createBestHand(Collection<Card> cards) {
+    if (cards == null || cards.size() < 5 || cards.size() > 7) {
+      throw new IllegalArgumentException("must provide between 5 and 7 cards");
+    }
+
+    long cardSet = 0;
+    int[] indices = new int[cards.size()];
+    int numberOfCards = 0;
+    for (Card card : cards) {
+      if (card == null) {
+        throw new IllegalArgumentException("all cards must not be null");
+      }
+
+      int index = card.ordinalIndex();
+      if ((cardSet & (1L << index)) != 0) {
+        throw new IllegalArgumentException("must provide distinct cards");
+      }
+      cardSet |= 1L << index;
+      indices[numberOfCards++] = index;
+    }
+
+    int rank = switch (numberOfCards) {
+      case 5 -> rank(indices[0], indices[1], indices[2], indices[3], indices[4]);
+      case 6 -> bestRankOfSix(indices);
+      default -> rank(indices[0], indices[1], indices[2], indices[3], indices[4], indices[5],
+          indices[6]);
+    };
+    return handOf(rank, cardSet);
+  }
+
+  /**
+   * Determine the rank of the best hand of 7 distinct cards given by their index as defined by
+   * {@link Card#ordinalIndex}. The cards can be given in any order.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @param c5 the index of the sixth card
+   * @param c6 the index of the seventh card
+   * @return the rank between 0 and 7461 (incl.) as defined by {@link FiveCardRankTable}
+   */
+  public int rank(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+    return SevenCardRankTable.rank(c0, c1, c2, c3, c4, c5, c6);
+  }
+
+  private int bestRankOfSix(int[] indices) {
+    // leave out every card once
+    int best = -1;
+    int[] hand = new int[5];
+    for (int skipped = 0; skipped < 6; skipped++) {
+      int numberOfCards = 0;
+      for (int i = 0; i < 6; i++) {
+        if (i != skipped) {
+          hand[numberOfCards++] = indices[i];
+        }
+      }
+      best = Math.max(best, rank(hand[0], hand[1], hand[2], hand[3], hand[4]));
+    }
+    return best;
+  }
+
+  /**
+   * Pick the cards for the values of the strength. Only a flush needs the cards of a single suit,
+   * every other type can't be a flush by itself, since there is either a group of cards with the
+   * same value or no suit with 5 cards.
+   */
+  private static Hand handOf(int rank, long cardSet) {
+    int strength = FiveCardRankTable.strengthOf(rank);
+    HandType type = FiveCardRankTable.handTypeOf(rank);
+
+    long remaining = cardSet;
+    if (type == HandType.FLUSH || type == HandType.STRAIGHT_FLUSH) {
+      for (int suit = 0; suit < 4; suit++) {
+        long suitCards = cardSet & (0x1FFFL << (13 * suit));
+        if (Long.bitCount(suitCards) >= 5) {
+          remaining = suitCards;
+        }
+      }
+    }
+
+    List<Card> cards = new ArrayList<>(5);
+    for (int position = 0; position < 5; position++) {
+      int value = HandStrengths.valueAt(strength, position);
+      for (int suit = 0; suit < 4; suit++) {
+        long bit = 1L << (13 * suit + value);
+        if ((remaining & bit) != 0) {
+          remaining &= ~bit;
+          cards.add(Card.fromIndex(13 * suit + value));
+          break;
+        }
+      }
+    }
+    return Hand.of(type, strength, cards);
+  }
+}
@@ -0,0 +1,47 @@
+package tt.services.impl.hands;
+
+/**
+ * Creates the analyzer for batch evaluations. If the system property {@value #PROPERTY} is set
+ * to true, the SIMD variant with the incubating vector API is used. It requires the JVM to be
+ * started with {@code --add-modules jdk.incubator.vector}, otherwise the scalar
+ * {@link PerfectHashHandTypeAnalyzer} is used instead. Both variants produce the same strengths.
+ */
+public class VectorSupport {
+  /**
+   * The system property that enables the SIMD evaluator.
+   */
+  public static final String PROPERTY = "tt.vector";
+
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final String VECTOR_ANALYZER = "tt.services.impl.hands.VectorHandTypeAnalyzer";
+
+  private VectorSupport() {
+    // no instance
+  }
+
+  /**
+   * Determine if the SIMD evaluator is enabled and the vector module is present.
+   *
+   * @return true if the SIMD evaluator can be used
+   */
+  public static boolean isAvailable() {
+    return Boolean.getBoolean(PROPERTY) && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+  }
+
+  /**
+   * Create the analyzer for batch evaluations.
+   *
+   * @return the SIMD analyzer if it is available, otherwise the scalar analyzer
+   */
+  public static RankTableHandTypeAnalyzer createAnalyzer() {
+    if (isAvailable()) {
+      try {
+        return (RankTableHandTypeAnalyzer) Class.forName(VECTOR_ANALYZER).getConstructor()
+            .newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+        // the SIMD classes are not on the class path or can't be initialized
+      }
+    }
+    return new PerfectHashHandTypeAnalyzer();
+  }
+}
@@ -0,0 +1,306 @@
+package tt.services.impl.hands.lookup;
+
+import tt.models.Card;
+import tt.models.HandType;
+import tt.util.HandClassifier;
+import tt.util.HandStrengths;
+
+import java.util.Arrays;
+
+/**
+ * Lookup tables that map any 5 cards to one of the 7462 distinct equivalence classes of five card
+ * poker hands. The classes are numbered from 0 (the weakest high card) to 7461 (the best straight
+ * flush), so a higher rank always beats a lower rank and equal ranks split the pot.
+ * <p>
+ * Every card is encoded as a single long code and the code of a hand is simply the sum of the
+ * codes of its cards:
+ * <ul>
+ *   <li>bits 0-15 count the cards per suit (one nibble per suit)</li>
+ *   <li>bits 16-31 hold the sum of the value bits, which is the value mask for distinct values</li>
+ *   <li>bits 32-63 hold the sum of the value keys, which is a perfect hash of the value multiset</li>
+ * </ul>
+ * A flush is then resolved by the value mask and every other hand by the perfect hash, which
+ * costs a handful of additions and a single array read per hand.
+ * <p>
+ * The rules are the same as the ones of the strategies, e.g. the ace can't be used as the low
+ * card of a straight.
+ */
+public final class FiveCardRankTable {
+  /**
+   * The number of distinct equivalence classes of five card hands.
+   */
+  public static final int NUMBER_OF_RANK_CLASSES = 7462;
+
+  /**
+   * The keys for each card value, chosen so that the sum of the keys of 5 values is unique for
+   * every combination of values.
+   */
+  private static final int[] VALUE_KEYS = {0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998,
+      43258, 79415};
+  private static final int NUMBER_OF_VALUES = VALUE_KEYS.length;
+
+  private static final long FLUSH_OFFSET = 0x3333L;
+  private static final long FLUSH_MASK = 0x8888L;
+
+  private static final long[] CARD_CODES = new long[52];
+  private static final short[] FLUSH_RANKS = new short[1 << NUMBER_OF_VALUES];
+  private static final short[] UNSUITED_RANKS = new short[4 * VALUE_KEYS[12] + VALUE_KEYS[11] + 1];
+  private static final int[] STRENGTHS = new int[NUMBER_OF_RANK_CLASSES];
+  private static final HandType[] HAND_TYPES = new HandType[NUMBER_OF_RANK_CLASSES];
+
+  static {
+    initCardCodes();
+    initRanks();
+  }
+
+  private FiveCardRankTable() {
+    // no instance
+  }
+
+  /**
+   * Returns the code of the card with the given index as defined by {@link Card#ordinalIndex}. The
+   * codes of the cards of a hand can be summed up and passed to {@link #rank(long)}.
+   *
+   * @param cardIndex the index of the card between 0 and 51 (incl.)
+   * @return the code of the card
+   */
+  public static long codeOf(int cardIndex) {
+    return CARD_CODES[cardIndex];
+  }
+
+  /**
+   * Determine the rank of the hand with the given card indices.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @return the rank between 0 and 7461 (incl.)
+   */
+  public static int rank(int c0, int c1, int c2, int c3, int c4) {
+    return rank(CARD_CODES[c0] + CARD_CODES[c1] + CARD_CODES[c2] + CARD_CODES[c3] + CARD_CODES[c4]);
+  }
+
+  /**
+   * Determine the rank of the hand from the sum of the codes of 5 distinct cards.
+   *
+   * @param handCode the sum of the codes of the cards
+   * @return the rank between 0 and 7461 (incl.)
+   */
+  public static int rank(long handCode) {
+    if (((handCode + FLUSH_OFFSET) & FLUSH_MASK) != 0) {
+      // one suit nibble reached 5, so all cards share the same suit
+      return FLUSH_RANKS[(int) (handCode >>> 16) & 0xFFFF];
+    }
+    return UNSUITED_RANKS[(int) (handCode >>> 32)];
+  }
+
+  /**
+   * Returns the strength of the hand for the given rank, as defined by {@link HandStrengths}.
+   *
+   * @param rank the rank between 0 and 7461 (incl.)
+   * @return the strength of the hand
+   */
+  public static int strengthOf(int rank) {
+    return STRENGTHS[rank];
+  }
+
+  /**
+   * Returns the rank for the given strength of a hand.
+   *
+   * @param strength the strength of a hand as defined by {@link HandStrengths}
+   * @return the rank between 0 and 7461 (incl.)
+   * @throws IllegalArgumentException if no hand has this strength
+   */
+  public static int rankOf(int strength) {
+    int rank = Arrays.binarySearch(STRENGTHS, strength);
+    if (rank < 0) {
+      throw new IllegalArgumentException("there is no hand with the strength " + strength);
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the type of the hand for the given rank.
+   *
+   * @param rank the rank between 0 and 7461 (incl.)
+   * @return the type of the hand
+   */
+  public static HandType handTypeOf(int rank) {
+    return HAND_TYPES[rank];
+  }
+
+  /**
+   * Returns the lower half of the card codes with the suit counts and the value bits. The
+   * vectorized evaluator gathers from int tables, since the codes don't fit into an int lane.
+   *
+   * @return a copy of the codes by the index of the card
+   */
+  static int[] lowerCardCodes() {
+    int[] codes = new int[CARD_CODES.length];
+    for (int card = 0; card < codes.length; card++) {
+      codes[card] = (int) CARD_CODES[card];
+    }
+    return codes;
+  }
+
+  /**
+   * Returns the upper half of the card codes with the value keys.
+   *
+   * @return a copy of the keys by the index of the card
+   */
+  static int[] upperCardCodes() {
+    int[] codes = new int[CARD_CODES.length];
+    for (int card = 0; card < codes.length; card++) {
+      codes[card] = (int) (CARD_CODES[card] >>> 32);
+    }
+    return codes;
+  }
+
+  /**
+   * Returns the strengths of the flushes by their value mask.
+   *
+   * @return a copy of the flush table with the strength instead of the rank
+   */
+  static int[] flushStrengths() {
+    return strengthsOf(FLUSH_RANKS);
+  }
+
+  /**
+   * Returns the strengths of all other hands by the sum of their value keys.
+   *
+   * @return a copy of the unsuited table with the strength instead of the rank
+   */
+  static int[] unsuitedStrengths() {
+    return strengthsOf(UNSUITED_RANKS);
+  }
+
+  private static int[] strengthsOf(short[] ranks) {
+    // unused entries don't belong to any hand and get the strength 0
+    int[] strengths = new int[ranks.length];
+    for (int i = 0; i < ranks.length; i++) {
+      strengths[i] = ranks[i] >= 0 ? STRENGTHS[ranks[i]] : 0;
+    }
+    return strengths;
+  }
+
+  private static void initCardCodes() {
+    for (int suit = 0; suit < 4; suit++) {
+      for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+        CARD_CODES[suit * NUMBER_OF_VALUES + value] =
+            ((long) VALUE_KEYS[value] << 32) | (1L << (16 + value)) | (1L << (4 * suit));
+      }
+    }
+  }
+
+  /**
+   * Generate all equivalence classes, sort them by their strength and fill the lookup tables with
+   * the position of the class.
+   */
+  private static void initRanks() {
+    int numberOfStrengths = 0;
+
+    // flushes are defined by 5 distinct values of the same suit
+    for (int mask = 0; mask < FLUSH_RANKS.length; mask++) {
+      if (Integer.bitCount(mask) == 5) {
+        STRENGTHS[numberOfStrengths++] = flushStrength(mask);
+      }
+    }
+
+    // all other hands are defined by the number of cards per value
+    int[] counts = new int[NUMBER_OF_VALUES];
+    numberOfStrengths = collectUnsuited(counts, 0, 5, STRENGTHS, numberOfStrengths);
+    if (numberOfStrengths != NUMBER_OF_RANK_CLASSES) {
+      throw new IllegalStateException("expected %d classes but found %d".formatted(
+          NUMBER_OF_RANK_CLASSES, numberOfStrengths));
+    }
+    Arrays.sort(STRENGTHS);
+
+    // map every class to its position in the ordering
+    for (int mask = 0; mask < FLUSH_RANKS.length; mask++) {
+      if (Integer.bitCount(mask) == 5) {
+        FLUSH_RANKS[mask] = (short) Arrays.binarySearch(STRENGTHS, flushStrength(mask));
+      }
+    }
+    Arrays.fill(UNSUITED_RANKS, (short) -1);
+    fillUnsuited(counts, 0, 5, 0, STRENGTHS);
+    for (int rank = 0; rank < NUMBER_OF_RANK_CLASSES; rank++) {
+      HAND_TYPES[rank] = HandStrengths.typeOf(STRENGTHS[rank]);
+    }
+  }
+
+  private static int collectUnsuited(int[] counts, int value, int remaining, int[] strengths,
+                                     int numberOfStrengths) {
+    if (value == NUMBER_OF_VALUES) {
+      if (remaining == 0) {
+        strengths[numberOfStrengths++] = unsuitedStrength(counts);
+      }
+      return numberOfStrengths;
+    }
+
+    for (int count = 0; count <= Math.min(4, remaining); count++) {
+      counts[value] = count;
+      numberOfStrengths = collectUnsuited(counts, value + 1, remaining - count, strengths, numberOfStrengths);
+    }
+    counts[value] = 0;
+    return numberOfStrengths;
+  }
+
+  private static void fillUnsuited(int[] counts, int value, int remaining, int key,
+                                   int[] strengths) {
+    if (value == NUMBER_OF_VALUES) {
+      if (remaining == 0) {
+        if (UNSUITED_RANKS[key] != -1) {
+          throw new IllegalStateException("value keys are not a perfect hash: " + key);
+        }
+        UNSUITED_RANKS[key] = (short) Arrays.binarySearch(strengths, unsuitedStrength(counts));
+      }
+      return;
+    }
+
+    for (int count = 0; count <= Math.min(4, remaining); count++) {
+      counts[value] = count;
+      fillUnsuited(counts, value + 1, remaining - count, key + count * VALUE_KEYS[value],
+          strengths);
+    }
+    counts[value] = 0;
+  }
+
+  private static int flushStrength(int mask) {
+    HandType type = HandClassifier.isStraight(mask) ? HandType.STRAIGHT_FLUSH : HandType.FLUSH;
+    return HandStrengths.of(type, mask, 0, 0, 0);
+  }
+
+  private static int unsuitedStrength(int[] counts) {
+    int singles = 0;
+    int pairs = 0;
+    int triples = 0;
+    int fours = 0;
+    for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+      switch (counts[value]) {
+        case 1 -> singles |= 1 << value;
+        case 2 -> pairs |= 1 << value;
+        case 3 -> triples |= 1 << value;
+        case 4 -> fours |= 1 << value;
+        default -> {
+          // value is not present
+        }
+      }
+    }
+
+    HandType type;
+    if (fours != 0) {
+      type = HandType.FOUR_OF_A_KIND;
+    } else if (triples != 0) {
+      type = pairs != 0 ? HandType.FULL_HOUSE : HandType.THREE_OF_A_KIND;
+    } else if (Integer.bitCount(pairs) == 2) {
+      type = HandType.TWO_PAIRS;
+    } else if (pairs != 0) {
+      type = HandType.PAIR;
+    } else {
+      type = HandClassifier.isStraight(singles) ? HandType.STRAIGHT : HandType.HIGH_CARD;
+    }
+    return HandStrengths.of(type, singles, pairs, triples, fours);
+  }
+}
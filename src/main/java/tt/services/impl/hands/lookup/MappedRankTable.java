@@ -0,0 +1,294 @@
+package tt.services.impl.hands.lookup;
+
+import tt.models.Card;
+import tt.models.CardSet;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * A table with the rank of every one of the 2,598,960 five card hands. The hands are indexed by
+ * their combinatorial number, so a lookup is a single read from the table.
+ * <p>
+ * The table is generated once with a reference analyzer and stored in a file. Every later run
+ * only memory-maps the file, so all the processes on one machine share the same copy from the
+ * page cache and the startup doesn't pay for the generation again. The file is written to a
+ * temporary file first and then atomically moved into place, so processes that start at the
+ * same time never see an incomplete table.
+ * <p>
+ * The file starts with a header of 16 bytes (magic, version, number of hands and the fingerprint
+ * of the reference), followed by the rank of each hand as a little endian short. The fingerprint
+ * is a checksum of the ranks of every {@value #SAMPLE_STRIDE}th hand. A table is only reused if
+ * the reference it is opened with ranks these hands the same, otherwise it is generated again, so
+ * a table of another reference, e.g. with custom strategies, is never returned. References that
+ * only differ in hands outside of the sample can't be told apart and need their own files.
+ */
+public final class MappedRankTable {
+  /**
+   * The number of distinct five card hands of a 52 card deck.
+   */
+  public static final int NUMBER_OF_HANDS = 2_598_960;
+
+  /**
+   * The system property that overrides the location of the table file.
+   */
+  public static final String PATH_PROPERTY = "tt.rankTable";
+
+  private static final int MAGIC = 0x524F4650;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final long FILE_SIZE = HEADER_SIZE + 2L * NUMBER_OF_HANDS;
+  private static final int SAMPLE_STRIDE = 317;
+
+  /**
+   * The binomial coefficients {@code C(n, k)} for n between 0 and 51 and k between 1 and 5.
+   */
+  private static final int[][] BINOMIALS = new int[6][52];
+
+  static {
+    for (int n = 0; n < 52; n++) {
+      long binomial = 1;
+      for (int k = 1; k <= 5; k++) {
+        binomial = binomial * (n - k + 1) / k;
+        BINOMIALS[k][n] = (int) binomial;
+      }
+    }
+  }
+
+  private final MappedByteBuffer ranks;
+
+  private MappedRankTable(MappedByteBuffer ranks) {
+    this.ranks = ranks;
+  }
+
+  /**
+   * Open the table at the default location. The location can be changed with the system
+   * property {@value #PATH_PROPERTY}.
+   *
+   * @return the table
+   */
+  public static MappedRankTable open() {
+    return open(defaultPath());
+  }
+
+  /**
+   * Open the table at the given location. If there is no valid table yet, it is generated with
+   * the {@link DefaultHandTypeAnalyzer} as the reference.
+   *
+   * @param path the location of the table file
+   * @return the table
+   */
+  public static MappedRankTable open(Path path) {
+    return open(path, new DefaultHandTypeAnalyzer());
+  }
+
+  /**
+   * Open the table at the given location. If there is no valid table yet or it was generated by
+   * a reference that ranks the hands differently, it is generated with the given reference
+   * analyzer.
+   *
+   * @param path      the location of the table file
+   * @param reference the analyzer that determines the rank of every hand
+   * @return the table
+   */
+  public static MappedRankTable open(Path path, HandTypeAnalyzer reference) {
+    try {
+      int fingerprint = fingerprintOf(index -> rankOf(reference, handOf(index)));
+      if (!isValid(path, fingerprint)) {
+        generate(path, reference);
+      }
+
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        // the mapping stays valid after the channel is closed
+        MappedByteBuffer ranks = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+        ranks.order(ByteOrder.LITTLE_ENDIAN);
+        return new MappedRankTable(ranks);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't open the rank table " + path, e);
+    }
+  }
+
+  /**
+   * Returns the default location of the table file.
+   *
+   * @return the path of the table file
+   */
+  public static Path defaultPath() {
+    String path = System.getProperty(PATH_PROPERTY);
+    if (path != null && !path.isBlank()) {
+      return Path.of(path);
+    }
+    return Path.of(System.getProperty("java.io.tmpdir"), "pokerfaceoff",
+        "five-card-ranks-v" + VERSION + ".bin");
+  }
+
+  /**
+   * Determine the combinatorial number of 5 distinct cards given by their index as defined by
+   * {@link Card#ordinalIndex}. The cards can be given in any order.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @return the number of the hand between 0 and 2,598,959 (incl.)
+   */
+  public static int indexOf(int c0, int c1, int c2, int c3, int c4) {
+    long cards = (1L << c0) | (1L << c1) | (1L << c2) | (1L << c3) | (1L << c4);
+    return binomialOf(cards, c0) + binomialOf(cards, c1) + binomialOf(cards, c2)
+        + binomialOf(cards, c3) + binomialOf(cards, c4);
+  }
+
+  /**
+   * Determine the 5 cards of the hand with the given combinatorial number, which reverses
+   * {@link #indexOf}. The cards are packed in ascending order as defined by {@link PackedHands}.
+   *
+   * @param index the number of the hand between 0 and 2,598,959 (incl.)
+   * @return the packed hand
+   */
+  public static int handOf(int index) {
+    if (index < 0 || index >= NUMBER_OF_HANDS) {
+      throw new IllegalArgumentException("there is no hand with the number " + index);
+    }
+
+    // the highest card is the largest c with C(c, 5) <= index, then the same for the rest
+    int hand = 0;
+    int card = 52;
+    for (int k = 5; k >= 1; k--) {
+      do {
+        card--;
+      } while (BINOMIALS[k][card] > index);
+      index -= BINOMIALS[k][card];
+      hand |= card << (PackedHands.CARD_BITS * (k - 1));
+    }
+    return hand;
+  }
+
+  /**
+   * Returns the rank of the hand with the given combinatorial number.
+   *
+   * @param index the number of the hand as determined by {@link #indexOf}
+   * @return the rank between 0 and 7461 (incl.) as defined by {@link FiveCardRankTable}
+   */
+  public int rank(int index) {
+    return ranks.getShort(HEADER_SIZE + 2 * index);
+  }
+
+  /**
+   * Returns the rank of 5 distinct cards given by their index. The cards can be given in any
+   * order.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @return the rank between 0 and 7461 (incl.) as defined by {@link FiveCardRankTable}
+   */
+  public int rank(int c0, int c1, int c2, int c3, int c4) {
+    return rank(indexOf(c0, c1, c2, c3, c4));
+  }
+
+  /**
+   * The card contributes {@code C(card, k)} where k is its position in the sorted hand, starting
+   * with 1. The position is the number of lower cards in the hand plus one.
+   */
+  private static int binomialOf(long cards, int card) {
+    int position = Long.bitCount(cards & ((1L << card) - 1)) + 1;
+    return BINOMIALS[position][card];
+  }
+
+  /**
+   * The checksum of the ranks of the sampled hands.
+   */
+  private static int fingerprintOf(IntUnaryOperator rankOfIndex) {
+    CRC32C checksum = new CRC32C();
+    for (int index = 0; index < NUMBER_OF_HANDS; index += SAMPLE_STRIDE) {
+      int rank = rankOfIndex.applyAsInt(index);
+      checksum.update(rank);
+      checksum.update(rank >>> 8);
+    }
+    return (int) checksum.getValue();
+  }
+
+  private static int rankOf(HandTypeAnalyzer reference, int hand) {
+    return FiveCardRankTable.rankOf(reference.createHand(List.of(
+        Card.fromIndex(PackedHands.cardAt(hand, 0)), Card.fromIndex(PackedHands.cardAt(hand, 1)),
+        Card.fromIndex(PackedHands.cardAt(hand, 2)), Card.fromIndex(PackedHands.cardAt(hand, 3)),
+        Card.fromIndex(PackedHands.cardAt(hand, 4)))).getStrength());
+  }
+
+  private static boolean isValid(Path path, int fingerprint) throws IOException {
+    if (!Files.isRegularFile(path) || Files.size(path) != FILE_SIZE) {
+      return false;
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {
+        // read the complete header
+      }
+      header.flip();
+      return header.remaining() == HEADER_SIZE && header.getInt() == MAGIC
+          && header.getInt() == VERSION && header.getInt() == NUMBER_OF_HANDS
+          && header.getInt() == fingerprint;
+    }
+  }
+
+  private static void generate(Path path, HandTypeAnalyzer reference) throws IOException {
+    // rank every hand with the reference, the highest card is distributed over the workers
+    short[] ranks = new short[NUMBER_OF_HANDS];
+    List<Card> deck = CardSet.FULL_DECK.toList();
+    IntStream.range(4, 52).parallel().forEach(c4 -> {
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              int strength = reference.createHand(List.of(deck.get(c0), deck.get(c1),
+                  deck.get(c2), deck.get(c3), deck.get(c4))).getStrength();
+              ranks[indexOf(c0, c1, c2, c3, c4)] = (short) FiveCardRankTable.rankOf(strength);
+            }
+          }
+        }
+      }
+    });
+
+    ByteBuffer table = ByteBuffer.allocate((int) FILE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    table.putInt(MAGIC).putInt(VERSION).putInt(NUMBER_OF_HANDS)
+        .putInt(fingerprintOf(index -> ranks[index]));
+    table.asShortBuffer().put(ranks);
+
+    // write the complete table next to the target and move it into place afterward
+    Path directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        table.rewind();
+        while (table.hasRemaining()) {
+          channel.write(table);
+        }
+        channel.force(true);
+      }
+      Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package tt.services.impl.hands.lookup;
+
+import tt.models.Card;
+import tt.models.CardSet;
+
+import java.util.Arrays;
+
+/**
+ * Lookup tables that map any 7 cards to the rank of the best five card hand that can be formed
+ * from them. The ranks are the same 7462 equivalence classes as the ones of
+ * {@link FiveCardRankTable}, so the strength and the type of a rank are available there.
+ * <p>
+ * Every card is encoded as a single long code and the code of the cards is the sum of the codes:
+ * <ul>
+ *   <li>bits 0-15 count the cards per suit (one nibble per suit)</li>
+ *   <li>bits 32-63 hold the sum of the value keys, which is unique for every value multiset</li>
+ * </ul>
+ * At most one suit can have 5 or more of the 7 cards. If there is one, the best hand is resolved
+ * by the value mask of that suit, which is taken from the card set. Otherwise, the value key is
+ * resolved with two small tables: the first level selects a hash multiplier for the bucket of
+ * the key and the second level holds the rank at the slot of the multiplied key. Both tables
+ * together take about 160 KB, so the lookups stay in the cache during long simulations.
+ */
+public final class SevenCardRankTable {
+  /**
+   * The keys for each card value, chosen so that the sum of the keys of 7 values is unique for
+   * every combination of values.
+   */
+  private static final int[] VALUE_KEYS = {0, 1, 5, 22, 98, 453, 2031, 8698, 22854, 83661,
+      262349, 636345, 1479181};
+  private static final int NUMBER_OF_VALUES = VALUE_KEYS.length;
+  private static final int VALUE_MASK = (1 << NUMBER_OF_VALUES) - 1;
+
+  private static final long FLUSH_OFFSET = 0x3333L;
+  private static final long FLUSH_MASK = 0x8888L;
+
+  private static final int BUCKET_BITS = 13;
+  private static final int SLOT_BITS = 16;
+  private static final int BUCKET_MULTIPLIER = 0x9E3779B1;
+  private static final int SLOT_MULTIPLIER = 0x85EBCA6B;
+  private static final int MULTIPLIER_STEP = 0x61C88647;
+
+  private static final long[] CARD_CODES = new long[52];
+  private static final short[] FLUSH_RANKS = new short[1 << NUMBER_OF_VALUES];
+  private static final int[] MULTIPLIERS = new int[1 << BUCKET_BITS];
+  private static final short[] UNSUITED_RANKS = new short[1 << SLOT_BITS];
+
+  static {
+    initCardCodes();
+    initFlushRanks();
+    initUnsuitedRanks();
+  }
+
+  private SevenCardRankTable() {
+    // no instance
+  }
+
+  /**
+   * Returns the code of the card with the given index as defined by {@link Card#ordinalIndex}. The
+   * codes of 7 cards can be summed up and passed to {@link #rank(long, long)}.
+   *
+   * @param cardIndex the index of the card between 0 and 51 (incl.)
+   * @return the code of the card
+   */
+  public static long codeOf(int cardIndex) {
+    return CARD_CODES[cardIndex];
+  }
+
+  /**
+   * Determine the rank of the best hand of the 7 distinct cards with the given indices.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @param c5 the index of the sixth card
+   * @param c6 the index of the seventh card
+   * @return the rank between 0 and 7461 (incl.) as defined by {@link FiveCardRankTable}
+   */
+  public static int rank(int c0, int c1, int c2, int c3, int c4, int c5, int c6) {
+    long handCode = CARD_CODES[c0] + CARD_CODES[c1] + CARD_CODES[c2] + CARD_CODES[c3]
+        + CARD_CODES[c4] + CARD_CODES[c5] + CARD_CODES[c6];
+    long cards = (1L << c0) | (1L << c1) | (1L << c2) | (1L << c3) | (1L << c4) | (1L << c5)
+        | (1L << c6);
+    return rank(handCode, cards);
+  }
+
+  /**
+   * Determine the rank of the best hand of 7 distinct cards from the sum of their codes and their
+   * set. Both can be built up incrementally, e.g. the board once and the hole cards per player.
+   *
+   * @param handCode the sum of the codes of the cards
+   * @param cards    the bits of the cards as defined by {@link CardSet}
+   * @return the rank between 0 and 7461 (incl.) as defined by {@link FiveCardRankTable}
+   */
+  public static int rank(long handCode, long cards) {
+    long flushes = (handCode + FLUSH_OFFSET) & FLUSH_MASK;
+    if (flushes != 0) {
+      // the highest bit of the nibble of the suit with at least 5 cards is set
+      int suit = Long.numberOfTrailingZeros(flushes) >>> 2;
+      return FLUSH_RANKS[(int) (cards >>> (NUMBER_OF_VALUES * suit)) & VALUE_MASK];
+    }
+    return UNSUITED_RANKS[slotOf((int) (handCode >>> 32))];
+  }
+
+  private static int slotOf(int key) {
+    return (key * MULTIPLIERS[(key * BUCKET_MULTIPLIER) >>> (32 - BUCKET_BITS)])
+        >>> (32 - SLOT_BITS);
+  }
+
+  private static void initCardCodes() {
+    for (int suit = 0; suit < 4; suit++) {
+      for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+        CARD_CODES[suit * NUMBER_OF_VALUES + value] =
+            ((long) VALUE_KEYS[value] << 32) | (1L << (4 * suit));
+      }
+    }
+  }
+
+  /**
+   * The best flush of 5 to 7 cards of the same suit, the cards of the first suit stand in for
+   * every suit.
+   */
+  private static void initFlushRanks() {
+    int[] cards = new int[7];
+    for (int mask = 0; mask < FLUSH_RANKS.length; mask++) {
+      int numberOfCards = Integer.bitCount(mask);
+      if (numberOfCards >= 5 && numberOfCards <= 7) {
+        int remaining = mask;
+        for (int i = 0; i < numberOfCards; i++) {
+          cards[i] = Integer.numberOfTrailingZeros(remaining);
+          remaining &= remaining - 1;
+        }
+        FLUSH_RANKS[mask] = (short) bestRank(cards, numberOfCards);
+      }
+    }
+  }
+
+  /**
+   * Determine the best hand of every value multiset and place the keys with a perfect hash: the
+   * buckets are placed from the largest to the smallest and every bucket gets the first
+   * multiplier that moves all its keys to free slots.
+   */
+  private static void initUnsuitedRanks() {
+    int numberOfKeys = countMultisets(0, 7);
+    int[] keys = new int[numberOfKeys];
+    short[] ranks = new short[numberOfKeys];
+    fillMultisets(new int[NUMBER_OF_VALUES], 0, 7, keys, ranks, new int[1]);
+
+    // sort the keys by their bucket
+    int[] bucketStarts = new int[MULTIPLIERS.length + 1];
+    for (int key : keys) {
+      bucketStarts[bucketOf(key) + 1]++;
+    }
+    for (int bucket = 0; bucket < MULTIPLIERS.length; bucket++) {
+      bucketStarts[bucket + 1] += bucketStarts[bucket];
+    }
+    int[] next = Arrays.copyOf(bucketStarts, MULTIPLIERS.length);
+    int[] keysByBucket = new int[numberOfKeys];
+    short[] ranksByBucket = new short[numberOfKeys];
+    for (int i = 0; i < numberOfKeys; i++) {
+      int position = next[bucketOf(keys[i])]++;
+      keysByBucket[position] = keys[i];
+      ranksByBucket[position] = ranks[i];
+    }
+
+    // place the largest buckets first, while most slots are still free
+    long[] bucketsBySize = new long[MULTIPLIERS.length];
+    for (int bucket = 0; bucket < MULTIPLIERS.length; bucket++) {
+      int size = bucketStarts[bucket + 1] - bucketStarts[bucket];
+      bucketsBySize[bucket] = ((long) -size << 32) | bucket;
+    }
+    Arrays.sort(bucketsBySize);
+
+    boolean[] occupied = new boolean[UNSUITED_RANKS.length];
+    int[] slots = new int[numberOfKeys];
+    for (long bucketBySize : bucketsBySize) {
+      int bucket = (int) bucketBySize;
+      int start = bucketStarts[bucket];
+      int end = bucketStarts[bucket + 1];
+      MULTIPLIERS[bucket] = findMultiplier(keysByBucket, start, end, occupied, slots);
+      for (int i = start; i < end; i++) {
+        UNSUITED_RANKS[slots[i - start]] = ranksByBucket[i];
+      }
+    }
+  }
+
+  private static int findMultiplier(int[] keys, int start, int end, boolean[] occupied,
+                                    int[] slots) {
+    for (int attempt = 0; attempt < (1 << SLOT_BITS); attempt++) {
+      // the step is even, so every multiplier is odd
+      int multiplier = SLOT_MULTIPLIER + 2 * attempt * MULTIPLIER_STEP;
+      int placed = 0;
+      for (int i = start; i < end; i++) {
+        int slot = (keys[i] * multiplier) >>> (32 - SLOT_BITS);
+        if (occupied[slot]) {
+          break;
+        }
+        occupied[slot] = true;
+        slots[placed++] = slot;
+      }
+      if (placed == end - start) {
+        return multiplier;
+      }
+
+      // release the slots of the failed attempt
+      for (int i = 0; i < placed; i++) {
+        occupied[slots[i]] = false;
+      }
+    }
+    throw new IllegalStateException("no multiplier found for the keys " + keys[start]);
+  }
+
+  private static int bucketOf(int key) {
+    return (key * BUCKET_MULTIPLIER) >>> (32 - BUCKET_BITS);
+  }
+
+  private static int countMultisets(int value, int remaining) {
+    if (value == NUMBER_OF_VALUES) {
+      return remaining == 0 ? 1 : 0;
+    }
+
+    int numberOfMultisets = 0;
+    for (int count = 0; count <= Math.min(4, remaining); count++) {
+      numberOfMultisets += countMultisets(value + 1, remaining - count);
+    }
+    return numberOfMultisets;
+  }
+
+  private static void fillMultisets(int[] counts, int value, int remaining, int[] keys,
+                                    short[] ranks, int[] position) {
+    if (value == NUMBER_OF_VALUES) {
+      if (remaining == 0) {
+        keys[position[0]] = keyOf(counts);
+        ranks[position[0]++] = (short) unsuitedRank(counts);
+      }
+      return;
+    }
+
+    for (int count = 0; count <= Math.min(4, remaining); count++) {
+      counts[value] = count;
+      fillMultisets(counts, value + 1, remaining - count, keys, ranks, position);
+    }
+    counts[value] = 0;
+  }
+
+  private static int keyOf(int[] counts) {
+    int key = 0;
+    for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+      key += counts[value] * VALUE_KEYS[value];
+    }
+    return key;
+  }
+
+  /**
+   * The best hand of the value multiset. The cards are spread over the suits one after the other,
+   * so no suit gets more than 2 of the 7 cards and no flush is possible.
+   */
+  private static int unsuitedRank(int[] counts) {
+    int[] cards = new int[7];
+    int numberOfCards = 0;
+    for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+      for (int i = 0; i < counts[value]; i++) {
+        cards[numberOfCards] = (numberOfCards % 4) * NUMBER_OF_VALUES + value;
+        numberOfCards++;
+      }
+    }
+    return bestRank(cards, numberOfCards);
+  }
+
+  private static int bestRank(int[] cards, int numberOfCards) {
+    int best = -1;
+    for (int c4 = 4; c4 < numberOfCards; c4++) {
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              best = Math.max(best, FiveCardRankTable.rank(cards[c0], cards[c1], cards[c2],
+                  cards[c3], cards[c4]));
+            }
+          }
+        }
+      }
+    }
+    return best;
+  }
+}
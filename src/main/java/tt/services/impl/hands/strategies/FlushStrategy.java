@@ -3,11 +3,9 @@ package tt.services.impl.hands.strategies;
 import tt.models.*;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
 import tt.services.impl.hands.HandTypeStrategy;
-import tt.util.CardUtils;
+import tt.util.HandClassifier;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
 
 public class FlushStrategy implements HandTypeStrategy {
   private final DefaultHandTypeAnalyzer analyzer;
@@ -23,9 +21,9 @@ public class FlushStrategy implements HandTypeStrategy {
       return false;
     }
 
-    // All the cards must have the same suit
-    Map<CardSuit, List<Card>> bySuit = CardUtils.groupCardsBySuit(cards);
-    return bySuit.size() == 1;
+    // All the cards must have the same suit, which includes the straight flush
+    HandType type = HandClassifier.classify(cards);
+    return type == HandType.FLUSH || type == HandType.STRAIGHT_FLUSH;
   }
 
   @Override
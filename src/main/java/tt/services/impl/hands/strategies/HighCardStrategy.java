@@ -3,12 +3,11 @@ package tt.services.impl.hands.strategies;
 import tt.models.*;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
 import tt.services.impl.hands.HandTypeStrategy;
-import tt.util.CardUtils;
+import tt.util.HandClassifier;
 
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.IntStream;
 
 /**
@@ -16,10 +15,19 @@ import java.util.stream.IntStream;
  */
 public class HighCardStrategy implements HandTypeStrategy {
 
-  private final DefaultHandTypeAnalyzer analyzer;
+  public HighCardStrategy() {
+  }
 
+  /**
+   * Create the strategy for the given analyzer.
+   *
+   * @param analyzer the analyzer, which isn't needed anymore
+   * @deprecated the high card is matched without the other strategies of the analyzer, use
+   * {@link #HighCardStrategy()} instead
+   */
+  @Deprecated
   public HighCardStrategy(DefaultHandTypeAnalyzer analyzer) {
-    this.analyzer = analyzer;
+    this();
   }
 
   @Override
@@ -29,19 +37,8 @@ public class HighCardStrategy implements HandTypeStrategy {
       return false;
     }
 
-    // there can be no duplicates, otherwise it is at least a pair
-    Map<CardValue, List<Card>> byValue = CardUtils.groupCardsByValue(cards);
-    if (byValue.size() != cards.size()) {
-      return false;
-    }
-
-    // can't be a flush
-    if (analyzer.isType(HandType.FLUSH, cards)) {
-      return false;
-    }
-
-    // and it can't be a straight
-    return !analyzer.isType(HandType.STRAIGHT, cards);
+    // no duplicate values, no flush and no straight
+    return HandClassifier.classify(cards) == HandType.HIGH_CARD;
   }
 
   @Override
@@ -41,8 +41,8 @@ public class SinglePairStrategy implements HandTypeStrategy {
         return Optional.empty();
       }
 
-      // sort the extra cards
-      Collections.sort(extraCards);
+      // sort the extra cards, the highest card is the first tiebreaker after the pair
+      extraCards.sort(Comparator.reverseOrder());
 
       // return the new hand and order the extra cards by their value
       return Optional.of(
@@ -6,6 +6,7 @@ import tt.models.HandType;
 import tt.models.ShowdownResult;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
 import tt.services.impl.hands.HandTypeStrategy;
+import tt.util.HandClassifier;
 
 import java.util.Collection;
 
@@ -18,8 +19,8 @@ public class StraightFlushStrategy implements HandTypeStrategy {
 
   @Override
   public boolean matches(Collection<Card> cards) {
-    // must match both the conditions of the flush and a straight
-    return analyzer.isType(HandType.FLUSH, cards) && analyzer.isType(HandType.STRAIGHT, cards);
+    // there must be 5 cards that match both the conditions of the flush and a straight
+    return cards.size() == 5 && HandClassifier.classify(cards) == HandType.STRAIGHT_FLUSH;
   }
 
   @Override
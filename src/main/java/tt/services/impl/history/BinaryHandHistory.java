@@ -0,0 +1,26 @@
+package tt.services.impl.history;
+
+import java.nio.ByteOrder;
+
+/**
+ * The layout of the binary hand history, which stores the hands of every game in 3 bytes each
+ * instead of about 15 characters of text.
+ * <p>
+ * The file starts with a header of {@value #HEADER_SIZE} bytes: the magic, the version, the number
+ * of players of every game, a reserved int and the seed of the games as a long. It is followed by
+ * one record per game with the hand of every player as the 3 lowest bytes of its combinatorial
+ * number as defined by {@link tt.services.impl.hands.lookup.MappedRankTable#indexOf}. All numbers
+ * are little endian.
+ */
+final class BinaryHandHistory {
+  static final int MAGIC = 0x48484650;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 24;
+  static final int BYTES_PER_HAND = 3;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+  static final int BUFFER_SIZE = 1 << 16;
+
+  private BinaryHandHistory() {
+    // no instance
+  }
+}
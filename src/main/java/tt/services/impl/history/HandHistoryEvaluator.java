@@ -0,0 +1,271 @@
+package tt.services.impl.history;
+
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.archive.GameArchive;
+import tt.services.impl.archive.GameArchiveWriter;
+import tt.util.HandHistoryParser;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Scores a file of showdowns, one line per showdown as parsed by {@link HandHistoryParser}, and
+ * writes the seats of the winners of every line in the order of the input, e.g. {@code 2} or
+ * {@code 1 3} for a split pot. Blank lines result in blank lines.
+ * <p>
+ * The file is split into chunks of a fixed size that are memory-mapped and scored in parallel. A
+ * line belongs to the chunk it starts in, so every chunk finds its first line on its own by
+ * skipping the rest of the line before it, and finishes its last line beyond its end. At most
+ * twice as many chunks as the pool has workers are scored ahead of the output, which is written
+ * in the order of the chunks.
+ */
+public class HandHistoryEvaluator {
+  /**
+   * The default size of the chunks in bytes.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 23;
+
+  /**
+   * The maximum length of a line in bytes.
+   */
+  public static final int MAX_LINE_LENGTH = 1 << 12;
+
+  private static final int GAMES_PER_BLOCK = 1 << 12;
+
+  private final HandTypeAnalyzer analyzer;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Create an evaluator with chunks of the {@link #DEFAULT_CHUNK_SIZE}.
+   *
+   * @param analyzer the analyzer that evaluates the packed hands
+   * @param pool     the pool that scores the chunks
+   */
+  public HandHistoryEvaluator(HandTypeAnalyzer analyzer, ForkJoinPool pool) {
+    this(analyzer, pool, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Create an evaluator.
+   *
+   * @param analyzer  the analyzer that evaluates the packed hands
+   * @param pool      the pool that scores the chunks
+   * @param chunkSize the size of the chunks in bytes
+   */
+  public HandHistoryEvaluator(HandTypeAnalyzer analyzer, ForkJoinPool pool, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunks must not be empty: " + chunkSize);
+    }
+
+    this.analyzer = analyzer;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Score the showdowns of the input file and write the winners to the output file.
+   *
+   * @param input  the file with the showdowns
+   * @param output the file that receives the winners, it is replaced if it exists
+   * @return the number of lines
+   */
+  public long evaluate(Path input, Path output) {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+      return evaluate(input, out);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't write the winners to " + output, e);
+    }
+  }
+
+  /**
+   * Score the showdowns of the input file and write the winners to the stream.
+   *
+   * @param input  the file with the showdowns
+   * @param output the stream that receives the winners
+   * @return the number of lines
+   */
+  public long evaluate(Path input, OutputStream output) {
+    try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long numberOfChunks = (size + chunkSize - 1) / chunkSize;
+      int maxChunksAhead = 2 * pool.getParallelism();
+
+      long lines = 0;
+      Deque<ForkJoinTask<Chunk>> chunks = new ArrayDeque<>();
+      for (long index = 0; index < numberOfChunks; index++) {
+        long chunkIndex = index;
+        chunks.add(pool.submit(() -> score(channel, size, chunkIndex)));
+        if (chunks.size() >= maxChunksAhead) {
+          lines += chunks.poll().join().writeTo(output);
+        }
+      }
+      while (!chunks.isEmpty()) {
+        lines += chunks.poll().join().writeTo(output);
+      }
+      output.flush();
+      return lines;
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't score the hand history " + input, e);
+    }
+  }
+
+  /**
+   * Score the games of a binary hand history and write the winners to the stream. The games are
+   * read in blocks and every block is evaluated as a batch on the pool.
+   *
+   * @param reader the reader of the binary hand history
+   * @param output the stream that receives the winners
+   * @return the number of games
+   */
+  public long evaluate(HandHistoryReader reader, OutputStream output) {
+    int numberOfPlayers = reader.getNumberOfPlayers();
+    int[] hands = new int[GAMES_PER_BLOCK * numberOfPlayers];
+    int[] strengths = new int[hands.length];
+    byte[] bytes = new byte[GAMES_PER_BLOCK * Winners.MAX_LINE_BYTES];
+
+    long lines = 0;
+    try {
+      int games;
+      while ((games = reader.read(hands, GAMES_PER_BLOCK)) > 0) {
+        int numberOfHands = games * numberOfPlayers;
+        pool.submit(() -> analyzer.evaluate(hands, strengths, numberOfHands)).join();
+
+        int length = 0;
+        for (int game = 0; game < games; game++) {
+          length = Winners.append(strengths, game * numberOfPlayers, numberOfPlayers, bytes,
+              length);
+        }
+        output.write(bytes, 0, length);
+        lines += games;
+      }
+      output.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't write the winners", e);
+    }
+    return lines;
+  }
+
+  /**
+   * Score the games of a binary hand history and append them to a game archive, so later
+   * questions about the games can be answered by {@link GameArchive} queries instead of
+   * evaluating the hands again.
+   *
+   * @param reader the reader of the binary hand history
+   * @param writer the writer of the archive
+   * @return the number of games
+   */
+  public long archive(HandHistoryReader reader, GameArchiveWriter writer) {
+    int numberOfPlayers = reader.getNumberOfPlayers();
+    int[] hands = new int[GAMES_PER_BLOCK * numberOfPlayers];
+    int[] strengths = new int[hands.length];
+
+    long games = 0;
+    int read;
+    while ((read = reader.read(hands, GAMES_PER_BLOCK)) > 0) {
+      int numberOfHands = read * numberOfPlayers;
+      pool.submit(() -> analyzer.evaluate(hands, strengths, numberOfHands)).join();
+      for (int game = 0; game < read; game++) {
+        writer.append(hands, strengths, game * numberOfPlayers, numberOfPlayers);
+      }
+      games += read;
+    }
+    return games;
+  }
+
+  private Chunk score(FileChannel channel, long size, long index) {
+    long start = index * chunkSize;
+    long end = Math.min(size, start + chunkSize);
+    // the byte before the chunk tells if a line starts at the beginning of the chunk
+    long mapStart = Math.max(0, start - 1);
+    long mapEnd = Math.min(size, end + MAX_LINE_LENGTH);
+    MappedByteBuffer bytes;
+    try {
+      bytes = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't map the bytes from " + mapStart, e);
+    }
+
+    Chunk chunk = new Chunk((int) (end - start) / 2 + 16);
+    int limit = (int) (end - mapStart);
+    int lineStart = 0;
+    if (index > 0) {
+      lineStart = nextLine(bytes, 0, mapEnd == size);
+    }
+
+    int[] hands = new int[Winners.MAX_HANDS];
+    int[] strengths = new int[Winners.MAX_HANDS];
+    while (lineStart >= 0 && lineStart < limit) {
+      int lineEnd = endOfLine(bytes, lineStart, mapEnd == size);
+      int numberOfHands = HandHistoryParser.parseLine(bytes, lineStart, lineEnd, hands);
+      for (int hand = 0; hand < numberOfHands; hand++) {
+        strengths[hand] = analyzer.evaluate(hands[hand]);
+      }
+      chunk.addWinners(strengths, numberOfHands);
+      lineStart = lineEnd + 1;
+    }
+    return chunk;
+  }
+
+  /**
+   * Returns the position after the next line feed from the given position or -1 if no line starts
+   * in the mapped bytes.
+   */
+  private static int nextLine(MappedByteBuffer bytes, int position, boolean endOfFile) {
+    int lineEnd = endOfLine(bytes, position, endOfFile);
+    return lineEnd < bytes.limit() ? lineEnd + 1 : -1;
+  }
+
+  private static int endOfLine(MappedByteBuffer bytes, int position, boolean endOfFile) {
+    int limit = bytes.limit();
+    for (int i = position; i < limit; i++) {
+      if (bytes.get(i) == '\n') {
+        return i;
+      }
+    }
+    if (!endOfFile) {
+      throw new IllegalArgumentException(
+          "a line of the hand history is longer than %d bytes".formatted(MAX_LINE_LENGTH));
+    }
+    // the last line doesn't need a line feed
+    return limit;
+  }
+
+  /**
+   * The winners of the lines of a chunk as text.
+   */
+  private static final class Chunk {
+    private byte[] bytes;
+    private int length;
+    private long lines;
+
+    private Chunk(int capacity) {
+      this.bytes = new byte[capacity];
+    }
+
+    private void addWinners(int[] strengths, int numberOfHands) {
+      if (length + Winners.MAX_LINE_BYTES > bytes.length) {
+        bytes = Arrays.copyOf(bytes, 2 * bytes.length + Winners.MAX_LINE_BYTES);
+      }
+      length = Winners.append(strengths, numberOfHands, bytes, length);
+      lines++;
+    }
+
+    private long writeTo(OutputStream output) throws IOException {
+      output.write(bytes, 0, length);
+      return lines;
+    }
+  }
+}
@@ -0,0 +1,305 @@
+package tt.services.impl.history;
+
+import tt.services.HandTypeAnalyzer;
+import tt.util.HandHistoryParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Scores a continuous stream of showdowns, one line per showdown as parsed by
+ * {@link HandHistoryParser}, and writes the seats of the winners of every line in the order of
+ * the input. An invalid line results in a line starting with {@code error}, so the stream goes on.
+ * <p>
+ * The pipeline has three stages: the calling thread reads the input and cuts it into batches of
+ * complete lines, a pool of workers parses and evaluates the batches, and a writer puts the
+ * results back into the order of the input. A batch holds the lines of a single read, so the
+ * lines of a slow stream are scored one by one as they arrive, while a fast stream is scored in
+ * large batches. The number of batches between the reader and the writer is bounded, so a slow
+ * consumer of the output slows down the reading of the input. The output is flushed whenever the
+ * writer has nothing more to write.
+ */
+public class HandHistoryPipeline {
+  private static final int READ_SIZE = 1 << 16;
+
+  private final HandTypeAnalyzer analyzer;
+  private final int numberOfWorkers;
+  private final int capacity;
+
+  /**
+   * Create a pipeline.
+   *
+   * @param analyzer        the analyzer that evaluates the packed hands
+   * @param numberOfWorkers the number of threads that parse and evaluate the lines
+   * @param capacity        the maximum number of batches between the reader and the writer
+   */
+  public HandHistoryPipeline(HandTypeAnalyzer analyzer, int numberOfWorkers, int capacity) {
+    if (numberOfWorkers < 1 || capacity < 1) {
+      throw new IllegalArgumentException(
+          "The pipeline needs at least one worker and one batch, not %d and %d!".formatted(
+              numberOfWorkers, capacity));
+    }
+
+    this.analyzer = analyzer;
+    this.numberOfWorkers = numberOfWorkers;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Score the showdowns of the input until it ends and write the winners to the output.
+   *
+   * @param input  the stream of showdowns
+   * @param output the stream that receives the winners
+   * @return the number of lines
+   */
+  public long run(InputStream input, OutputStream output) {
+    BlockingQueue<Batch> batches = new ArrayBlockingQueue<>(capacity);
+    BlockingQueue<Batch> results = new LinkedBlockingQueue<>();
+    Semaphore inFlight = new Semaphore(capacity);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    Thread[] workers = new Thread[numberOfWorkers];
+    for (int i = 0; i < workers.length; i++) {
+      workers[i] = Thread.ofPlatform().name("history-worker-" + i).daemon()
+          .start(() -> score(batches, results, inFlight, failure));
+    }
+    long[] lines = new long[1];
+    Thread writer = Thread.ofPlatform().name("history-writer").daemon()
+        .start(() -> write(results, output, inFlight, failure, lines));
+
+    try {
+      long numberOfBatches = read(input, batches, inFlight, failure);
+      results.put(Batch.end(numberOfBatches));
+      for (int i = 0; i < workers.length; i++) {
+        batches.put(Batch.end(-1));
+      }
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("the pipeline was interrupted", e);
+    } finally {
+      for (Thread worker : workers) {
+        worker.interrupt();
+      }
+      writer.interrupt();
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return lines[0];
+  }
+
+  /**
+   * Cut the input into batches of complete lines, the incomplete rest of a read is kept for the
+   * next batch. The rest can't grow beyond {@link HandHistoryEvaluator#MAX_LINE_LENGTH}, so the
+   * buffer always has room for the next read.
+   */
+  private long read(InputStream input, BlockingQueue<Batch> batches, Semaphore inFlight,
+                    AtomicReference<RuntimeException> failure) throws InterruptedException {
+    byte[] buffer = new byte[READ_SIZE];
+    int length = 0;
+    long sequence = 0;
+    while (failure.get() == null) {
+      int read;
+      try {
+        read = input.read(buffer, length, buffer.length - length);
+      } catch (IOException e) {
+        throw new UncheckedIOException("couldn't read the hand history", e);
+      }
+      if (read < 0) {
+        break;
+      }
+      length += read;
+
+      int end = lastLineFeed(buffer, length) + 1;
+      if (end > 0) {
+        inFlight.acquire();
+        batches.put(new Batch(sequence++, Arrays.copyOf(buffer, end), end));
+        System.arraycopy(buffer, end, buffer, 0, length - end);
+        length -= end;
+      }
+      if (length > HandHistoryEvaluator.MAX_LINE_LENGTH) {
+        throw lineTooLong();
+      }
+    }
+
+    // the last line doesn't need a line feed
+    if (length > 0 && failure.get() == null) {
+      inFlight.acquire();
+      batches.put(new Batch(sequence++, Arrays.copyOf(buffer, length), length));
+    }
+    return sequence;
+  }
+
+  private static IllegalArgumentException lineTooLong() {
+    return new IllegalArgumentException("a line of the hand history is longer than %d bytes"
+        .formatted(HandHistoryEvaluator.MAX_LINE_LENGTH));
+  }
+
+  private static int lastLineFeed(byte[] buffer, int length) {
+    for (int i = length - 1; i >= 0; i--) {
+      if (buffer[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parse and evaluate batches until the end. An invalid line becomes an error line, but any
+   * other failure stops the pipeline, since the writer would wait for the lost batch forever.
+   */
+  private void score(BlockingQueue<Batch> batches, BlockingQueue<Batch> results,
+                     Semaphore inFlight, AtomicReference<RuntimeException> failure) {
+    int[] hands = new int[Winners.MAX_HANDS];
+    int[] strengths = new int[Winners.MAX_HANDS];
+    try {
+      while (true) {
+        Batch batch = batches.take();
+        if (batch.sequence < 0) {
+          return;
+        }
+        if (failure.get() != null) {
+          // the pipeline is stopping, the batches are only taken to unblock the reader
+          continue;
+        }
+
+        try {
+          results.put(scoreBatch(batch, hands, strengths));
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+          // the writer stops at once and the reader goes on, so it notices the failure
+          results.put(Batch.end(0));
+          inFlight.release(Integer.MAX_VALUE / 2);
+        }
+      }
+    } catch (InterruptedException e) {
+      // the pipeline is shut down
+    }
+  }
+
+  private Batch scoreBatch(Batch batch, int[] hands, int[] strengths) {
+    ByteBuffer bytes = ByteBuffer.wrap(batch.bytes, 0, batch.length);
+    byte[] output = new byte[batch.length / 2 + Winners.MAX_LINE_BYTES];
+    int outputLength = 0;
+    long lines = 0;
+    int lineStart = 0;
+    while (lineStart < batch.length) {
+      int lineEnd = lineStart;
+      while (lineEnd < batch.length && batch.bytes[lineEnd] != '\n') {
+        lineEnd++;
+      }
+      if (lineEnd - lineStart > HandHistoryEvaluator.MAX_LINE_LENGTH) {
+        throw lineTooLong();
+      }
+
+      try {
+        int numberOfHands = HandHistoryParser.parseLine(bytes, lineStart, lineEnd, hands);
+        for (int hand = 0; hand < numberOfHands; hand++) {
+          strengths[hand] = analyzer.evaluate(hands[hand]);
+        }
+        output = ensureCapacity(output, outputLength + Winners.MAX_LINE_BYTES);
+        outputLength = Winners.append(strengths, numberOfHands, output, outputLength);
+      } catch (IllegalArgumentException e) {
+        byte[] error = ("error " + e.getMessage().replace('\n', ' ') + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+        output = ensureCapacity(output, outputLength + error.length);
+        System.arraycopy(error, 0, output, outputLength, error.length);
+        outputLength += error.length;
+      }
+      lines++;
+      lineStart = lineEnd + 1;
+    }
+    return new Batch(batch.sequence, output, outputLength, lines);
+  }
+
+  private static byte[] ensureCapacity(byte[] bytes, int capacity) {
+    return capacity <= bytes.length ? bytes : Arrays.copyOf(bytes, Math.max(capacity,
+        2 * bytes.length));
+  }
+
+  /**
+   * Write the scored batches in the order of their sequence, a batch that is done early waits
+   * until the batches before it are written.
+   */
+  private static void write(BlockingQueue<Batch> results, OutputStream output, Semaphore inFlight,
+                            AtomicReference<RuntimeException> failure, long[] lines) {
+    Map<Long, Batch> pending = new HashMap<>();
+    long next = 0;
+    long numberOfBatches = Long.MAX_VALUE;
+    try {
+      while (next < numberOfBatches) {
+        Batch batch = results.poll();
+        if (batch == null) {
+          // nothing is ready, so everything written so far is passed on
+          output.flush();
+          batch = results.take();
+        }
+        if (batch.isEnd()) {
+          numberOfBatches = batch.lines;
+          continue;
+        }
+
+        pending.put(batch.sequence, batch);
+        while ((batch = pending.remove(next)) != null) {
+          output.write(batch.bytes, 0, batch.length);
+          lines[0] += batch.lines;
+          next++;
+          inFlight.release();
+        }
+      }
+      output.flush();
+    } catch (IOException e) {
+      failure.set(new UncheckedIOException("couldn't write the winners", e));
+      // let the reader go on, so it notices the failure
+      inFlight.release(Integer.MAX_VALUE / 2);
+    } catch (InterruptedException e) {
+      // the pipeline is shut down
+    }
+  }
+
+  /**
+   * The bytes of a number of lines, either the input or the scored output.
+   */
+  private static final class Batch {
+    private final long sequence;
+    private final byte[] bytes;
+    private final int length;
+    private final long lines;
+
+    private Batch(long sequence, byte[] bytes, int length) {
+      this(sequence, bytes, length, 0);
+    }
+
+    private Batch(long sequence, byte[] bytes, int length, long lines) {
+      this.sequence = sequence;
+      this.bytes = bytes;
+      this.length = length;
+      this.lines = lines;
+    }
+
+    /**
+     * The end of the input, the lines carry the number of batches for the writer.
+     */
+    private static Batch end(long numberOfBatches) {
+      return new Batch(-1, null, 0, numberOfBatches);
+    }
+
+    private boolean isEnd() {
+      return bytes == null;
+    }
+  }
+}
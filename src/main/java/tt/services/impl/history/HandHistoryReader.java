@@ -0,0 +1,154 @@
+package tt.services.impl.history;
+
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the games of a binary hand history as described by {@link BinaryHandHistory} in blocks.
+ * The games are decoded from a direct buffer into an array of packed hands, which can be passed to
+ * the batch evaluation of a {@link tt.services.HandTypeAnalyzer} as it is, so reading a block
+ * doesn't create any objects.
+ */
+public class HandHistoryReader implements AutoCloseable {
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryHandHistory.BUFFER_SIZE)
+      .order(BinaryHandHistory.ORDER);
+  private final int numberOfPlayers;
+  private final long seed;
+  private boolean endOfChannel;
+
+  /**
+   * Create a reader that reads the header from the channel.
+   *
+   * @param channel the channel with the hand history
+   * @throws IllegalArgumentException if the channel doesn't start with a valid header
+   */
+  public HandHistoryReader(ReadableByteChannel channel) {
+    this.channel = channel;
+    buffer.limit(0);
+    if (!fill(BinaryHandHistory.HEADER_SIZE)) {
+      throw new IllegalArgumentException("the hand history is too short for the header");
+    }
+    if (buffer.getInt() != BinaryHandHistory.MAGIC
+        || buffer.getInt() != BinaryHandHistory.VERSION) {
+      throw new IllegalArgumentException("this is not a hand history of version "
+          + BinaryHandHistory.VERSION);
+    }
+    numberOfPlayers = buffer.getInt();
+    buffer.getInt();
+    seed = buffer.getLong();
+    if (numberOfPlayers < 1 || numberOfPlayers > Winners.MAX_HANDS) {
+      throw new IllegalArgumentException("invalid number of players " + numberOfPlayers);
+    }
+  }
+
+  /**
+   * Open the hand history file.
+   *
+   * @param path the location of the file
+   * @return the reader
+   */
+  public static HandHistoryReader open(Path path) {
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(path, StandardOpenOption.READ);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't open the hand history " + path, e);
+    }
+
+    try {
+      return new HandHistoryReader(channel);
+    } catch (RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeFailure) {
+        e.addSuppressed(closeFailure);
+      }
+      throw e;
+    }
+  }
+
+  public int getNumberOfPlayers() {
+    return numberOfPlayers;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Read the next games. The hands are stored game by game, i.e. the hand of player p of game g is
+   * at {@code g * numberOfPlayers + p}.
+   *
+   * @param hands         the array that receives the packed hands as defined by
+   *                      {@link PackedHands}
+   * @param numberOfGames the maximum number of games to read
+   * @return the number of games that were read, which is 0 at the end of the hand history
+   * @throws IllegalArgumentException if the hand history ends within a game
+   */
+  public int read(int[] hands, int numberOfGames) {
+    int recordSize = numberOfPlayers * BinaryHandHistory.BYTES_PER_HAND;
+    if (hands.length < numberOfGames * numberOfPlayers) {
+      throw new IllegalArgumentException("The array can't hold the hands of %d games!".formatted(
+          numberOfGames));
+    }
+
+    int games = 0;
+    int position = 0;
+    while (games < numberOfGames) {
+      if (buffer.remaining() < recordSize && !fill(recordSize)) {
+        if (buffer.hasRemaining()) {
+          throw new IllegalArgumentException("the hand history ends within a game");
+        }
+        break;
+      }
+
+      // decode all complete records of the buffer at once
+      int available = Math.min(numberOfGames - games, buffer.remaining() / recordSize);
+      for (int i = 0; i < available * numberOfPlayers; i++) {
+        int index = (buffer.get() & 0xFF) | ((buffer.getShort() & 0xFFFF) << 8);
+        hands[position++] = MappedRankTable.handOf(index);
+      }
+      games += available;
+    }
+    return games;
+  }
+
+  /**
+   * Read from the channel until the buffer holds at least the given number of bytes.
+   *
+   * @return false if the channel ended before
+   */
+  private boolean fill(int minimum) {
+    buffer.compact();
+    try {
+      while (buffer.position() < minimum && !endOfChannel) {
+        if (channel.read(buffer) < 0) {
+          endOfChannel = true;
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't read the hand history", e);
+    } finally {
+      buffer.flip();
+    }
+    return buffer.remaining() >= minimum;
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't close the hand history", e);
+    }
+  }
+}
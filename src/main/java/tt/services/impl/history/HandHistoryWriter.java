@@ -0,0 +1,167 @@
+package tt.services.impl.history;
+
+import tt.models.GameContext;
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes games into a binary hand history as described by {@link BinaryHandHistory}. The records
+ * are collected in a direct buffer and written to the channel whenever the buffer is full, so
+ * writing a game doesn't create any objects.
+ */
+public class HandHistoryWriter implements AutoCloseable {
+  private final WritableByteChannel channel;
+  private final int numberOfPlayers;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BinaryHandHistory.BUFFER_SIZE)
+      .order(BinaryHandHistory.ORDER);
+
+  /**
+   * Create a writer that writes the header to the channel.
+   *
+   * @param channel         the channel that receives the hand history
+   * @param numberOfPlayers the number of players of every game
+   * @param seed            the seed of the games, e.g. of a
+   *                        {@link tt.services.impl.decks.CounterBasedPokerDeckCreator}
+   */
+  public HandHistoryWriter(WritableByteChannel channel, int numberOfPlayers, long seed) {
+    validateNumberOfPlayers(numberOfPlayers);
+
+    this.channel = channel;
+    this.numberOfPlayers = numberOfPlayers;
+    buffer.putInt(BinaryHandHistory.MAGIC).putInt(BinaryHandHistory.VERSION)
+        .putInt(numberOfPlayers).putInt(0).putLong(seed);
+  }
+
+  /**
+   * Create a writer for a new file, an existing file is replaced.
+   *
+   * @param path            the location of the file
+   * @param numberOfPlayers the number of players of every game
+   * @param seed            the seed of the games
+   * @return the writer
+   */
+  public static HandHistoryWriter create(Path path, int numberOfPlayers, long seed) {
+    // an existing file is only replaced by a valid hand history
+    validateNumberOfPlayers(numberOfPlayers);
+    FileChannel channel;
+    try {
+      channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+          StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't create the hand history " + path, e);
+    }
+
+    try {
+      return new HandHistoryWriter(channel, numberOfPlayers, seed);
+    } catch (RuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeFailure) {
+        e.addSuppressed(closeFailure);
+      }
+      throw e;
+    }
+  }
+
+  private static void validateNumberOfPlayers(int numberOfPlayers) {
+    if (numberOfPlayers < 1 || numberOfPlayers > Winners.MAX_HANDS) {
+      throw new IllegalArgumentException("A game must have 1 to %d players, not %d!".formatted(
+          Winners.MAX_HANDS, numberOfPlayers));
+    }
+  }
+
+  public int getNumberOfPlayers() {
+    return numberOfPlayers;
+  }
+
+  /**
+   * Write a game.
+   *
+   * @param hands the packed hands of the players as defined by {@link PackedHands}
+   */
+  public void write(int[] hands) {
+    if (hands.length < numberOfPlayers) {
+      throw new IllegalArgumentException("A game must have %d hands, not %d!".formatted(
+          numberOfPlayers, hands.length));
+    }
+
+    for (int player = 0; player < numberOfPlayers; player++) {
+      validate(hands[player]);
+    }
+    ensureRemaining();
+    for (int player = 0; player < numberOfPlayers; player++) {
+      putHand(hands[player]);
+    }
+  }
+
+  /**
+   * Write the game of the context, which must have as many players as the hand history.
+   *
+   * @param context the context with the dealt hands
+   */
+  public void write(GameContext context) {
+    if (context.getNumberOfPlayers() != numberOfPlayers) {
+      throw new IllegalArgumentException("A game must have %d hands, not %d!".formatted(
+          numberOfPlayers, context.getNumberOfPlayers()));
+    }
+
+    for (int player = 0; player < numberOfPlayers; player++) {
+      validate(context.getHand(player));
+    }
+    ensureRemaining();
+    for (int player = 0; player < numberOfPlayers; player++) {
+      putHand(context.getHand(player));
+    }
+  }
+
+  private void ensureRemaining() {
+    if (buffer.remaining() < numberOfPlayers * BinaryHandHistory.BYTES_PER_HAND) {
+      flush();
+    }
+  }
+
+  private static void validate(int hand) {
+    if (!PackedHands.isValid(hand)) {
+      throw new IllegalArgumentException("invalid hand " + Integer.toHexString(hand));
+    }
+  }
+
+  private void putHand(int hand) {
+    int index = MappedRankTable.indexOf(PackedHands.cardAt(hand, 0), PackedHands.cardAt(hand, 1),
+        PackedHands.cardAt(hand, 2), PackedHands.cardAt(hand, 3), PackedHands.cardAt(hand, 4));
+    buffer.put((byte) index).putShort((short) (index >>> 8));
+  }
+
+  /**
+   * Write the collected games to the channel.
+   */
+  public void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't write the hand history", e);
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public void close() {
+    flush();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't close the hand history", e);
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package tt.services.impl.history;
+
+/**
+ * Writes the seats of the winners of a showdown as a line of text, e.g. {@code 1 3} for a split
+ * pot between the first and the third seat.
+ */
+final class Winners {
+  /**
+   * The maximum number of hands of a showdown.
+   */
+  static final int MAX_HANDS = 10;
+
+  /**
+   * The maximum number of bytes of a line of winners.
+   */
+  static final int MAX_LINE_BYTES = 3 * MAX_HANDS + 1;
+
+  private Winners() {
+    // no instance
+  }
+
+  /**
+   * Append the line of the winners to the bytes, which must have room for
+   * {@link #MAX_LINE_BYTES} more bytes.
+   *
+   * @param strengths     the strengths of the hands by seat
+   * @param numberOfHands the number of hands
+   * @param bytes         the bytes of the text
+   * @param length        the current length of the text
+   * @return the new length of the text
+   */
+  static int append(int[] strengths, int numberOfHands, byte[] bytes, int length) {
+    return append(strengths, 0, numberOfHands, bytes, length);
+  }
+
+  /**
+   * Append the line of the winners of the strengths that start at the offset to the bytes, which
+   * must have room for {@link #MAX_LINE_BYTES} more bytes.
+   *
+   * @param strengths     the strengths of the hands of many games
+   * @param offset        the position of the strength of the first seat
+   * @param numberOfHands the number of hands
+   * @param bytes         the bytes of the text
+   * @param length        the current length of the text
+   * @return the new length of the text
+   */
+  static int append(int[] strengths, int offset, int numberOfHands, byte[] bytes, int length) {
+    int best = Integer.MIN_VALUE;
+    for (int hand = 0; hand < numberOfHands; hand++) {
+      best = Math.max(best, strengths[offset + hand]);
+    }
+
+    boolean first = true;
+    for (int hand = 0; hand < numberOfHands; hand++) {
+      if (strengths[offset + hand] == best) {
+        if (!first) {
+          bytes[length++] = ' ';
+        }
+        int seat = hand + 1;
+        if (seat >= 10) {
+          bytes[length++] = (byte) ('0' + seat / 10);
+        }
+        bytes[length++] = (byte) ('0' + seat % 10);
+        first = false;
+      }
+    }
+    bytes[length++] = '\n';
+    return length;
+  }
+}
@@ -0,0 +1,505 @@
+package tt.services.impl.journal;
+
+import tt.models.GameContext;
+import tt.services.GameListener;
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Records the completed games of many threads in a journal file with group commits. It is a
+ * {@link GameListener}, so it can be passed to a {@link tt.services.impl.dealer.FiveCardDrawDealer}
+ * and records every game at its showdown.
+ * <p>
+ * The producers append their games to one of several striped buffers, the stripe is chosen by
+ * the thread, so producers rarely wait for each other. A full buffer is sealed as a frame with
+ * its length, its number of games and a checksum, see {@link JournalLayout}, and handed to a
+ * dedicated writer thread. The writer takes every frame that is ready and writes them with a
+ * single gathering write, so the file grows in large sequential writes no matter how many
+ * producers there are. Partly filled buffers are sealed by the writer after the flush interval
+ * without new frames. The number of buffers is fixed, so the memory of the journal is bounded:
+ * when every buffer waits for the disk, the producers either wait or drop their games as
+ * configured by {@link JournalOptions#backpressure()}.
+ * <p>
+ * Durability: a game is only in the file once the frame of its buffer was written.
+ * <ul>
+ *   <li>Games in buffers that aren't sealed or written yet are lost if the process dies, which
+ *   are at most the games of one flush interval plus the games that fill the buffers.</li>
+ *   <li>Written frames survive a crash of the process, but only frames that were forced to the
+ *   disk survive a crash of the machine: with {@link JournalOptions.FsyncPolicy#EVERY_WRITE} all
+ *   frames that were written, with {@link JournalOptions.FsyncPolicy#INTERVAL} all frames older
+ *   than the flush interval and with {@link JournalOptions.FsyncPolicy#NEVER} whatever the
+ *   operating system has written back. {@link #getDurableGames()} counts the forced games and
+ *   {@link #flush()} and {@link #close()} always force the file.</li>
+ *   <li>A frame is recovered completely or not at all. The frame that was being written during
+ *   a crash fails its length or checksum check, so {@link JournalReader} stops in front of it and
+ *   opening the journal again truncates the file there before new frames are appended.</li>
+ *   <li>The games of a thread keep their order, but the games of different threads are only
+ *   ordered by their frames.</li>
+ * </ul>
+ */
+public class GameJournal implements GameListener, AutoCloseable {
+  private static final int MAX_FRAMES_PER_WRITE = 64;
+  private static final long BLOCK_POLL_MILLIS = 100;
+  private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+  private final Path path;
+  private final JournalOptions options;
+  private final FileChannel channel;
+  private final Stripe[] stripes;
+  private final BlockingQueue<ByteBuffer> free;
+  private final BlockingQueue<ByteBuffer> sealed = new LinkedBlockingQueue<>();
+  private final LongAdder droppedGames = new LongAdder();
+  private final Object progress = new Object();
+  private final Thread writer;
+  private long sealedFrames;
+  private long writtenFrames;
+  private long writtenGames;
+  private long durableGames;
+  private volatile boolean closed;
+  private volatile IOException failure;
+
+  /**
+   * Open the journal at the location. An existing journal is recovered: everything behind its
+   * last valid frame is truncated and the new games are appended.
+   *
+   * @param path    the location of the journal
+   * @param options the settings of the journal
+   * @throws IllegalArgumentException if an existing file isn't a journal
+   */
+  public GameJournal(Path path, JournalOptions options) {
+    this.path = path;
+    this.options = options;
+    try {
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't open the journal " + path, e);
+    }
+
+    try {
+      recover();
+    } catch (IOException e) {
+      closeChannel(e);
+      throw new UncheckedIOException("couldn't recover the journal " + path, e);
+    } catch (RuntimeException e) {
+      closeChannel(e);
+      throw e;
+    }
+
+    stripes = new Stripe[options.stripes()];
+    for (int stripe = 0; stripe < stripes.length; stripe++) {
+      stripes[stripe] = new Stripe();
+    }
+    free = new ArrayBlockingQueue<>(options.buffers());
+    for (int buffer = 0; buffer < options.buffers(); buffer++) {
+      free.add(ByteBuffer.allocateDirect(options.bufferSize()).order(JournalLayout.ORDER)
+          .position(JournalLayout.FRAME_HEADER_SIZE));
+    }
+    writer = Thread.ofPlatform().name("game-journal-writer").daemon().start(this::writeFrames);
+  }
+
+  private void recover() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(JournalLayout.HEADER_SIZE).order(JournalLayout.ORDER)
+        .putInt(JournalLayout.MAGIC).putInt(JournalLayout.VERSION).flip();
+    if (channel.size() < JournalLayout.HEADER_SIZE) {
+      // a crash while the journal was created leaves a part of the header
+      ByteBuffer start = ByteBuffer.allocate((int) channel.size());
+      while (start.hasRemaining() && channel.read(start, start.position()) >= 0) {
+        // read until the buffer is full
+      }
+      if (!start.flip().equals(header.slice(0, start.limit()))) {
+        throw new IllegalArgumentException("this is not a journal of version "
+            + JournalLayout.VERSION);
+      }
+
+      channel.truncate(0);
+      channel.position(0);
+      while (header.hasRemaining()) {
+        channel.write(header);
+      }
+      channel.force(true);
+      return;
+    }
+
+    long validLength = JournalReader.scan(channel, payload -> {
+      // only the end of the valid frames is needed
+    });
+    channel.truncate(validLength);
+    channel.position(validLength);
+  }
+
+  private void closeChannel(Exception cause) {
+    try {
+      channel.close();
+    } catch (IOException closeFailure) {
+      cause.addSuppressed(closeFailure);
+    }
+  }
+
+  public JournalOptions getOptions() {
+    return options;
+  }
+
+  /**
+   * Returns the number of games that were written to the file.
+   *
+   * @return the number of written games
+   */
+  public long getWrittenGames() {
+    synchronized (progress) {
+      return writtenGames;
+    }
+  }
+
+  /**
+   * Returns the number of games that were forced to the disk.
+   *
+   * @return the number of durable games
+   */
+  public long getDurableGames() {
+    synchronized (progress) {
+      return durableGames;
+    }
+  }
+
+  /**
+   * Returns the number of games that were dropped, since no buffer was free.
+   *
+   * @return the number of dropped games
+   */
+  public long getDroppedGames() {
+    return droppedGames.sum();
+  }
+
+  /**
+   * Record the completed game of the context.
+   *
+   * @param context the context with the hands and the winners
+   */
+  @Override
+  public void showdown(GameContext context) {
+    append(context);
+  }
+
+  /**
+   * Record a game. The hands are validated before the game is added to a buffer.
+   *
+   * @param context the context with the hands and the winners of the game
+   * @throws IllegalStateException if the journal is closed
+   * @throws UncheckedIOException  if the writer failed
+   */
+  public void append(GameContext context) {
+    int numberOfPlayers = context.getNumberOfPlayers();
+    int winners = 0;
+    for (int winner = 0; winner < context.getNumberOfWinners(); winner++) {
+      winners |= 1 << context.getWinner(winner);
+    }
+    for (int player = 0; player < numberOfPlayers; player++) {
+      if (!PackedHands.isValid(context.getHand(player))) {
+        throw new IllegalArgumentException("invalid hand " + Integer.toHexString(
+            context.getHand(player)));
+      }
+    }
+
+    Stripe stripe = stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+    int recordSize = JournalLayout.RECORD_HEADER_SIZE + numberOfPlayers
+        * JournalLayout.BYTES_PER_HAND;
+    stripe.lock.lock();
+    try {
+      checkOpen();
+      ByteBuffer buffer = stripe.buffer;
+      if (buffer != null && buffer.remaining() < recordSize) {
+        seal(stripe);
+        buffer = null;
+      }
+      if (buffer == null) {
+        buffer = acquire();
+        if (buffer == null) {
+          droppedGames.increment();
+          return;
+        }
+        stripe.buffer = buffer;
+      }
+
+      buffer.put((byte) numberOfPlayers).putShort((short) winners);
+      for (int player = 0; player < numberOfPlayers; player++) {
+        int hand = context.getHand(player);
+        int index = MappedRankTable.indexOf(PackedHands.cardAt(hand, 0),
+            PackedHands.cardAt(hand, 1), PackedHands.cardAt(hand, 2),
+            PackedHands.cardAt(hand, 3), PackedHands.cardAt(hand, 4));
+        buffer.put((byte) index).putShort((short) (index >>> 8));
+      }
+      stripe.games++;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Take a free buffer, which waits for the writer or gives up as configured.
+   *
+   * @return the buffer or null if the game must be dropped
+   */
+  private ByteBuffer acquire() {
+    if (options.backpressure() == JournalOptions.Backpressure.DROP) {
+      return free.poll();
+    }
+
+    try {
+      ByteBuffer buffer;
+      while ((buffer = free.poll(BLOCK_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+        checkOpen();
+      }
+      return buffer;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while waiting for a free buffer", e);
+    }
+  }
+
+  private void checkOpen() {
+    if (failure != null) {
+      throw new UncheckedIOException("couldn't write the journal " + path, failure);
+    }
+    if (closed) {
+      throw new IllegalStateException("the journal is closed");
+    }
+  }
+
+  /**
+   * Complete the frame of the stripe and hand it to the writer, the lock of the stripe must be
+   * held.
+   */
+  private void seal(Stripe stripe) {
+    ByteBuffer buffer = stripe.buffer;
+    int length = buffer.position() - JournalLayout.FRAME_HEADER_SIZE;
+    stripe.checksum.reset();
+    stripe.checksum.update(buffer.slice(JournalLayout.FRAME_HEADER_SIZE, length));
+    buffer.putInt(0, length).putInt(4, stripe.games).putInt(8, (int) stripe.checksum.getValue())
+        .flip();
+    stripe.buffer = null;
+    stripe.games = 0;
+
+    // the frames are counted in the order of the queue, so flush() knows which ones to wait for
+    synchronized (progress) {
+      sealedFrames++;
+      sealed.add(buffer);
+    }
+  }
+
+  private void sealAll() {
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        if (stripe.games > 0) {
+          seal(stripe);
+        }
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Seal the partly filled buffers of the stripes that no producer holds. The writer must not wait
+   * for a stripe, since its producer may itself wait for the writer to return a buffer.
+   */
+  private void sealIdle() {
+    for (Stripe stripe : stripes) {
+      if (stripe.lock.tryLock()) {
+        try {
+          if (stripe.games > 0) {
+            seal(stripe);
+          }
+        } finally {
+          stripe.lock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Write all games that were recorded before and force them to the disk.
+   *
+   * @throws UncheckedIOException if the writer failed
+   */
+  public void flush() {
+    sealAll();
+    synchronized (progress) {
+      long target = sealedFrames;
+      try {
+        while (writtenFrames < target && failure == null) {
+          progress.wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("interrupted while flushing the journal", e);
+      }
+    }
+    force();
+  }
+
+  private void force() {
+    if (failure != null) {
+      throw new UncheckedIOException("couldn't write the journal " + path, failure);
+    }
+
+    long games = getWrittenGames();
+    try {
+      channel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't force the journal " + path, e);
+    }
+    synchronized (progress) {
+      durableGames = Math.max(durableGames, games);
+    }
+  }
+
+  /**
+   * The loop of the writer thread: write every frame that is ready at once and seal the partly
+   * filled buffers when no frame arrives within the flush interval. Written games that weren't
+   * forced yet are forced then, so they don't wait for the next write.
+   */
+  private void writeFrames() {
+    List<ByteBuffer> frames = new ArrayList<>(MAX_FRAMES_PER_WRITE);
+    long flushInterval = options.flushInterval().toNanos();
+    long lastForce = System.nanoTime();
+    boolean end = false;
+    try {
+      while (!end) {
+        ByteBuffer first = sealed.poll(flushInterval, TimeUnit.NANOSECONDS);
+        if (first == null) {
+          sealIdle();
+          if (options.fsyncPolicy() != JournalOptions.FsyncPolicy.NEVER) {
+            long games;
+            boolean behind;
+            synchronized (progress) {
+              games = writtenGames;
+              behind = writtenGames > durableGames;
+            }
+            if (behind) {
+              channel.force(false);
+              lastForce = System.nanoTime();
+              synchronized (progress) {
+                durableGames = Math.max(durableGames, games);
+                progress.notifyAll();
+              }
+            }
+          }
+          continue;
+        }
+
+        frames.add(first);
+        sealed.drainTo(frames, MAX_FRAMES_PER_WRITE - 1);
+        if (frames.getLast() == END) {
+          frames.removeLast();
+          end = true;
+        }
+
+        int games = 0;
+        for (ByteBuffer frame : frames) {
+          games += frame.getInt(4);
+        }
+        ByteBuffer[] buffers = frames.toArray(new ByteBuffer[0]);
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+          remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+          remaining -= channel.write(buffers);
+        }
+
+        boolean force = switch (options.fsyncPolicy()) {
+          case NEVER -> false;
+          case EVERY_WRITE -> true;
+          case INTERVAL -> System.nanoTime() - lastForce >= flushInterval;
+        };
+        if (force && !frames.isEmpty()) {
+          channel.force(false);
+          lastForce = System.nanoTime();
+        }
+
+        for (ByteBuffer buffer : buffers) {
+          free.add(buffer.clear().position(JournalLayout.FRAME_HEADER_SIZE));
+        }
+        synchronized (progress) {
+          writtenFrames += buffers.length;
+          writtenGames += games;
+          if (force) {
+            durableGames = writtenGames;
+          }
+          progress.notifyAll();
+        }
+        frames.clear();
+      }
+    } catch (IOException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      failure = new IOException("the writer of the journal was interrupted", e);
+    } finally {
+      synchronized (progress) {
+        progress.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Write the remaining games, force the file and close it.
+   *
+   * @throws UncheckedIOException if the writer failed
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+
+    sealAll();
+    closed = true;
+    // the producers that still hold a stripe finish their game before the last frames are sealed
+    sealAll();
+    sealed.add(END);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while closing the journal", e);
+    }
+
+    try {
+      force();
+    } finally {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("couldn't close the journal " + path, e);
+      }
+    }
+  }
+
+  /**
+   * The buffer that is being filled by the producers of a stripe.
+   */
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final CRC32C checksum = new CRC32C();
+    private ByteBuffer buffer;
+    private int games;
+  }
+}
@@ -0,0 +1,30 @@
+package tt.services.impl.journal;
+
+import tt.models.GameContext;
+
+import java.nio.ByteOrder;
+
+/**
+ * The layout of a game journal. The file starts with the magic and the version as ints, followed
+ * by the batches as frames. A frame has a header of {@value #FRAME_HEADER_SIZE} bytes with the
+ * length of its payload, its number of games and the CRC32C of the payload, followed by the
+ * payload. Every game of the payload is a record of the number of players as a byte, the mask of
+ * the seats of the winners as a short and the hand of every player as the 3 lowest bytes of its
+ * combinatorial number as defined by
+ * {@link tt.services.impl.hands.lookup.MappedRankTable#indexOf}. All numbers are little endian.
+ */
+final class JournalLayout {
+  static final int MAGIC = 0x4A474650;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 8;
+  static final int FRAME_HEADER_SIZE = 12;
+  static final int BYTES_PER_HAND = 3;
+  static final int RECORD_HEADER_SIZE = 3;
+  static final int MAX_RECORD_SIZE = RECORD_HEADER_SIZE + GameContext.MAX_PLAYERS * BYTES_PER_HAND;
+  static final int MIN_BUFFER_SIZE = 1 << 12;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private JournalLayout() {
+    // no instance
+  }
+}
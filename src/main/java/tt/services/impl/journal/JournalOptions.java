@@ -0,0 +1,124 @@
+package tt.services.impl.journal;
+
+import java.time.Duration;
+
+/**
+ * The settings of a {@link GameJournal}. The journal holds at most {@code buffers} buffers of
+ * {@code bufferSize} bytes, which bounds its memory no matter how fast the games arrive.
+ *
+ * @param stripes       the number of buffers that are filled at the same time, a power of two
+ * @param bufferSize    the size of a buffer in bytes, i.e. the maximum size of a batch
+ * @param buffers       the total number of buffers, which must be more than the stripes
+ * @param fsyncPolicy   when the written batches are forced to the disk
+ * @param flushInterval the maximum time a game waits in a partly filled buffer and the interval
+ *                      of {@link FsyncPolicy#INTERVAL}
+ * @param backpressure  what happens to a game when all buffers are waiting for the disk
+ */
+public record JournalOptions(int stripes, int bufferSize, int buffers, FsyncPolicy fsyncPolicy,
+                             Duration flushInterval, Backpressure backpressure) {
+  /**
+   * When the journal forces the written batches to the disk.
+   */
+  public enum FsyncPolicy {
+    /**
+     * Never, the operating system writes the pages back on its own.
+     */
+    NEVER,
+    /**
+     * After every write, which covers all batches that were ready at that time.
+     */
+    EVERY_WRITE,
+    /**
+     * At most once per flush interval.
+     */
+    INTERVAL
+  }
+
+  /**
+   * What happens to a game when no buffer is free.
+   */
+  public enum Backpressure {
+    /**
+     * The producer waits until the writer returns a buffer.
+     */
+    BLOCK,
+    /**
+     * The game is dropped and counted, the producer never waits.
+     */
+    DROP
+  }
+
+  public JournalOptions {
+    if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+      throw new IllegalArgumentException("The stripes must be a power of two, not %d!".formatted(
+          stripes));
+    }
+    if (bufferSize < JournalLayout.MIN_BUFFER_SIZE) {
+      throw new IllegalArgumentException("A buffer must hold at least %d bytes, not %d!"
+          .formatted(JournalLayout.MIN_BUFFER_SIZE, bufferSize));
+    }
+    if (buffers <= stripes) {
+      throw new IllegalArgumentException("There must be more than %d buffers, not %d!".formatted(
+          stripes, buffers));
+    }
+    if (flushInterval.isNegative() || flushInterval.isZero()) {
+      throw new IllegalArgumentException("The flush interval must be positive!");
+    }
+  }
+
+  /**
+   * Returns the default settings: a stripe per processor rounded up to a power of two, buffers of
+   * 1 MB, 4 buffers per stripe, forced after every write, flushed every 10 ms and producers that
+   * wait for a free buffer.
+   *
+   * @return the default settings
+   */
+  public static JournalOptions defaults() {
+    int stripes = Integer.highestOneBit(2 * Runtime.getRuntime().availableProcessors() - 1);
+    return new JournalOptions(stripes, 1 << 20, 4 * stripes, FsyncPolicy.EVERY_WRITE,
+        Duration.ofMillis(10), Backpressure.BLOCK);
+  }
+
+  /**
+   * Returns the settings with other buffers.
+   *
+   * @param stripes    the number of buffers that are filled at the same time
+   * @param bufferSize the size of a buffer in bytes
+   * @param buffers    the total number of buffers
+   * @return the settings
+   */
+  public JournalOptions withBuffers(int stripes, int bufferSize, int buffers) {
+    return new JournalOptions(stripes, bufferSize, buffers, fsyncPolicy, flushInterval,
+        backpressure);
+  }
+
+  /**
+   * Returns the settings with another fsync policy.
+   *
+   * @param policy the fsync policy
+   * @return the settings
+   */
+  public JournalOptions withFsyncPolicy(FsyncPolicy policy) {
+    return new JournalOptions(stripes, bufferSize, buffers, policy, flushInterval, backpressure);
+  }
+
+  /**
+   * Returns the settings with another flush interval.
+   *
+   * @param interval the flush interval
+   * @return the settings
+   */
+  public JournalOptions withFlushInterval(Duration interval) {
+    return new JournalOptions(stripes, bufferSize, buffers, fsyncPolicy, interval, backpressure);
+  }
+
+  /**
+   * Returns the settings with another backpressure mode.
+   *
+   * @param mode the backpressure mode
+   * @return the settings
+   */
+  public JournalOptions withBackpressure(Backpressure mode) {
+    return new JournalOptions(stripes, bufferSize, buffers, fsyncPolicy, flushInterval, mode);
+  }
+}
@@ -0,0 +1,138 @@
+package tt.services.impl.journal;
+
+import tt.models.GameContext;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Replays the games of a journal written by {@link GameJournal}, e.g. after a crash. The frames
+ * are read up to the first one that is incomplete or doesn't match its checksum, which is the
+ * batch that was being written when the process stopped. Everything behind it is ignored.
+ */
+public final class JournalReader {
+  private JournalReader() {
+    // no instance
+  }
+
+  /**
+   * Replay the games of the journal. The strengths of the hands are determined again and the
+   * winners are restored.
+   *
+   * @param path     the location of the journal
+   * @param consumer receives every game in the order of the journal, the context is reused
+   * @return the number of games
+   * @throws IllegalArgumentException if the file isn't a journal
+   */
+  public static long replay(Path path, Consumer<GameContext> consumer) {
+    GameContext context = new GameContext(GameContext.MAX_PLAYERS);
+    long[] games = new long[1];
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      scan(channel, payload -> {
+        while (payload.hasRemaining()) {
+          decode(payload, context);
+          consumer.accept(context);
+          games[0]++;
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException("couldn't read the journal " + path, e);
+    }
+    return games[0];
+  }
+
+  /**
+   * Read the frames of the journal up to the first broken one.
+   *
+   * @param channel the channel of the journal
+   * @param frames  receives the payload of every valid frame
+   * @return the length of the valid part of the journal
+   */
+  static long scan(FileChannel channel, Consumer<ByteBuffer> frames) throws IOException {
+    long size = channel.size();
+    ByteBuffer header = ByteBuffer.allocate(JournalLayout.FRAME_HEADER_SIZE)
+        .order(JournalLayout.ORDER);
+    header.limit(JournalLayout.HEADER_SIZE);
+    if (!read(channel, header, 0) || header.getInt(0) != JournalLayout.MAGIC
+        || header.getInt(4) != JournalLayout.VERSION) {
+      throw new IllegalArgumentException("this is not a journal of version "
+          + JournalLayout.VERSION);
+    }
+
+    CRC32C checksum = new CRC32C();
+    ByteBuffer payload = ByteBuffer.allocate(0);
+    long position = JournalLayout.HEADER_SIZE;
+    while (true) {
+      header.clear();
+      if (!read(channel, header, position)) {
+        return position;
+      }
+      int length = header.getInt(0);
+      int games = header.getInt(4);
+      if (length < 0 || games < 0 || length > size - position - JournalLayout.FRAME_HEADER_SIZE) {
+        return position;
+      }
+
+      if (payload.capacity() < length) {
+        payload = ByteBuffer.allocate(length).order(JournalLayout.ORDER);
+      }
+      payload.clear().limit(length);
+      if (!read(channel, payload, position + JournalLayout.FRAME_HEADER_SIZE)) {
+        return position;
+      }
+      checksum.reset();
+      checksum.update(payload.flip());
+      if ((int) checksum.getValue() != header.getInt(8)) {
+        return position;
+      }
+
+      frames.accept(payload.flip());
+      position += JournalLayout.FRAME_HEADER_SIZE + length;
+    }
+  }
+
+  /**
+   * Read until the buffer is full.
+   *
+   * @return false if the channel ended before
+   */
+  private static boolean read(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      int read = channel.read(buffer, position);
+      if (read < 0) {
+        return false;
+      }
+      position += read;
+    }
+    return true;
+  }
+
+  private static void decode(ByteBuffer payload, GameContext context) {
+    int numberOfPlayers = payload.get();
+    int winners = payload.getShort() & 0xFFFF;
+    context.reset(numberOfPlayers);
+    for (int player = 0; player < numberOfPlayers; player++) {
+      int index = (payload.get() & 0xFF) | ((payload.getShort() & 0xFFFF) << 8);
+      int hand = MappedRankTable.handOf(index);
+      context.setHand(player, hand, FiveCardRankTable.strengthOf(FiveCardRankTable.rank(
+          PackedHands.cardAt(hand, 0), PackedHands.cardAt(hand, 1), PackedHands.cardAt(hand, 2),
+          PackedHands.cardAt(hand, 3), PackedHands.cardAt(hand, 4))));
+    }
+    context.clearWinners();
+    for (int player = 0; player < numberOfPlayers; player++) {
+      if ((winners & (1 << player)) != 0) {
+        context.addWinner(player);
+      }
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package tt.services.impl.server;
+
+import tt.services.HandTypeAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Coalesces the hands of concurrent callers into batches for
+ * {@link HandTypeAnalyzer#evaluate(int[], int[], int)}. A single thread takes the first waiting
+ * request and every request that arrived in the meantime, evaluates all their hands at once and
+ * wakes the callers. A lone request is evaluated right away, so the batches only grow when the
+ * requests queue up under load and no latency is added to wait for more of them.
+ */
+public class BatchingEvaluator implements AutoCloseable {
+  private static final Request END = new Request(new int[0], new int[0], 0);
+
+  private final HandTypeAnalyzer analyzer;
+  private final int maxBatchSize;
+  private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+  private final Thread batcher;
+  private volatile long batches;
+  private volatile long hands;
+  private volatile boolean closed;
+
+  /**
+   * Create an evaluator and start its thread.
+   *
+   * @param analyzer     the analyzer that evaluates the batches
+   * @param maxBatchSize the maximum number of hands of a batch, larger requests are evaluated by
+   *                     their caller on their own
+   */
+  public BatchingEvaluator(HandTypeAnalyzer analyzer, int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("A batch must hold at least one hand, not %d!".formatted(
+          maxBatchSize));
+    }
+
+    this.analyzer = analyzer;
+    this.maxBatchSize = maxBatchSize;
+    this.batcher = Thread.ofPlatform().name("hand-batcher").daemon().start(this::evaluateBatches);
+  }
+
+  /**
+   * Determine the strengths of the hands, the caller waits until the batch with its hands is
+   * evaluated.
+   *
+   * @param packedHands   the packed hands as defined by {@link tt.util.PackedHands}
+   * @param strengths     the array that receives the strength of each hand at its position
+   * @param numberOfHands the number of hands to evaluate from the start of the arrays
+   * @throws IllegalArgumentException if any hand isn't valid or the arrays are too short
+   * @throws IllegalStateException    if the evaluator is closed
+   */
+  public void evaluate(int[] packedHands, int[] strengths, int numberOfHands) {
+    if (numberOfHands < 0 || packedHands.length < numberOfHands
+        || strengths.length < numberOfHands) {
+      throw new IllegalArgumentException("the arrays must hold " + numberOfHands + " hands");
+    }
+    if (numberOfHands > maxBatchSize) {
+      analyzer.evaluate(packedHands, strengths, numberOfHands);
+      return;
+    }
+
+    Request request = new Request(packedHands, strengths, numberOfHands);
+    requests.add(request);
+    if (closed && requests.remove(request)) {
+      throw new IllegalStateException("the evaluator is closed");
+    }
+    try {
+      request.done.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while waiting for the batch", e);
+    }
+    if (request.failure != null) {
+      throw request.failure;
+    }
+  }
+
+  /**
+   * Returns the number of evaluated batches.
+   *
+   * @return the number of batches
+   */
+  public long getBatches() {
+    return batches;
+  }
+
+  /**
+   * Returns the number of hands that were evaluated in batches.
+   *
+   * @return the number of hands
+   */
+  public long getHands() {
+    return hands;
+  }
+
+  private void evaluateBatches() {
+    int[] batchHands = new int[maxBatchSize];
+    int[] batchStrengths = new int[maxBatchSize];
+    List<Request> batch = new ArrayList<>();
+    try {
+      while (true) {
+        Request first = requests.take();
+        if (first == END) {
+          break;
+        }
+
+        // only this thread takes requests, so the peeked request is the one that is polled
+        batch.add(first);
+        int size = first.numberOfHands;
+        Request next;
+        while ((next = requests.peek()) != null && next != END
+            && size + next.numberOfHands <= maxBatchSize) {
+          batch.add(requests.poll());
+          size += next.numberOfHands;
+        }
+
+        int position = 0;
+        for (Request request : batch) {
+          System.arraycopy(request.hands, 0, batchHands, position, request.numberOfHands);
+          position += request.numberOfHands;
+        }
+        try {
+          analyzer.evaluate(batchHands, batchStrengths, size);
+          position = 0;
+          for (Request request : batch) {
+            System.arraycopy(batchStrengths, position, request.strengths, 0,
+                request.numberOfHands);
+            position += request.numberOfHands;
+            request.done.countDown();
+          }
+        } catch (RuntimeException e) {
+          // a single invalid hand must not fail the other requests of the batch
+          for (Request request : batch) {
+            evaluateAlone(request);
+          }
+        }
+        batches++;
+        hands += size;
+        batch.clear();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      closed = true;
+      Request request;
+      while ((request = requests.poll()) != null) {
+        request.failure = new IllegalStateException("the evaluator is closed");
+        request.done.countDown();
+      }
+    }
+  }
+
+  private void evaluateAlone(Request request) {
+    try {
+      analyzer.evaluate(request.hands, request.strengths, request.numberOfHands);
+    } catch (RuntimeException e) {
+      request.failure = e;
+    }
+    request.done.countDown();
+  }
+
+  /**
+   * Evaluate the waiting requests and stop the thread.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    requests.add(END);
+    try {
+      batcher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted while closing the evaluator", e);
+    }
+  }
+
+  /**
+   * The hands of a caller, which waits until they are done.
+   */
+  private static final class Request {
+    private final int[] hands;
+    private final int[] strengths;
+    private final int numberOfHands;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private RuntimeException failure;
+
+    private Request(int[] hands, int[] strengths, int numberOfHands) {
+      this.hands = hands;
+      this.strengths = strengths;
+      this.numberOfHands = numberOfHands;
+    }
+  }
+}
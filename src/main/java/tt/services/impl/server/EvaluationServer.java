@@ -0,0 +1,337 @@
+package tt.services.impl.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tt.models.Card;
+import tt.models.Equity;
+import tt.models.EquityResult;
+import tt.models.GameContext;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.decks.SampledPokerDeckCreator;
+import tt.services.impl.equity.MonteCarloEquityCalculator;
+import tt.util.CardUtils;
+import tt.util.HandHistoryParser;
+import tt.util.HandStrengths;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * An HTTP server for the evaluation of hands, based on the server of the JDK. Every request runs
+ * on its own virtual thread and all requests share one analyzer. The hands of concurrent requests
+ * are coalesced into batches by a {@link BatchingEvaluator}. The bodies and responses are plain
+ * text in the format of the command line:
+ * <ul>
+ *   <li>{@code POST /evaluate}: hands separated by whitespace, e.g. {@code AS,KS,QS,JS,TS}, the
+ *   response has a line with the type and the strength of every hand. The hands are independent,
+ *   so they may share cards.</li>
+ *   <li>{@code POST /showdown}: a showdown per line, the response has a line with the seats of the
+ *   winners of every showdown, starting with 1</li>
+ *   <li>{@code GET /equity?hands=AS,AH,AD+KS,KH&opponents=1&trials=100000&dead=2C,3C}: the
+ *   equity of the hands as estimated by a {@link MonteCarloEquityCalculator}</li>
+ *   <li>{@code GET /stats}: the number of requests and the latency percentiles of every endpoint
+ *   and the sizes of the batches</li>
+ * </ul>
+ * Invalid requests are answered with the status 400 and the reason.
+ * <p>
+ * The server doesn't change any system property. Small responses are delayed by Nagle's
+ * algorithm unless {@code sun.net.httpserver.nodelay} is set to {@code true} before the first
+ * server of the process is created, as {@code --serve} of {@link tt.Main} does.
+ */
+public class EvaluationServer implements AutoCloseable {
+  /**
+   * The maximum size of a request body in bytes.
+   */
+  public static final int MAX_BODY_SIZE = 1 << 20;
+
+  /**
+   * The maximum number of trials of an equity request.
+   */
+  public static final long MAX_TRIALS = 10_000_000;
+
+  private static final int MAX_BATCH_SIZE = 1 << 12;
+  private static final int MAX_HANDS = 1 << 16;
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final BatchingEvaluator evaluator;
+  private final ForkJoinPool equityPool = new ForkJoinPool();
+  private final MonteCarloEquityCalculator equityCalculator;
+  private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+
+  /**
+   * Create a server and start it.
+   *
+   * @param analyzer the analyzer of all requests, which must be safe to use from several threads
+   * @param port     the port of the server or 0 for any free port
+   */
+  public EvaluationServer(HandTypeAnalyzer analyzer, int port) {
+    // the tables of the analyzer are loaded before the first request arrives
+    analyzer.evaluate(PackedHands.pack(0, 1, 2, 3, 5));
+    this.evaluator = new BatchingEvaluator(analyzer, MAX_BATCH_SIZE);
+    this.equityCalculator = new MonteCarloEquityCalculator(new SampledPokerDeckCreator(),
+        analyzer, equityPool);
+    try {
+      this.server = HttpServer.create(new InetSocketAddress(port), 0);
+    } catch (IOException e) {
+      evaluator.close();
+      equityPool.close();
+      throw new UncheckedIOException("couldn't listen on port " + port, e);
+    }
+
+    addEndpoint("/evaluate", "POST", this::evaluate);
+    addEndpoint("/showdown", "POST", this::showdown);
+    addEndpoint("/equity", "GET", this::equity);
+    addEndpoint("/stats", "GET", exchange -> stats());
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  private void addEndpoint(String path, String method, Endpoint endpoint) {
+    LatencyHistogram latency = new LatencyHistogram();
+    latencies.put(path, latency);
+    server.createContext(path, exchange -> handle(exchange, method, endpoint, latency));
+  }
+
+  private static void handle(HttpExchange exchange, String method, Endpoint endpoint,
+                             LatencyHistogram latency) {
+    long start = System.nanoTime();
+    try (exchange) {
+      int status = 200;
+      String response;
+      if (!exchange.getRequestMethod().equals(method)) {
+        status = 405;
+        response = "only " + method + " is supported\n";
+      } else {
+        try {
+          response = endpoint.respond(exchange);
+        } catch (IllegalArgumentException e) {
+          status = 400;
+          response = e.getMessage() + "\n";
+        } catch (RuntimeException e) {
+          status = 500;
+          response = "the request failed\n";
+        }
+      }
+
+      byte[] body = response.getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+      exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+      if (body.length > 0) {
+        exchange.getResponseBody().write(body);
+      }
+    } catch (IOException e) {
+      // the client is gone, there is nobody to tell
+    } finally {
+      latency.record(System.nanoTime() - start);
+    }
+  }
+
+  private String evaluate(HttpExchange exchange) throws IOException {
+    Hands hands = parseBody(exchange, false);
+    int[] strengths = new int[hands.numberOfHands];
+    evaluator.evaluate(hands.hands, strengths, hands.numberOfHands);
+
+    StringBuilder response = new StringBuilder(hands.numberOfHands * 24);
+    for (int i = 0; i < hands.numberOfHands; i++) {
+      response.append(HandStrengths.typeOf(strengths[i])).append(' ').append(strengths[i])
+          .append('\n');
+    }
+    return response.toString();
+  }
+
+  private String showdown(HttpExchange exchange) throws IOException {
+    Hands hands = parseBody(exchange, true);
+    int[] strengths = new int[hands.numberOfHands];
+    evaluator.evaluate(hands.hands, strengths, hands.numberOfHands);
+
+    StringBuilder response = new StringBuilder(hands.lineEnds.length * 4);
+    int start = 0;
+    for (int end : hands.lineEnds) {
+      int winningStrength = Integer.MIN_VALUE;
+      for (int i = start; i < end; i++) {
+        winningStrength = Math.max(winningStrength, strengths[i]);
+      }
+      boolean first = true;
+      for (int i = start; i < end; i++) {
+        if (strengths[i] == winningStrength) {
+          response.append(first ? "" : " ").append(i - start + 1);
+          first = false;
+        }
+      }
+      response.append('\n');
+      start = end;
+    }
+    return response.toString();
+  }
+
+  private String equity(HttpExchange exchange) {
+    Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+    List<List<Card>> hands = new ArrayList<>();
+    for (String hand : parameters.getOrDefault("hands", "").trim().split("\\s+")) {
+      if (!hand.isEmpty()) {
+        hands.add(CardUtils.parseCardFromString(hand));
+      }
+    }
+    List<Card> deadCards = CardUtils.parseCardFromString(parameters.getOrDefault("dead", ""));
+    int opponents = Integer.parseInt(parameters.getOrDefault("opponents", "0"));
+    long trials = Long.parseLong(parameters.getOrDefault("trials", "100000"));
+    if (trials > MAX_TRIALS) {
+      throw new IllegalArgumentException("at most %d trials are allowed, not %d".formatted(
+          MAX_TRIALS, trials));
+    }
+
+    EquityResult result = equityCalculator.calculate(hands, deadCards, opponents, trials);
+    StringBuilder response = new StringBuilder();
+    for (Equity equity : result.equities()) {
+      response.append("%s win %.6f tie %.6f loss %.6f equity %.6f\n".formatted(
+          equity.cards().stream().map(Card::toSymbolString).collect(Collectors.joining(",")),
+          equity.winProbability(), equity.tieProbability(), equity.lossProbability(),
+          equity.equity()));
+    }
+    return response.toString();
+  }
+
+  private String stats() {
+    StringBuilder response = new StringBuilder("endpoint      requests   p50 us   p90 us   p99 us"
+        + " p99.9 us   max us\n");
+    latencies.forEach((path, latency) -> {
+      response.append("%-10s %11d".formatted(path, latency.count()));
+      for (double percentile : PERCENTILES) {
+        response.append(" %8.1f".formatted(latency.percentile(percentile) / 1e3));
+      }
+      response.append(" %8.1f\n".formatted(latency.max() / 1e3));
+    });
+    long batches = evaluator.getBatches();
+    response.append("batches: %d, hands: %d, hands per batch: %.2f\n".formatted(batches,
+        evaluator.getHands(), batches == 0 ? 0.0 : (double) evaluator.getHands() / batches));
+    return response.toString();
+  }
+
+  /**
+   * Returns the latencies of an endpoint, e.g. {@code /showdown}.
+   *
+   * @param path the path of the endpoint
+   * @return the latencies
+   */
+  public LatencyHistogram latencyOf(String path) {
+    LatencyHistogram latency = latencies.get(path);
+    if (latency == null) {
+      throw new IllegalArgumentException("there is no endpoint " + path);
+    }
+    return latency;
+  }
+
+  /**
+   * Parse the hands of a request body.
+   *
+   * @param exchange  the request
+   * @param showdowns whether the hands of a line are dealt from one deck and must not share any
+   *                  card, otherwise every hand is parsed on its own
+   * @return the hands and the end of the hands of every line
+   */
+  private static Hands parseBody(HttpExchange exchange, boolean showdowns) throws IOException {
+    byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+    if (body.length > MAX_BODY_SIZE) {
+      throw new IllegalArgumentException("the body must not exceed %d bytes".formatted(
+          MAX_BODY_SIZE));
+    }
+
+    ByteBuffer bytes = ByteBuffer.wrap(body);
+    int[] hands = new int[64];
+    int[] line = new int[GameContext.MAX_PLAYERS];
+    List<Integer> lineEnds = new ArrayList<>();
+    int numberOfHands = 0;
+    int lineStart = 0;
+    while (lineStart < body.length) {
+      int lineEnd = lineStart;
+      while (lineEnd < body.length && body[lineEnd] != '\n') {
+        lineEnd++;
+      }
+      int handStart = lineStart;
+      while (handStart < lineEnd) {
+        int handEnd = lineEnd;
+        if (!showdowns) {
+          handEnd = handStart;
+          while (handEnd < lineEnd && body[handEnd] != ' ' && body[handEnd] != '\t') {
+            handEnd++;
+          }
+        }
+        int parsedHands = HandHistoryParser.parseLine(bytes, handStart, handEnd, line);
+        if (numberOfHands + parsedHands > MAX_HANDS) {
+          throw new IllegalArgumentException("at most %d hands are allowed".formatted(MAX_HANDS));
+        }
+        if (numberOfHands + parsedHands > hands.length) {
+          hands = Arrays.copyOf(hands, Math.max(2 * hands.length, numberOfHands + parsedHands));
+        }
+        System.arraycopy(line, 0, hands, numberOfHands, parsedHands);
+        numberOfHands += parsedHands;
+        handStart = handEnd + 1;
+      }
+      lineEnds.add(numberOfHands);
+      lineStart = lineEnd + 1;
+    }
+    return new Hands(hands, numberOfHands,
+        lineEnds.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+  private static Map<String, String> parseQuery(String query) {
+    Map<String, String> parameters = new LinkedHashMap<>();
+    if (query == null) {
+      return parameters;
+    }
+    for (String parameter : query.split("&")) {
+      int separator = parameter.indexOf('=');
+      if (separator < 0) {
+        throw new IllegalArgumentException("invalid parameter " + parameter);
+      }
+      parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+          URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+    }
+    return parameters;
+  }
+
+  /**
+   * Stop accepting requests, finish the running ones and release the threads.
+   */
+  @Override
+  public void close() {
+    server.stop(1);
+    executor.close();
+    evaluator.close();
+    equityPool.close();
+  }
+
+  /**
+   * Answers a request with a plain text response.
+   */
+  @FunctionalInterface
+  private interface Endpoint {
+    String respond(HttpExchange exchange) throws IOException;
+  }
+
+  /**
+   * The parsed hands of a request body and the end of the hands of every line.
+   */
+  private record Hands(int[] hands, int numberOfHands, int[] lineEnds) {
+  }
+}
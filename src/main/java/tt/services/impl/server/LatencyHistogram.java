@@ -0,0 +1,102 @@
+package tt.services.impl.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets that grow with the latency, so the percentiles can be read at any
+ * time without keeping the samples. Every power of two is split into {@value #SUB_BUCKETS}
+ * buckets, so a percentile is at most about 6 % above the real value. Recording is lock-free and
+ * doesn't create any objects.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int NUMBER_OF_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(NUMBER_OF_BUCKETS);
+  private final AtomicLong maximum = new AtomicLong();
+
+  /**
+   * Count a latency.
+   *
+   * @param nanos the latency in nanoseconds
+   */
+  public void record(long nanos) {
+    long latency = Math.max(0, nanos);
+    counts.incrementAndGet(bucketOf(latency));
+    maximum.accumulateAndGet(latency, Math::max);
+  }
+
+  /**
+   * Returns the number of recorded latencies.
+   *
+   * @return the number of latencies
+   */
+  public long count() {
+    long count = 0;
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      count += counts.get(bucket);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the highest recorded latency.
+   *
+   * @return the latency in nanoseconds
+   */
+  public long max() {
+    return maximum.get();
+  }
+
+  /**
+   * Returns the latency that the given share of the recorded latencies doesn't exceed.
+   *
+   * @param percentile the percentile between 0 and 100 (incl.), e.g. 99.9
+   * @return the upper bound of the bucket of the percentile in nanoseconds or 0 without latencies
+   */
+  public long percentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("invalid percentile " + percentile);
+    }
+
+    long[] snapshot = new long[NUMBER_OF_BUCKETS];
+    long count = 0;
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      snapshot[bucket] = counts.get(bucket);
+      count += snapshot[bucket];
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int bucket = 0; bucket < NUMBER_OF_BUCKETS; bucket++) {
+      seen += snapshot[bucket];
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), max());
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * The latencies below {@value #SUB_BUCKETS} have a bucket each, the others are bucketed by their
+   * highest bit and the {@value #SUB_BUCKET_BITS} bits below it.
+   */
+  private static int bucketOf(long latency) {
+    if (latency < SUB_BUCKETS) {
+      return (int) latency;
+    }
+    int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(latency);
+    int subBucket = (int) (latency >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int highestBit = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    return ((SUB_BUCKETS + subBucket + 1) << (highestBit - SUB_BUCKET_BITS)) - 1;
+  }
+}
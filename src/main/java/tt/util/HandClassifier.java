@@ -0,0 +1,96 @@
+package tt.util;
+
+import tt.models.Card;
+import tt.models.HandType;
+
+import java.util.Collection;
+
+/**
+ * Classifies a hand of 5 cards in a single pass over the cards. The pass builds a histogram of
+ * the values as bit masks (the values seen at least once, twice, three and four times) and a mask
+ * of the suits, and every {@link HandType} is derived from these masks without any allocation.
+ */
+public class HandClassifier {
+  private HandClassifier() {
+    // no instance
+  }
+
+  /**
+   * Determine the strength of the 5 distinct cards as defined by {@link HandStrengths}, which
+   * includes the type of the hand.
+   *
+   * @param cards the 5 distinct cards of the hand
+   * @return the strength of the hand
+   * @throws IllegalArgumentException if any card is null
+   */
+  public static int strengthOf(Collection<Card> cards) {
+    int once = 0;
+    int twice = 0;
+    int threeTimes = 0;
+    int fourTimes = 0;
+    int suits = 0;
+    for (Card card : cards) {
+      if (card == null) {
+        throw new IllegalArgumentException("all cards must not be null");
+      }
+
+      // every value moves up one level of the histogram when it is seen again
+      int bit = 1 << card.value().ordinal();
+      fourTimes |= threeTimes & bit;
+      threeTimes |= twice & bit;
+      twice |= once & bit;
+      once |= bit;
+      suits |= 1 << card.suit().ordinal();
+    }
+
+    int singles = once & ~twice;
+    int pairs = twice & ~threeTimes;
+    int triples = threeTimes & ~fourTimes;
+    boolean flush = Integer.bitCount(suits) == 1;
+    boolean straight = isStraight(singles);
+
+    HandType type;
+    if (flush && straight) {
+      type = HandType.STRAIGHT_FLUSH;
+    } else if (fourTimes != 0) {
+      type = HandType.FOUR_OF_A_KIND;
+    } else if (triples != 0 && pairs != 0) {
+      type = HandType.FULL_HOUSE;
+    } else if (flush) {
+      type = HandType.FLUSH;
+    } else if (straight) {
+      type = HandType.STRAIGHT;
+    } else if (triples != 0) {
+      type = HandType.THREE_OF_A_KIND;
+    } else if (Integer.bitCount(pairs) == 2) {
+      type = HandType.TWO_PAIRS;
+    } else if (pairs != 0) {
+      type = HandType.PAIR;
+    } else {
+      type = HandType.HIGH_CARD;
+    }
+    return HandStrengths.of(type, singles, pairs, triples, fourTimes);
+  }
+
+  /**
+   * Determine the type of the 5 distinct cards.
+   *
+   * @param cards the 5 distinct cards of the hand
+   * @return the type of the hand
+   * @throws IllegalArgumentException if any card is null
+   */
+  public static HandType classify(Collection<Card> cards) {
+    return HandStrengths.typeOf(strengthOf(cards));
+  }
+
+  /**
+   * Determine if the values form a straight. The values must be 5 consecutive bits, the ace is
+   * only counted as the highest card.
+   *
+   * @param values the mask of the values, the bit of a value is given by its ordinal
+   * @return true if the values are a straight
+   */
+  public static boolean isStraight(int values) {
+    return Integer.bitCount(values) == 5 && values / Integer.lowestOneBit(values) == 0x1F;
+  }
+}
@@ -0,0 +1,126 @@
+package tt.util;
+
+import tt.models.CardSuit;
+import tt.models.CardValue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parses the lines of a hand history directly from bytes. A line holds the hands of a showdown in
+ * the format of the command line, e.g. {@code AS,AH,3D,2S,5D AD,4D,TH,TS,TC}: the hands are
+ * separated by whitespace and the 5 cards of a hand by a comma or a semicolon. Quotation marks are
+ * ignored like whitespace and a trailing carriage return is allowed.
+ * <p>
+ * The cards are looked up in tables by their two bytes, so no strings are created for valid lines.
+ */
+public class HandHistoryParser {
+  private static final int NUMBER_OF_VALUES = CardValue.values().length;
+  private static final int[] VALUE_ORDINALS = new int[128];
+  private static final int[] SUIT_ORDINALS = new int[128];
+
+  static {
+    Arrays.fill(VALUE_ORDINALS, -1);
+    Arrays.fill(SUIT_ORDINALS, -1);
+    for (char c = 0; c < 128; c++) {
+      final char name = c;
+      CardValue.of(name).ifPresent(value -> VALUE_ORDINALS[name] = value.ordinal());
+      CardSuit.of(name).ifPresent(suit -> SUIT_ORDINALS[name] = suit.ordinal());
+    }
+  }
+
+  private HandHistoryParser() {
+    // no instance
+  }
+
+  /**
+   * Parse the hands of the line between the two positions of the buffer. The position and the
+   * limit of the buffer are not changed.
+   *
+   * @param bytes the buffer with the line
+   * @param from  the position of the first byte of the line (incl.)
+   * @param to    the position after the last byte of the line (excl.), without the line feed
+   * @param hands the array that receives the hands as defined by {@link PackedHands}
+   * @return the number of hands, which is 0 for a blank line
+   * @throws IllegalArgumentException if the line isn't valid, has more hands than the array can
+   *                                  hold or contains duplicate cards
+   */
+  public static int parseLine(ByteBuffer bytes, int from, int to, int[] hands) {
+    int numberOfHands = 0;
+    long cards = 0;
+    int position = skipWhitespace(bytes, from, to);
+    while (position < to) {
+      if (numberOfHands == hands.length) {
+        throw invalidLine(bytes, from, to, "more than " + hands.length + " hands");
+      }
+
+      int hand = 0;
+      for (int i = 0; i < 5; i++) {
+        if (i > 0) {
+          if (position >= to || (bytes.get(position) != ',' && bytes.get(position) != ';')) {
+            throw invalidLine(bytes, from, to, "a hand must have 5 cards");
+          }
+          position++;
+        }
+        int card = position + 1 < to ? cardOf(bytes.get(position), bytes.get(position + 1)) : -1;
+        if (card < 0) {
+          throw invalidLine(bytes, from, to, "invalid card at " + (position - from));
+        }
+        if ((cards & (1L << card)) != 0) {
+          throw invalidLine(bytes, from, to, "duplicate card");
+        }
+        cards |= 1L << card;
+        hand |= card << (PackedHands.CARD_BITS * i);
+        position += 2;
+      }
+
+      int next = skipWhitespace(bytes, position, to);
+      if (next == position && position < to) {
+        throw invalidLine(bytes, from, to, "a hand must have 5 cards");
+      }
+      hands[numberOfHands++] = hand;
+      position = next;
+    }
+    return numberOfHands;
+  }
+
+  /**
+   * Returns the index of the card with the given value and suit as defined by
+   * {@link tt.models.Card#ordinalIndex}.
+   *
+   * @param value the name of the value, e.g. {@code A}
+   * @param suit  the short name of the suit, e.g. {@code S}
+   * @return the index of the card or -1 if the bytes aren't a card
+   */
+  public static int cardOf(byte value, byte suit) {
+    if (value < 0 || suit < 0) {
+      return -1;
+    }
+    int valueOrdinal = VALUE_ORDINALS[value];
+    int suitOrdinal = SUIT_ORDINALS[suit];
+    if (valueOrdinal < 0 || suitOrdinal < 0) {
+      return -1;
+    }
+    return suitOrdinal * NUMBER_OF_VALUES + valueOrdinal;
+  }
+
+  private static int skipWhitespace(ByteBuffer bytes, int position, int to) {
+    while (position < to) {
+      byte b = bytes.get(position);
+      if (b != ' ' && b != '\t' && b != '"' && b != '\r') {
+        break;
+      }
+      position++;
+    }
+    return position;
+  }
+
+  private static IllegalArgumentException invalidLine(ByteBuffer bytes, int from, int to,
+                                                      String reason) {
+    byte[] line = new byte[to - from];
+    bytes.get(from, line);
+    return new IllegalArgumentException("invalid hand history line (%s): %s".formatted(reason,
+        new String(line, StandardCharsets.UTF_8)));
+  }
+}
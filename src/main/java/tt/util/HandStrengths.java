@@ -0,0 +1,138 @@
+package tt.util;
+
+import tt.models.Card;
+import tt.models.CardValue;
+import tt.models.HandType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Contains helper methods to pack the strength of a hand into a single int value. The type of the
+ * hand is stored in the high bits and the 5 card values are packed below as one nibble each,
+ * ordered by the size of their group first and by their value second. Two hands can therefore be
+ * compared by comparing their strength values, e.g. a pair of kings with the extra cards 8, 5, 3
+ * is stored as {@code PAIR | K K 8 5 3}.
+ */
+public class HandStrengths {
+  private static final int VALUE_BITS = 4;
+  private static final int TYPE_SHIFT = 5 * VALUE_BITS;
+  private static final int NUMBER_OF_VALUES = CardValue.values().length;
+  private static final HandType[] TYPES = HandType.values();
+
+  private HandStrengths() {
+    // no instance
+  }
+
+  /**
+   * Determine the strength of the cards of the given type.
+   *
+   * @param type  the type of the hand
+   * @param cards the 5 distinct cards of the hand
+   * @return the strength of the hand
+   */
+  public static int of(HandType type, Collection<Card> cards) {
+    // count the cards per value, one nibble per value
+    long counts = 0;
+    for (Card card : cards) {
+      counts += 1L << (VALUE_BITS * card.value().ordinal());
+    }
+
+    int singles = 0;
+    int pairs = 0;
+    int triples = 0;
+    int fours = 0;
+    for (int value = 0; value < NUMBER_OF_VALUES; value++) {
+      switch ((int) (counts >>> (VALUE_BITS * value)) & 0xF) {
+        case 1 -> singles |= 1 << value;
+        case 2 -> pairs |= 1 << value;
+        case 3 -> triples |= 1 << value;
+        case 4 -> fours |= 1 << value;
+        default -> {
+          // value is not present
+        }
+      }
+    }
+    return of(type, singles, pairs, triples, fours);
+  }
+
+  /**
+   * Determine the strength of a hand from the masks of the values grouped by their number of
+   * cards. The bit of a value is given by the ordinal of the {@link CardValue}.
+   *
+   * @param type    the type of the hand
+   * @param singles the mask of the values with a single card
+   * @param pairs   the mask of the values with two cards
+   * @param triples the mask of the values with three cards
+   * @param fours   the mask of the values with four cards
+   * @return the strength of the hand
+   */
+  public static int of(HandType type, int singles, int pairs, int triples, int fours) {
+    int strength = type.ordinal();
+    strength = appendValues(strength, fours, 4);
+    strength = appendValues(strength, triples, 3);
+    strength = appendValues(strength, pairs, 2);
+    return appendValues(strength, singles, 1);
+  }
+
+  /**
+   * Find the items with the highest strength in a single pass. The winners keep their original
+   * order and items of equal strength split the pot.
+   *
+   * @param items    the items, e.g. hands or players
+   * @param strength the function that returns the strength of an item
+   * @param <T>      the type of the items
+   * @return the items with the highest strength in their original order
+   */
+  public static <T> List<T> strongest(Collection<T> items, ToIntFunction<T> strength) {
+    List<T> winners = new ArrayList<>();
+    int winningStrength = Integer.MIN_VALUE;
+    for (T item : items) {
+      int itemStrength = strength.applyAsInt(item);
+      if (itemStrength > winningStrength) {
+        winners.clear();
+        winningStrength = itemStrength;
+      }
+      if (itemStrength == winningStrength) {
+        winners.add(item);
+      }
+    }
+    return winners;
+  }
+
+  /**
+   * Returns the type of the hand that is stored in the strength.
+   *
+   * @param strength the strength of a hand
+   * @return the type of the hand
+   */
+  public static HandType typeOf(int strength) {
+    return TYPES[strength >>> TYPE_SHIFT];
+  }
+
+  /**
+   * Returns the value of the card at the given position of the strength. The positions follow
+   * the order of the packed values, e.g. the kings are at the positions 0 and 1 for a pair of
+   * kings with the extra cards 8, 5, 3.
+   *
+   * @param strength the strength of a hand
+   * @param position the position between 0 and 4 (incl.)
+   * @return the ordinal of the {@link CardValue} at this position
+   */
+  public static int valueAt(int strength, int position) {
+    return (strength >>> (VALUE_BITS * (4 - position))) & 0xF;
+  }
+
+  private static int appendValues(int strength, int mask, int times) {
+    for (int value = NUMBER_OF_VALUES - 1; value >= 0; value--) {
+      if ((mask & (1 << value)) != 0) {
+        for (int i = 0; i < times; i++) {
+          strength = (strength << VALUE_BITS) | value;
+        }
+      }
+    }
+    return strength;
+  }
+}
@@ -0,0 +1,128 @@
+package tt.util;
+
+import tt.models.Card;
+import tt.models.CardSet;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Contains helper methods to pack a hand of 5 cards into a single int value. Every card is stored
+ * with its {@link Card#ordinalIndex() index} in 6 bits, the first card in the lowest bits, so
+ * many hands can be passed around in a plain int array.
+ */
+public class PackedHands {
+  /**
+   * The number of bits of a card in a packed hand.
+   */
+  public static final int CARD_BITS = 6;
+
+  /**
+   * The mask of a single card in a packed hand.
+   */
+  public static final int CARD_MASK = (1 << CARD_BITS) - 1;
+
+  private PackedHands() {
+    // no instance
+  }
+
+  /**
+   * Pack the 5 cards given by their index into a single value.
+   *
+   * @param c0 the index of the first card
+   * @param c1 the index of the second card
+   * @param c2 the index of the third card
+   * @param c3 the index of the fourth card
+   * @param c4 the index of the fifth card
+   * @return the packed hand
+   */
+  public static int pack(int c0, int c1, int c2, int c3, int c4) {
+    return c0 | (c1 << CARD_BITS) | (c2 << 2 * CARD_BITS) | (c3 << 3 * CARD_BITS)
+        | (c4 << 4 * CARD_BITS);
+  }
+
+  /**
+   * Pack the 5 cards into a single value.
+   *
+   * @param cards the 5 cards of the hand
+   * @return the packed hand
+   * @throws IllegalArgumentException if there are not exactly 5 cards or any card is null
+   */
+  public static int pack(Collection<Card> cards) {
+    if (cards == null || cards.size() != 5) {
+      throw new IllegalArgumentException("must provide exactly 5 cards");
+    }
+
+    int hand = 0;
+    int shift = 0;
+    for (Card card : cards) {
+      if (card == null) {
+        throw new IllegalArgumentException("all cards must not be null");
+      }
+      hand |= card.ordinalIndex() << shift;
+      shift += CARD_BITS;
+    }
+    return hand;
+  }
+
+  /**
+   * Returns the index of the card at the given position of the packed hand.
+   *
+   * @param hand     the packed hand
+   * @param position the position between 0 and 4 (incl.)
+   * @return the index of the card
+   */
+  public static int cardAt(int hand, int position) {
+    return (hand >>> (CARD_BITS * position)) & CARD_MASK;
+  }
+
+  /**
+   * Replace the card at the given position of the packed hand.
+   *
+   * @param hand     the packed hand
+   * @param position the position between 0 and 4 (incl.)
+   * @param card     the index of the new card
+   * @return the packed hand with the new card
+   */
+  public static int withCardAt(int hand, int position, int card) {
+    int shift = CARD_BITS * position;
+    return (hand & ~(CARD_MASK << shift)) | (card << shift);
+  }
+
+  /**
+   * Returns the set of the cards of the packed hand.
+   *
+   * @param hand the packed hand
+   * @return the bits of the cards as defined by {@link CardSet}, which contain bits beyond the
+   * 52 cards for invalid indices
+   */
+  public static long cardBitsOf(int hand) {
+    return (1L << cardAt(hand, 0)) | (1L << cardAt(hand, 1)) | (1L << cardAt(hand, 2))
+        | (1L << cardAt(hand, 3)) | (1L << cardAt(hand, 4));
+  }
+
+  /**
+   * Determine if the packed hand consists of 5 distinct and valid cards.
+   *
+   * @param hand the packed hand
+   * @return true if the hand is valid
+   */
+  public static boolean isValid(int hand) {
+    long bits = cardBitsOf(hand);
+    return hand >>> (5 * CARD_BITS) == 0 && (bits & ~CardSet.ALL_CARDS) == 0
+        && Long.bitCount(bits) == 5;
+  }
+
+  /**
+   * Returns the cards of the packed hand.
+   *
+   * @param hand the packed hand
+   * @return the 5 cards in the order of their position
+   * @throws IndexOutOfBoundsException if any index isn't a valid card
+   */
+  public static List<Card> toCards(int hand) {
+    return List.of(Card.fromIndex(cardAt(hand, 0)), Card.fromIndex(cardAt(hand, 1)),
+        Card.fromIndex(cardAt(hand, 2)), Card.fromIndex(cardAt(hand, 3)),
+        Card.fromIndex(cardAt(hand, 4)));
+  }
+}
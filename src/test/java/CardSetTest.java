@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+import tt.models.*;
+import tt.services.impl.decks.UnshuffledPokerDeckCreator;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.util.CardUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardSetTest {
+  @Test
+  public void testSetOperations() {
+    CardSet aces = CardSet.of(CardUtils.parseCardFromString("AS AH AD AC"));
+    CardSet spades = CardSet.of(CardUtils.parseCardFromString("AS KS QS"));
+
+    assertEquals(4, aces.size(), "4 aces in the set");
+    assertTrue(aces.contains(new Card(CardValue.ACE, CardSuit.HEARTS)), "ace of hearts is present");
+    assertFalse(aces.contains(new Card(CardValue.KING, CardSuit.HEARTS)),
+        "king of hearts is not present");
+
+    assertEquals(CardSet.of(CardUtils.parseCardFromString("AS AH AD AC KS QS")),
+        aces.union(spades), "union contains the cards of both sets");
+    assertEquals(CardSet.of(CardUtils.parseCardFromString("AS")), aces.intersection(spades),
+        "only the ace of spades is in both sets");
+    assertEquals(CardSet.of(CardUtils.parseCardFromString("AH AD AC")), aces.without(spades),
+        "the ace of spades is removed");
+    assertEquals(48, aces.complement().size(), "all other cards of the deck");
+    assertTrue(aces.intersects(spades), "both sets contain the ace of spades");
+    assertFalse(aces.containsAll(spades), "the spades aren't all aces");
+    assertTrue(CardSet.FULL_DECK.containsAll(aces), "the deck contains all aces");
+    assertTrue(CardSet.EMPTY.isEmpty(), "the empty set doesn't contain any card");
+
+    assertEquals(CardSet.of(CardUtils.parseCardFromString("AS AS")), CardSet.of(
+        CardUtils.parseCardFromString("AS")), "duplicates are ignored");
+    assertThrows(IllegalArgumentException.class, () -> CardSet.of(Arrays.asList(
+        new Card(CardValue.ACE, CardSuit.SPADES), null)), "null is not a valid card");
+    assertThrows(IllegalArgumentException.class, () -> new CardSet(1L << 52),
+        "there are only 52 cards");
+  }
+
+  @Test
+  public void testIndicesFollowTheUnshuffledDeck() {
+    PokerDeck deck = new UnshuffledPokerDeckCreator().create();
+    IntStream.range(0, 52).forEach(index -> {
+      assertEquals(index, deck.drawCard(index).ordinalIndex(), "index matches the deck order");
+      assertSame(deck.drawCard(index), Card.fromIndex(index), "deck uses the canonical card");
+    });
+
+    List<Card> cards = new ArrayList<>();
+    deck.forEach(cards::add);
+    assertEquals(cards, CardSet.FULL_DECK.toList(), "iterating the set follows the index order");
+    assertEquals(CardSet.of(cards.subList(5, 10)), deck.getCardSet(5, 10),
+        "the cards of the deck in the range");
+  }
+
+  @Test
+  public void testHandsAndDecksAreValidatedWithTheSet() {
+    DefaultHandTypeAnalyzer analyzer = new DefaultHandTypeAnalyzer();
+    Hand hand = analyzer.createHand(CardUtils.parseCardFromString("2S 2H 3S 4S 5S"));
+    assertEquals(CardSet.of(hand.getCards()), hand.getCardSet(), "hand exposes its cards");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> Hand.of(HandType.HIGH_CARD, Arrays.asList(null, null, null, null, null)),
+        "null cards are not valid");
+
+    List<Card> cards = new ArrayList<>(CardSet.FULL_DECK.toList());
+    cards.set(51, cards.getFirst());
+    assertThrows(IllegalArgumentException.class, () -> new PokerDeck(cards),
+        "duplicate cards are not allowed in a deck");
+    cards.set(51, null);
+    assertThrows(IllegalArgumentException.class, () -> new PokerDeck(cards),
+        "null is not a valid card in a deck");
+
+    int[] permutation = new int[Card.NUMBER_OF_CARDS];
+    Arrays.setAll(permutation, index -> Card.NUMBER_OF_CARDS - 1 - index);
+    assertEquals(Card.fromIndex(51), PokerDeck.fromPermutation(permutation).drawCard(0),
+        "the deck follows the permutation");
+    permutation[51] = permutation[0];
+    assertThrows(IllegalArgumentException.class, () -> PokerDeck.fromPermutation(permutation),
+        "duplicate cards are not allowed in a permutation");
+    permutation[51] = 52;
+    assertThrows(IllegalArgumentException.class, () -> PokerDeck.fromPermutation(permutation),
+        "there is no card with the index 52");
+    assertThrows(IllegalArgumentException.class,
+        () -> PokerDeck.fromPermutation(Arrays.copyOf(permutation, 51)),
+        "a permutation must have 52 cards");
+  }
+}
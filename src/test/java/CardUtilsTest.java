@@ -76,6 +76,30 @@ public class CardUtilsTest {
         "doesn't matter where the invalid value is");
   }
 
+  @Test
+  public void testParsedCardsAreTheCanonicalInstances() {
+    List<Card> cards = CardUtils.parseCardFromString("as Kd 7h TC");
+    Assertions.assertSame(Card.of(CardValue.ACE, CardSuit.SPADES), cards.get(0),
+        "lower case text returns the same instance");
+    Assertions.assertSame(Card.fromIndex(CardSuit.DIAMONDS.ordinal() * 13 + 11), cards.get(1),
+        "the index addresses the same instance");
+    assertEquals(List.of(51, 24, 31, 8), cards.stream().map(Card::ordinalIndex).toList(),
+        "the index is suit * 13 + value");
+    Assertions.assertNotSame(new Card(CardValue.TEN, CardSuit.CLUBS), cards.get(3),
+        "a new card is a different instance");
+    assertEquals(new Card(CardValue.TEN, CardSuit.CLUBS), cards.get(3),
+        "but still equal to the canonical card");
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> Card.fromIndex(52),
+        "there are only 52 cards");
+
+    assertEquals(CardSuit.HEARTS, CardSuit.of("hearts").orElseThrow(), "full names match");
+    assertEquals(CardSuit.SPADES, CardSuit.of("♠️").orElseThrow(), "symbols match");
+    assertEquals(CardSuit.CLUBS, CardSuit.of('c').orElseThrow(), "short names match");
+    assertEquals(CardValue.QUEEN, CardValue.of('q').orElseThrow(), "value names match");
+    Assertions.assertTrue(CardValue.of('€').isEmpty(), "other characters don't match");
+    Assertions.assertTrue(CardSuit.of("X").isEmpty(), "other names don't match");
+  }
+
   @Test
   public void testGroupingOfCardsByValueShouldReturnAMapOfAllCardValuesFromTheHand() {
     assertEquals(Map.of(
@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+import tt.models.HandType;
+import tt.models.SimulationResult;
+import tt.services.impl.dealer.DealerSimulation;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DealerSimulationTest {
+  @Test
+  public void testSeededSimulationsDontDependOnTheThreads() {
+    SimulationResult result = simulate(1, 100_000);
+    SimulationResult other = simulate(3, 100_000);
+
+    assertEquals(100_000, result.games(), "all games were played");
+    assertEquals(result.winsByType(), other.winsByType(), "the same games were won");
+    assertEquals(result.splitPots(), other.splitPots(), "the same pots were split");
+    assertEquals(result.games(),
+        result.winsByType().values().stream().mapToLong(Long::longValue).sum(),
+        "every game has a winning hand");
+    assertTrue(result.winFrequencyOf(HandType.PAIR) > result.winFrequencyOf(HandType.FLUSH),
+        "pairs win more often than flushes");
+    assertTrue(result.splitPotRate() > 0 && result.splitPotRate() < 0.05,
+        "split pots are rare: " + result.splitPotRate());
+    assertTrue(result.gamesPerSecond() > 0, "the throughput is measured");
+  }
+
+  @Test
+  public void testInvalidSimulationsAreRejected() {
+    assertThrows(IllegalArgumentException.class, () -> simulate(1, 0), "at least one game");
+  }
+
+  private static SimulationResult simulate(int threads, long games) {
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(42),
+        new PerfectHashHandTypeAnalyzer());
+    try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+      return new DealerSimulation(dealer, pool).simulate(4, games);
+    }
+  }
+}
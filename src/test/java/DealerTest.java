@@ -1,13 +1,27 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import tt.models.Card;
+import tt.models.CardSet;
+import tt.models.GameContext;
+import tt.models.Hand;
 import tt.models.Player;
+import tt.models.PokerDeck;
+import tt.services.HandTypeAnalyzer;
 import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.decks.SampledPokerDeckCreator;
 import tt.services.impl.decks.SeededShuffledPokerDeckCreator;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
 import tt.util.CardUtils;
+import tt.util.PackedHands;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class DealerTest {
@@ -137,6 +151,26 @@ public class DealerTest {
     }
   }
 
+  @Test
+  public void testShowdownReturnsAllWinnersInSeatOrder() {
+    var analyzer = new DefaultHandTypeAnalyzer();
+    var dealer = new FiveCardDrawDealer(new SeededShuffledPokerDeckCreator(42), analyzer);
+
+    Player kings = createPlayer(analyzer, "KS KH 8C 5D 3S");
+    Player flush = createPlayer(analyzer, "2D 4D 7D 9D JD");
+    Player aces = createPlayer(analyzer, "AS AH 8D 5C 3C");
+    Player flush2 = createPlayer(analyzer, "2C 4C 7C 9C JC");
+    Player aces2 = createPlayer(analyzer, "AC AD 8H 5H 3H");
+    assertEquals(List.of(flush, flush2), dealer.showdown(List.of(kings, flush, aces, flush2, aces2)),
+        "both flushes split the pot in seat order");
+    assertEquals(List.of(aces, aces2), dealer.showdown(List.of(kings, aces, aces2)),
+        "both aces split the pot in seat order");
+    assertEquals(List.of(aces2, aces), dealer.showdown(List.of(aces2, kings, aces)),
+        "the seat order is kept");
+    Assertions.assertThrows(IllegalArgumentException.class, () -> dealer.showdown(List.of()),
+        "there must be a player in the showdown");
+  }
+
   private Player createPlayer(DefaultHandTypeAnalyzer analyzer, String text) {
     return new Player("Player " + (++playerCounter), analyzer.createHand(CardUtils.parseCardFromString(text)));
   }
@@ -191,4 +225,145 @@ public class DealerTest {
 
     assertEquals(List.of(player4), dealer.showdown(players), "hand 1 is the winner");
   }
+
+  @Test
+  public void testDealingIntoTheContextMatchesTheDealtPlayers() {
+    var analyzer = new PerfectHashHandTypeAnalyzer();
+    var dealer = new FiveCardDrawDealer(new SeededShuffledPokerDeckCreator(42), analyzer);
+    var contextDealer = new FiveCardDrawDealer(new SeededShuffledPokerDeckCreator(42), analyzer);
+    var context = new GameContext(7);
+
+    for (int numberOfPlayers : new int[]{7, 2, 5}) {
+      List<Player> players = dealer.deal(numberOfPlayers);
+      contextDealer.deal(numberOfPlayers, context);
+      assertEquals(numberOfPlayers, context.getNumberOfPlayers(), "the context is reused");
+      for (int player = 0; player < numberOfPlayers; player++) {
+        Hand hand = players.get(player).hand();
+        assertEquals(PackedHands.pack(hand.getCards()), context.getHand(player),
+            "the same cards are dealt to the player");
+        assertEquals(hand.getStrength(), context.getStrength(player), "the same strength");
+      }
+
+      contextDealer.showdown(context);
+      List<Player> winners = new ArrayList<>();
+      for (int i = 0; i < context.getNumberOfWinners(); i++) {
+        winners.add(players.get(context.getWinner(i)));
+      }
+      assertEquals(dealer.showdown(players), winners, "the same players win");
+    }
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> dealer.deal(8, context),
+        "must be at most 7 players");
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new GameContext(11),
+        "a deck can't deal 5 cards to more than 10 players");
+  }
+
+  @Test
+  public void testDrawRoundReplacesTheDiscardsFromTheDeck() {
+    var analyzer = new DefaultHandTypeAnalyzer();
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(42), analyzer);
+    var creator = new CounterBasedPokerDeckCreator(42);
+    var context = new GameContext(7);
+
+    dealer.deal(3, context);
+    int[] dealtHands = {context.getHand(0), context.getHand(1), context.getHand(2)};
+    assertEquals(0, context.getCursor().remaining(), "the replacements aren't drawn by the deal");
+
+    // the replacements are the undealt cards of the same deck
+    List<Integer> replacements = new ArrayList<>();
+    PokerDeck deck = creator.deck(0);
+    for (int i = 15; i < Card.NUMBER_OF_CARDS; i++) {
+      replacements.add(deck.drawCard(i).ordinalIndex());
+    }
+
+    // the first player stands pat, the second discards two and the third all cards
+    dealer.draw(context, new int[]{0, 0b10010, FiveCardDrawDealer.ALL_POSITIONS});
+    assertEquals(dealtHands[0], context.getHand(0), "the first player keeps the hand");
+    int expected = PackedHands.withCardAt(PackedHands.withCardAt(dealtHands[1], 1,
+        replacements.get(0)), 4, replacements.get(1));
+    assertEquals(expected, context.getHand(1), "the replacements follow in the order of the seats");
+    assertEquals(PackedHands.pack(replacements.get(2), replacements.get(3), replacements.get(4),
+            replacements.get(5), replacements.get(6)), context.getHand(2),
+        "the third player gets 5 new cards");
+    for (int player = 0; player < 3; player++) {
+      assertEquals(analyzer.evaluate(context.getHand(player)), context.getStrength(player),
+          "the updated strength matches a full evaluation");
+    }
+
+    int[] drawnHands = {context.getHand(0), context.getHand(1), context.getHand(2)};
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> dealer.draw(context, new int[]{1, 1, 32}), "only 5 cards can be discarded");
+    assertArrayEquals(drawnHands, new int[]{context.getHand(0), context.getHand(1),
+        context.getHand(2)}, "an invalid mask leaves every hand unchanged");
+
+    // the draw round doesn't start a new game, so the next deal is the next game of the seed
+    dealer.deal(7, context);
+    int[] nextCards = new int[35];
+    creator.draw(1, nextCards, 35);
+    assertEquals(PackedHands.pack(nextCards[0], nextCards[7], nextCards[14], nextCards[21],
+        nextCards[28]), context.getHand(0), "the next game has the deck of game 1");
+    int[] allCards = new int[7];
+    Arrays.fill(allCards, FiveCardDrawDealer.ALL_POSITIONS);
+    int firstHand = context.getHand(0);
+    Assertions.assertThrows(IllegalStateException.class, () -> dealer.draw(context, allCards),
+        "the deck runs out of cards");
+    assertEquals(firstHand, context.getHand(0), "no hand is changed if the deck runs out");
+  }
+
+  @Test
+  public void testDrawRoundEvaluatesWithTheAnalyzerOfTheDealer() {
+    var table = new PerfectHashHandTypeAnalyzer();
+    // an analyzer that doesn't use the rank table, e.g. for lowball
+    HandTypeAnalyzer lowball = new HandTypeAnalyzer() {
+      @Override
+      public Hand createHand(Collection<Card> cards) {
+        return table.createHand(cards);
+      }
+
+      @Override
+      public Collection<Hand> tiebreak(Collection<Hand> hands) {
+        return table.tiebreak(hands);
+      }
+
+      @Override
+      public int evaluate(int hand) {
+        return -table.evaluate(hand);
+      }
+    };
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(7), lowball);
+    var context = new GameContext(5);
+    for (int game = 0; game < 100; game++) {
+      dealer.deal(5, context);
+      dealer.draw(context,
+          new int[]{0, 0b00001, 0b01100, 0b11100, FiveCardDrawDealer.ALL_POSITIONS});
+      for (int player = 0; player < 5; player++) {
+        assertEquals(lowball.evaluate(context.getHand(player)), context.getStrength(player),
+            "the strength of player " + player + " comes from the analyzer of the dealer");
+      }
+    }
+  }
+
+  @Test
+  public void testSampledReplacementsAreTheRemainingCards() {
+    var dealer = new FiveCardDrawDealer(new SampledPokerDeckCreator(),
+        new PerfectHashHandTypeAnalyzer());
+    var context = new GameContext(7);
+    int[] discards = {0b00111, 0b00111, 0b00111, 0b00111, 0b00111, 0b00011, 0};
+    for (int game = 0; game < 1_000; game++) {
+      dealer.deal(7, context);
+      long dealt = 0;
+      for (int player = 0; player < 7; player++) {
+        dealt |= PackedHands.cardBitsOf(context.getHand(player));
+      }
+
+      dealer.draw(context, discards);
+      long cards = dealt;
+      for (int i = 35; i < 52; i++) {
+        long bit = 1L << context.getDeck()[i];
+        assertEquals(0, cards & bit, "every replacement is a new card");
+        cards |= bit;
+      }
+      assertEquals(CardSet.ALL_CARDS, cards, "the 17 remaining cards replace the discards");
+    }
+  }
 }
@@ -1,12 +1,17 @@
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import tt.models.Card;
+import tt.models.CardSet;
 import tt.models.CardSuit;
 import tt.models.CardValue;
 import tt.models.PokerDeck;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.decks.SampledPokerDeckCreator;
 import tt.services.impl.decks.SeededShuffledPokerDeckCreator;
 import tt.services.impl.decks.UnshuffledPokerDeckCreator;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
 
@@ -56,6 +61,89 @@ public class DeckCreatorTest {
     });
   }
 
+  @Test
+  public void testSampledDecksDrawDistinctCardsUniformly() {
+    var creator = new SampledPokerDeckCreator();
+    Assertions.assertEquals(CardSet.FULL_DECK, creator.create().getCardSet(0, 52),
+        "a sampled deck contains every card");
+
+    // every card should land on the first position about equally often
+    int[] cards = new int[Card.NUMBER_OF_CARDS];
+    int[] firstCards = new int[Card.NUMBER_OF_CARDS];
+    int numberOfDraws = 52_000;
+    for (int draw = 0; draw < numberOfDraws; draw++) {
+      creator.draw(cards, 35);
+      long bits = 0;
+      for (int i = 0; i < 35; i++) {
+        bits |= 1L << cards[i];
+      }
+      Assertions.assertEquals(35, Long.bitCount(bits), "all drawn cards are distinct");
+      firstCards[cards[0]]++;
+    }
+    for (int count : firstCards) {
+      Assertions.assertTrue(count > 800 && count < 1200, "the first card is uniform: " + count);
+    }
+
+    Assertions.assertThrows(IllegalArgumentException.class, () -> creator.draw(cards, 53),
+        "can't draw more than 52 cards");
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new SampledPokerDeckCreator("NoSuchRandom"), "the algorithm must exist");
+  }
+
+  @Test
+  public void testCounterBasedDecksOnlyDependOnTheSeedAndTheGame() {
+    long seed = 0x5EED_0000_0000_0042L;
+    var creator = new CounterBasedPokerDeckCreator(seed);
+    List<PokerDeck> decks = IntStream.range(0, 100).mapToObj(game -> creator.create()).toList();
+
+    // the games are created in parallel and in reverse order by another creator
+    var other = new CounterBasedPokerDeckCreator(seed);
+    List<PokerDeck> otherDecks = IntStream.range(0, 100).parallel()
+        .map(game -> 99 - game)
+        .mapToObj(other::deck)
+        .toList()
+        .reversed();
+    int[] cards = new int[35];
+    for (int game = 0; game < decks.size(); game++) {
+      PokerDeck deck = decks.get(game);
+      Assertions.assertEquals(CardSet.FULL_DECK, deck.getCardSet(0, 52),
+          "the deck contains every card");
+      Assertions.assertEquals(toList(deck), toList(otherDecks.get(game)),
+          "game " + game + " doesn't depend on the order of creation");
+
+      other.draw(game, cards, cards.length);
+      for (int i = 0; i < cards.length; i++) {
+        Assertions.assertEquals(deck.drawCard(i).ordinalIndex(), cards[i],
+            "the drawn cards are the first cards of the deck");
+      }
+    }
+
+    Assertions.assertNotEquals(toList(decks.get(0)), toList(decks.get(1)), "games differ");
+    Assertions.assertNotEquals(toList(decks.get(0)),
+        toList(new CounterBasedPokerDeckCreator(seed + 1).deck(0)), "seeds differ");
+
+    creator.skipTo(42);
+    Assertions.assertEquals(toList(decks.get(42)), toList(creator.create()),
+        "a game can be created again");
+
+    // more cards continue the deck of the last game instead of starting game 43
+    int[] drawn = new int[Card.NUMBER_OF_CARDS];
+    creator.draw(drawn, 10);
+    creator.drawMore(drawn, 10, 42);
+    Assertions.assertEquals(toList(decks.get(43)),
+        Arrays.stream(drawn).mapToObj(Card::fromIndex).toList(), "the rest of game 43");
+    creator.draw(drawn, 5);
+    Assertions.assertEquals(decks.get(44).drawCard(0).ordinalIndex(), drawn[0],
+        "the draw didn't use up a game");
+    drawn[0] = drawn[1];
+    Assertions.assertThrows(IllegalArgumentException.class, () -> creator.drawMore(drawn, 5, 5),
+        "the drawn cards must be the cards of the last game");
+  }
+
+  private static List<Card> toList(PokerDeck deck) {
+    return StreamSupport.stream(deck.spliterator(), false).toList();
+  }
+
   private static int sizeOf(PokerDeck deck) {
     return StreamSupport.stream(deck.spliterator(), false).toList().size();
   }
@@ -1,12 +1,17 @@
 import org.junit.jupiter.api.Test;
 import tt.models.*;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.UnshuffledPokerDeckCreator;
 import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.HandTypeStrategy;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.services.impl.hands.strategies.HighCardStrategy;
+import tt.services.impl.hands.strategies.StraightStrategy;
 import tt.util.CardUtils;
+import tt.util.HandClassifier;
+import tt.util.HandStrengths;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -147,6 +152,11 @@ public class DefaultHandTypeAnalyzerTest {
     assertEquals(List.of(hand3), analyzer.tiebreak(List.of(hand1, hand2, hand3)),
         "hand 3 beats both other hands");
 
+    // the highest extra card is compared first
+    Hand hand4 = analyzer.createHand(CardUtils.parseCardFromString("2H 2C 9C JD QH"));
+    assertEquals(List.of(hand1), analyzer.tiebreak(List.of(hand1, hand4)),
+        "the king beats the queen although the lower extra cards of hand 4 are higher");
+
     // tie-breaking with another type of hand doesn't work and should throw an exception
     Hand fourOfAKind = analyzer.createHand(CardUtils.parseCardFromString("JS JD JH JC AS"));
     assertThrows(IllegalArgumentException.class, () -> {
@@ -424,4 +434,137 @@ public class DefaultHandTypeAnalyzerTest {
     }, "tie-breaking should throw an  exception if one hand has a different type");
   }
 
+  @Test
+  public void testHandStrengthOrdersTheHands() {
+    DefaultHandTypeAnalyzer analyzer = new DefaultHandTypeAnalyzer();
+
+    // hands ordered from the weakest to the strongest
+    List<Hand> hands = List.of( //
+        "2S 3H 5S 6S 7S", //
+        "2S 4H 5S 6S 7S", //
+        "AS KH QS JS 9S", //
+        "2S 2H 5S 6S 7S", //
+        "2S 2H AS 6S 7S", //
+        "3S 3H 4S 5S 6S", //
+        "2S 2H 3S 3H 4S", //
+        "2S 2H 3S 3H AS", //
+        "2S 2H 2C 6S 7S", //
+        "2S 3H 4S 5S 6S", //
+        "TS JH QS KS AS", //
+        "2S 3S 5S 6S 7S", //
+        "2S 2H 5S 5H 5D", //
+        "AS AH 6S 6H 6D", //
+        "2S 2H 2C 2D 7S", //
+        "2S 3S 4S 5S 6S", //
+        "TS JS QS KS AS" //
+    ).stream().map(cards -> analyzer.createHand(CardUtils.parseCardFromString(cards))).toList();
+
+    for (int i = 1; i < hands.size(); i++) {
+      assertTrue(hands.get(i - 1).getStrength() < hands.get(i).getStrength(),
+          "hand %s must be weaker than %s".formatted(hands.get(i - 1).toPrettyString(),
+              hands.get(i).toPrettyString()));
+    }
+
+    assertEquals(analyzer.createHand(CardUtils.parseCardFromString("2S 2H 5S 6S 7S")).getStrength(),
+        analyzer.createHand(CardUtils.parseCardFromString("2C 2D 5H 6H 7H")).getStrength(),
+        "the suits don't change the strength");
+  }
+
+  @Test
+  public void testClassifierMatchesTheStrategies() {
+    DefaultHandTypeAnalyzer analyzer = new DefaultHandTypeAnalyzer();
+    // a custom strategy switches the analyzer to matching the types with the strategies
+    DefaultHandTypeAnalyzer strategyAnalyzer =
+        new DefaultHandTypeAnalyzer(Map.of(HandType.HIGH_CARD, new HighCardStrategy()));
+
+    int numberOfHands = 0;
+    for (int c0 = 0; c0 < 52; c0++) {
+      for (int c1 = c0 + 1; c1 < 52; c1++) {
+        for (int c2 = c1 + 1; c2 < 52; c2++) {
+          for (int c3 = c2 + 1; c3 < 52; c3++) {
+            for (int c4 = c3 + 1; c4 < 52; c4++) {
+              List<Card> cards = List.of(Card.fromIndex(c0), Card.fromIndex(c1),
+                  Card.fromIndex(c2), Card.fromIndex(c3), Card.fromIndex(c4));
+              int strength = HandClassifier.strengthOf(cards);
+              assertEquals(FiveCardRankTable.strengthOf(FiveCardRankTable.rank(c0, c1, c2, c3, c4)),
+                  strength, "classifier and rank table agree on " + cards);
+
+              if (numberOfHands++ % 64 == 0) {
+                Hand hand = analyzer.createHand(cards);
+                Hand strategyHand = strategyAnalyzer.createHand(cards);
+                assertEquals(strategyHand.getType(), hand.getType(),
+                    "classifier and strategies agree on the type of " + cards);
+                assertEquals(strategyHand.getStrength(), hand.getStrength(),
+                    "classifier and strategies agree on the strength of " + cards);
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCustomStrategiesReplaceTheDefaults() {
+    // a straight where the ace can also be the lowest card
+    StraightStrategy straightStrategy = new StraightStrategy();
+    int sixHighStrength = HandStrengths.of(HandType.STRAIGHT,
+        CardUtils.parseCardFromString("2C 3C 4D 5H 6S"));
+    HandTypeStrategy wheelStrategy = new HandTypeStrategy() {
+      @Override
+      public boolean matches(Collection<Card> cards) {
+        return straightStrategy.matches(cards) || isWheel(cards);
+      }
+
+      @Override
+      public ShowdownResult determineTiebreakResult(Hand hand1, Hand hand2) {
+        if (isWheel(hand1.getCards()) || isWheel(hand2.getCards())) {
+          return isWheel(hand1.getCards())
+              ? (isWheel(hand2.getCards()) ? ShowdownResult.SPLIT : ShowdownResult.LOWER)
+              : ShowdownResult.HIGHER;
+        }
+        return straightStrategy.determineTiebreakResult(hand1, hand2);
+      }
+
+      @Override
+      public int strengthOf(HandType type, Collection<Card> cards) {
+        // the wheel is the lowest straight, just below the one with the six
+        return isWheel(cards) ? sixHighStrength - 1 : HandStrengths.of(type, cards);
+      }
+
+      private boolean isWheel(Collection<Card> cards) {
+        return cards.stream().map(Card::value).sorted().toList().equals(List.of(CardValue.TWO,
+            CardValue.THREE, CardValue.FOUR, CardValue.FIVE, CardValue.ACE));
+      }
+    };
+
+    List<Card> wheel = CardUtils.parseCardFromString("AS 2H 3S 4S 5S");
+    assertEquals(HandType.HIGH_CARD, new DefaultHandTypeAnalyzer().createHand(wheel).getType(),
+        "by default the ace can't be the lowest card of a straight");
+    DefaultHandTypeAnalyzer analyzer =
+        new DefaultHandTypeAnalyzer(Map.of(HandType.STRAIGHT, wheelStrategy));
+    assertEquals(HandType.STRAIGHT, analyzer.createHand(wheel).getType(),
+        "the custom strategy matches the wheel");
+    assertEquals(HandType.FLUSH,
+        analyzer.createHand(CardUtils.parseCardFromString("2S 3S 5S 6S 7S")).getType(),
+        "the other types are still matched by the default strategies");
+
+    Hand wheelHand = analyzer.createHand(wheel);
+    Hand sixHigh = analyzer.createHand(CardUtils.parseCardFromString("2C 3C 4D 5H 6S"));
+    Hand trips = analyzer.createHand(CardUtils.parseCardFromString("AC AD AH KS QS"));
+    assertTrue(wheelHand.getStrength() < sixHigh.getStrength(),
+        "the wheel is weaker than the straight with the six");
+    assertTrue(wheelHand.getStrength() > trips.getStrength(),
+        "the wheel is still stronger than three of a kind");
+    assertEquals(List.of(sixHigh), analyzer.tiebreak(List.of(wheelHand, sixHigh)),
+        "the straight with the six wins the tiebreak of the strategy");
+    Hand otherWheel = analyzer.createHand(CardUtils.parseCardFromString("AD 2D 3C 4H 5C"));
+    assertEquals(List.of(wheelHand, otherWheel), analyzer.tiebreak(List.of(wheelHand, otherWheel)),
+        "two wheels split the pot");
+
+    var dealer = new FiveCardDrawDealer(new UnshuffledPokerDeckCreator(), analyzer);
+    List<Player> players = List.of(new Player("wheel", wheelHand), new Player("six", sixHigh));
+    assertEquals(List.of(players.get(1)), dealer.showdown(players),
+        "the straight with the six wins the showdown");
+  }
 }
@@ -0,0 +1,76 @@
+import org.junit.jupiter.api.Test;
+import tt.models.DiscardOption;
+import tt.models.Hand;
+import tt.models.HandType;
+import tt.services.impl.equity.DiscardCalculator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.util.CardUtils;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscardCalculatorTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+
+  @Test
+  public void testFlushDrawAgainstAces() {
+    var calculator = new DiscardCalculator(ForkJoinPool.commonPool());
+    Hand aces = ANALYZER.createHand(CardUtils.parseCardFromString("AS AC 8D 6S 4C"));
+    List<DiscardOption> options = calculator.calculate(
+        CardUtils.parseCardFromString("2H 5H 9H KH 3C"), List.of(), aces);
+    assertEquals(DiscardCalculator.NUMBER_OF_OPTIONS, options.size(), "one option per mask");
+
+    DiscardOption pat = options.getFirst();
+    assertEquals(1, pat.draws(), "standing pat keeps the hand");
+    assertEquals(1.0, pat.probabilityOf(HandType.HIGH_CARD), "king high");
+    assertEquals(0, pat.wins(), "king high loses to the aces");
+
+    // the opponent's cards are dead, so 42 cards are left for the replacement of the club
+    DiscardOption flushDraw = options.get(0b10000);
+    assertEquals(42, flushDraw.draws(), "every live card can be drawn");
+    assertEquals(9, flushDraw.typeCounts().get(HandType.FLUSH), "9 hearts are left");
+    assertEquals(12, flushDraw.typeCounts().get(HandType.PAIR), "3 cards pair each of 4 values");
+    assertEquals(9, flushDraw.wins(), "only the flushes beat the aces");
+    assertEquals(CardUtils.parseCardFromString("2H 5H 9H KH"), flushDraw.keptCards(),
+        "the hearts are kept");
+  }
+
+  @Test
+  public void testAllReplacementsAreEnumerated() {
+    var calculator = new DiscardCalculator(ForkJoinPool.commonPool());
+    List<DiscardOption> options = calculator.calculate(
+        CardUtils.parseCardFromString("AS KS QS JS TS"), List.of(), Integer.MIN_VALUE);
+
+    assertEquals(1.0, options.getFirst().probabilityOf(HandType.STRAIGHT_FLUSH),
+        "the royal flush stands pat");
+    long[] binomials = {1, 47, 1081, 16215, 178365, 1533939};
+    for (DiscardOption option : options) {
+      assertEquals(binomials[Integer.bitCount(option.discards())], option.draws(),
+          "C(47, k) replacements for k discards");
+      assertEquals(option.draws(), option.wins(), "every hand beats the lowest strength");
+      assertEquals(option.draws(),
+          option.typeCounts().values().stream().mapToLong(Long::longValue).sum(),
+          "every replacement has a type");
+    }
+
+    DiscardOption newHand = options.get(0b11111);
+    assertEquals(27 + 4, newHand.typeCounts().get(HandType.STRAIGHT_FLUSH),
+        "the straight flushes of the other suits and the spades below the ten are left");
+    assertEquals(8 * 43, newHand.typeCounts().get(HandType.FOUR_OF_A_KIND),
+        "only the values from two to nine have all four cards left");
+  }
+
+  @Test
+  public void testInvalidHandsAreRejected() {
+    var calculator = new DiscardCalculator(ForkJoinPool.commonPool());
+    assertThrows(IllegalArgumentException.class, () -> calculator.calculate(
+        CardUtils.parseCardFromString("AS KS QS JS"), List.of(), 0), "5 cards are needed");
+    assertThrows(IllegalArgumentException.class, () -> calculator.calculate(
+        CardUtils.parseCardFromString("AS KS QS JS JS"), List.of(), 0), "cards must be distinct");
+    assertThrows(IllegalArgumentException.class, () -> calculator.calculate(
+            CardUtils.parseCardFromString("AS KS QS JS TS"),
+            CardUtils.parseCardFromString("TS"), 0), "a card of the hand can't be dead");
+  }
+}
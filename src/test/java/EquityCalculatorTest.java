@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+import tt.models.Card;
+import tt.models.Equity;
+import tt.models.EquityResult;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.equity.MonteCarloEquityCalculator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.util.CardUtils;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EquityCalculatorTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+
+  @Test
+  public void testCompleteHandsAlwaysHaveTheSameOutcome() {
+    var calculator = new MonteCarloEquityCalculator(new CounterBasedPokerDeckCreator(1), ANALYZER,
+        ForkJoinPool.commonPool());
+    EquityResult result = calculator.calculate(List.of(
+        CardUtils.parseCardFromString("AS AH AD 7C 2D"),
+        CardUtils.parseCardFromString("KS KH KD 7D 3C"),
+        CardUtils.parseCardFromString("AC KC QH 8S 4S")), List.of(), 0, 10_000);
+
+    assertEquals(10_000, result.trials(), "all trials were dealt");
+    assertEquals(1.0, result.equities().get(0).winProbability(), "aces always win");
+    assertEquals(1.0, result.equities().get(1).lossProbability(), "kings always lose");
+    assertEquals(0.0, result.equities().get(2).equity(), "ace high never wins");
+    assertTrue(result.trialsPerSecond() > 0, "the throughput is measured");
+  }
+
+  @Test
+  public void testSplitPotsAreShared() {
+    var calculator = new MonteCarloEquityCalculator(new CounterBasedPokerDeckCreator(1), ANALYZER,
+        ForkJoinPool.commonPool());
+    Equity equity = calculator.calculate(List.of(
+        CardUtils.parseCardFromString("AS KS QS JS TS"),
+        CardUtils.parseCardFromString("AH KH QH JH TH")), List.of(), 0, 100).equities().get(0);
+
+    assertEquals(100, equity.ties(), "the royal flushes always split the pot");
+    assertEquals(0.5, equity.equity(), "each royal flush gets half of the pot");
+  }
+
+  @Test
+  public void testEquityAgainstUnknownOpponentsIsRepeatable() {
+    List<List<Card>> hands = List.of(CardUtils.parseCardFromString("AS AH"),
+        CardUtils.parseCardFromString("7C 8C 9C TC"));
+    List<Card> dead = CardUtils.parseCardFromString("JC 6C AD AC");
+
+    EquityResult result;
+    EquityResult other;
+    try (ForkJoinPool pool = new ForkJoinPool(4);
+         ForkJoinPool singlePool = new ForkJoinPool(1)) {
+      result = new MonteCarloEquityCalculator(new CounterBasedPokerDeckCreator(7), ANALYZER, pool)
+          .calculate(hands, dead, 2, 200_000);
+      other = new MonteCarloEquityCalculator(new CounterBasedPokerDeckCreator(7), ANALYZER,
+          singlePool).calculate(hands, dead, 2, 200_000);
+    }
+    assertEquals(result.equities(), other.equities(),
+        "the same games are dealt independent of the number of threads");
+
+    double total = 0;
+    for (Equity equity : result.equities()) {
+      assertEquals(result.trials(), equity.trials(), "every trial has an outcome");
+      total += equity.equity();
+    }
+    assertTrue(total > 0.5 && total < 1, "the opponents win the rest: " + total);
+    assertTrue(result.equities().get(0).equity() > 0.3, "the pair of aces is ahead");
+  }
+
+  @Test
+  public void testInvalidGamesAreRejected() {
+    var calculator = new MonteCarloEquityCalculator(new CounterBasedPokerDeckCreator(1), ANALYZER,
+        ForkJoinPool.commonPool());
+    List<Card> aces = CardUtils.parseCardFromString("AS AH");
+
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces), List.of(), 0, 1000), "there must be 2 players");
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces), List.of(), 10, 1000), "at most 10 players");
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces, CardUtils.parseCardFromString("AS KS")),
+            List.of(), 0, 1000), "the hands can't share cards");
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces), CardUtils.parseCardFromString("AH"), 1, 1000),
+        "a known card can't be dead");
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces), CardUtils.parseCardFromString(
+            "2C 3C 4C 5C 6C 7C 8C 9C TC JC QC KC AC 2D 3D 4D 5D 6D 7D 8D 9D TD JD QD KD AD"), 5,
+            1000), "not enough cards are left");
+    assertThrows(IllegalArgumentException.class,
+        () -> calculator.calculate(List.of(aces), List.of(), 1, 0), "at least one trial");
+  }
+}
@@ -0,0 +1,226 @@
+import org.junit.jupiter.api.Test;
+import tt.models.Card;
+import tt.models.GameContext;
+import tt.models.HandType;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.server.BatchingEvaluator;
+import tt.services.impl.server.EvaluationServer;
+import tt.services.impl.server.LatencyHistogram;
+import tt.util.CardUtils;
+import tt.util.HandStrengths;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvaluationServerTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+
+  @Test
+  public void testEndpointsAnswerInTheFormatOfTheCommandLine() throws Exception {
+    try (EvaluationServer server = new EvaluationServer(ANALYZER, 0);
+         HttpClient client = HttpClient.newHttpClient()) {
+      HttpResponse<String> response = post(client, server, "/evaluate",
+          "AS,KS,QS,JS,TS 2C,2D,3H,4S,5C\n9H,9C,9S,KC,KH");
+      assertEquals(200, response.statusCode(), "the hands are valid");
+      assertEquals("""
+              STRAIGHT_FLUSH %d
+              PAIR %d
+              FULL_HOUSE %d
+              """.formatted(strengthOf("AS KS QS JS TS"), strengthOf("2C 2D 3H 4S 5C"),
+              strengthOf("9H 9C 9S KC KH")), response.body(),
+          "a line with the type and the strength of every hand");
+
+      response = post(client, server, "/evaluate", "AS,KS,QS,JS,TS AS,AH,AD,KS,KH");
+      assertEquals(200, response.statusCode(), "independent hands may share cards");
+      assertEquals("STRAIGHT_FLUSH %d\nFULL_HOUSE %d\n".formatted(strengthOf("AS KS QS JS TS"),
+          strengthOf("AS AH AD KS KH")), response.body(), "both hands are evaluated");
+      response = post(client, server, "/evaluate", "AS,AS,QS,JS,TS");
+      assertEquals(400, response.statusCode(), "a hand must not contain a card twice");
+
+      response = post(client, server, "/showdown", "AS,KS,QS,JS,TS AS,AH,AD,KS,KH");
+      assertEquals(400, response.statusCode(), "the hands of a showdown share a deck");
+      assertTrue(response.body().contains("duplicate card"), "the reason is returned");
+
+      response = post(client, server, "/showdown",
+          "AS,AH,3D,2S,5D AD,4D,TH,TS,TC\n\n2C,3C,4C,5C,7D 2D,3D,4D,5D,7H 2H,3H,4H,5S,7S");
+      assertEquals("2\n\n1 2 3\n", response.body(), "the winners of every showdown");
+
+      response = post(client, server, "/showdown", "AS,AH,3D,2S AD,4D,TH,TS,TC");
+      assertEquals(400, response.statusCode(), "a hand with 4 cards is invalid");
+      assertTrue(response.body().contains("a hand must have 5 cards"), "the reason is returned");
+
+      response = client.send(HttpRequest.newBuilder(uri(server, "/showdown")).GET().build(),
+          HttpResponse.BodyHandlers.ofString());
+      assertEquals(405, response.statusCode(), "showdowns must be posted");
+
+      response = get(client, server, "/equity?hands=AS,AH,AD+KS,KH&trials=20000");
+      assertEquals(200, response.statusCode(), "the equity is calculated");
+      assertEquals(2, response.body().lines().count(), "a line for each hand");
+      assertTrue(response.body().lines().allMatch(line -> line.contains(" equity ")),
+          "every line has the equity");
+
+      response = get(client, server, "/equity?hands=AS,AH,AD&opponents=1&trials=1000000000");
+      assertEquals(400, response.statusCode(), "too many trials");
+
+      response = get(client, server, "/stats");
+      assertEquals(200, response.statusCode(), "the statistics are available");
+      assertTrue(response.body().contains("/showdown"), "the latencies of the showdowns");
+      assertEquals(4, server.latencyOf("/showdown").count(), "every showdown request is counted");
+    }
+  }
+
+  @Test
+  public void testConcurrentShowdownsAreScoredCorrectly() throws Exception {
+    int numberOfRequests = 200;
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(11), ANALYZER);
+    var context = new GameContext(7);
+    List<String> bodies = new ArrayList<>();
+    List<String> expected = new ArrayList<>();
+    for (int request = 0; request < numberOfRequests; request++) {
+      StringBuilder body = new StringBuilder();
+      StringBuilder winners = new StringBuilder();
+      for (int game = 0; game < 10; game++) {
+        int numberOfPlayers = 2 + (request + game) % 6;
+        dealer.deal(numberOfPlayers, context);
+        dealer.showdown(context);
+        for (int player = 0; player < numberOfPlayers; player++) {
+          body.append(player > 0 ? " " : "").append(toText(context.getHand(player)));
+        }
+        body.append('\n');
+        for (int winner = 0; winner < context.getNumberOfWinners(); winner++) {
+          winners.append(winner > 0 ? " " : "").append(context.getWinner(winner) + 1);
+        }
+        winners.append('\n');
+      }
+      bodies.add(body.toString());
+      expected.add(winners.toString());
+    }
+
+    try (EvaluationServer server = new EvaluationServer(ANALYZER, 0);
+         HttpClient client = HttpClient.newHttpClient();
+         ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+      for (String body : bodies) {
+        responses.add(clients.submit(() -> post(client, server, "/showdown", body)));
+      }
+      for (int request = 0; request < numberOfRequests; request++) {
+        HttpResponse<String> response = responses.get(request).get();
+        assertEquals(200, response.statusCode(), "the request " + request + " is valid");
+        assertEquals(expected.get(request), response.body(), "the winners of request " + request);
+      }
+
+      LatencyHistogram latency = server.latencyOf("/showdown");
+      assertEquals(numberOfRequests, latency.count(), "every request is counted");
+      assertTrue(latency.percentile(50) <= latency.percentile(99), "the percentiles are ordered");
+      assertTrue(latency.percentile(99) <= latency.max(), "no percentile exceeds the maximum");
+    }
+  }
+
+  @Test
+  public void testConcurrentCallersShareBatches() throws Exception {
+    int numberOfCallers = 500;
+    try (BatchingEvaluator evaluator = new BatchingEvaluator(ANALYZER, 64);
+         ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+      // the callers are released at once, so they queue up behind the first batch
+      CyclicBarrier start = new CyclicBarrier(numberOfCallers);
+      List<Future<?>> results = new ArrayList<>();
+      long numberOfHands = 0;
+      for (int caller = 0; caller < numberOfCallers; caller++) {
+        int seed = caller;
+        numberOfHands += 1 + seed % 10;
+        results.add(callers.submit(() -> {
+          int[] hands = new int[1 + seed % 10];
+          for (int i = 0; i < hands.length; i++) {
+            int first = (seed + 5 * i) % 47;
+            hands[i] = PackedHands.pack(first, first + 1, first + 2, first + 3, first + 5);
+          }
+          int[] strengths = new int[hands.length];
+          start.await();
+          evaluator.evaluate(hands, strengths, hands.length);
+          for (int i = 0; i < hands.length; i++) {
+            assertEquals(ANALYZER.evaluate(hands[i]), strengths[i], "the strength of the hand");
+          }
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+      assertTrue(evaluator.getBatches() < numberOfCallers,
+          "the callers share batches, but there were " + evaluator.getBatches());
+      assertEquals(numberOfHands, evaluator.getHands(),
+          "every hand is evaluated once");
+
+      int[] invalid = {PackedHands.pack(0, 0, 1, 2, 3)};
+      assertThrows(IllegalArgumentException.class,
+          () -> evaluator.evaluate(invalid, new int[1], 1), "the duplicate card is rejected");
+      int[] valid = {PackedHands.pack(0, 13, 26, 39, 1)};
+      int[] strengths = new int[1];
+      evaluator.evaluate(valid, strengths, 1);
+      assertEquals(HandType.FOUR_OF_A_KIND, HandStrengths.typeOf(strengths[0]),
+          "the evaluator still works after an invalid hand");
+    }
+  }
+
+  @Test
+  public void testPercentilesOfTheHistogram() {
+    LatencyHistogram latency = new LatencyHistogram();
+    assertEquals(0, latency.percentile(99), "no latencies yet");
+    for (int micros = 1; micros <= 1000; micros++) {
+      latency.record(micros * 1000L);
+    }
+    assertEquals(1000, latency.count(), "all latencies are counted");
+    assertEquals(1_000_000, latency.max(), "the maximum is exact");
+    assertEquals(500_000, latency.percentile(50), 500_000 / 16.0, "the median");
+    assertEquals(990_000, latency.percentile(99), 990_000 / 16.0, "the 99th percentile");
+    assertEquals(1_000_000, latency.percentile(100), "the 100th percentile is the maximum");
+    assertThrows(IllegalArgumentException.class, () -> latency.percentile(101),
+        "there is no 101st percentile");
+  }
+
+  private static int strengthOf(String cards) {
+    return ANALYZER.createHand(CardUtils.parseCardFromString(cards)).getStrength();
+  }
+
+  private static String toText(int hand) {
+    StringBuilder text = new StringBuilder();
+    for (int position = 0; position < 5; position++) {
+      Card card = Card.fromIndex(PackedHands.cardAt(hand, position));
+      text.append(position > 0 ? "," : "").append(card.value().getName())
+          .append(card.suit().getShortName());
+    }
+    return text.toString();
+  }
+
+  private static URI uri(EvaluationServer server, String path) {
+    return URI.create("http://localhost:" + server.getPort() + path);
+  }
+
+  private static HttpResponse<String> post(HttpClient client, EvaluationServer server,
+                                           String path, String body)
+      throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uri(server, path))
+        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static HttpResponse<String> get(HttpClient client, EvaluationServer server, String path)
+      throws IOException, InterruptedException {
+    return client.send(HttpRequest.newBuilder(uri(server, path)).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import tt.models.Player;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.dealer.FreerollTable;
+import tt.services.impl.decks.SeededShuffledPokerDeckCreator;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.util.PackedHands;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreerollTableTest {
+  private static final ForkJoinPool POOL = new ForkJoinPool(2);
+
+  @AfterAll
+  public static void shutdownPool() {
+    POOL.shutdown();
+  }
+
+  @Test
+  public void testSmallTableMatchesTheDealer() {
+    var analyzer = new DefaultHandTypeAnalyzer();
+    var dealer = new FiveCardDrawDealer(new SeededShuffledPokerDeckCreator(42), analyzer);
+    var table = new FreerollTable(new SeededShuffledPokerDeckCreator(42), analyzer, POOL, 7);
+
+    List<Player> players = dealer.deal(7);
+    table.deal();
+    for (int seat = 0; seat < players.size(); seat++) {
+      assertEquals(players.get(seat).name(), table.player(seat).name(), "same name for the seat");
+      assertEquals(players.get(seat).hand().getCardSet(), table.player(seat).hand().getCardSet(),
+          "same cards for the seat");
+      assertEquals(players.get(seat).hand().getStrength(), table.strengthOf(seat),
+          "same strength for the seat");
+    }
+
+    assertEquals(dealer.showdown(players).stream().map(Player::name).toList(),
+        table.winningPlayers().stream().map(Player::name).toList(), "same winners");
+    assertThrows(IllegalArgumentException.class,
+        () -> new FreerollTable(new SeededShuffledPokerDeckCreator(42), analyzer, POOL, 1),
+        "at least 2 entrants are needed");
+  }
+
+  @Test
+  public void testMassiveTableIsEvaluatedAndRanked() {
+    var analyzer = new PerfectHashHandTypeAnalyzer();
+    int numberOfSeats = 200_003;
+    var table = new FreerollTable(new SeededShuffledPokerDeckCreator(7), analyzer, POOL,
+        numberOfSeats, seat -> "Entrant #" + seat);
+    assertThrows(IllegalStateException.class, table::winners, "there are no winners before a deal");
+    assertThrows(IllegalStateException.class, table::ranking, "there is no ranking before a deal");
+    table.deal();
+    assertEquals(numberOfSeats, table.size(), "every entrant has a seat");
+
+    int winningStrength = Integer.MIN_VALUE;
+    for (int seat = 0; seat < numberOfSeats; seat++) {
+      assertTrue(PackedHands.isValid(table.handOf(seat)), "every seat has 5 distinct cards");
+      if (seat % 101 == 0) {
+        assertEquals(analyzer.createHand(PackedHands.toCards(table.handOf(seat))).getStrength(),
+            table.strengthOf(seat), "the strength matches the hand");
+      }
+      winningStrength = Math.max(winningStrength, table.strengthOf(seat));
+    }
+
+    int[] winners = table.winners();
+    assertTrue(winners.length > 0, "there is at least one winner");
+    for (int i = 0; i < winners.length; i++) {
+      assertEquals(winningStrength, table.strengthOf(winners[i]), "winners have the best hand");
+      assertTrue(i == 0 || winners[i - 1] < winners[i], "winners are in seat order");
+    }
+    assertEquals("Entrant #" + winners[0], table.winningPlayers().getFirst().name(),
+        "players are created with their name");
+
+    int[] ranking = table.ranking();
+    assertArrayEquals(winners, Arrays.copyOf(ranking, winners.length), "winners are ranked first");
+    for (int i = 1; i < ranking.length; i++) {
+      int previous = table.strengthOf(ranking[i - 1]);
+      int current = table.strengthOf(ranking[i]);
+      assertTrue(previous > current || previous == current && ranking[i - 1] < ranking[i],
+          "seats are ranked by strength and then by seat");
+    }
+  }
+}
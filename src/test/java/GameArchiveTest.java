@@ -0,0 +1,186 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tt.models.GameContext;
+import tt.models.HandType;
+import tt.services.impl.archive.GameArchive;
+import tt.services.impl.archive.GameArchiveWriter;
+import tt.services.impl.archive.GameFilter;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.history.HandHistoryEvaluator;
+import tt.services.impl.history.HandHistoryReader;
+import tt.services.impl.history.HandHistoryWriter;
+import tt.util.HandStrengths;
+import tt.util.PackedHands;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameArchiveTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+  private static final int NUMBER_OF_GAMES = 30_000;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testQueriesMatchAFullScanOfTheGames() {
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(7), ANALYZER);
+    var context = new GameContext(GameContext.MAX_PLAYERS);
+    int[] players = new int[NUMBER_OF_GAMES];
+    HandType[] winningTypes = new HandType[NUMBER_OF_GAMES];
+    boolean[] splits = new boolean[NUMBER_OF_GAMES];
+    int[] firstHands = new int[NUMBER_OF_GAMES];
+    int[] lastStrengths = new int[NUMBER_OF_GAMES];
+
+    Path path = directory.resolve("archive");
+    try (GameArchiveWriter writer = new GameArchiveWriter(path, 7)) {
+      for (int game = 0; game < NUMBER_OF_GAMES; game++) {
+        // the heads up games come first, so the blocks of the index differ
+        players[game] = game < 10_000 ? 2 : 3 + game % 5;
+        dealer.deal(players[game], context);
+        dealer.showdown(context);
+        writer.append(context);
+
+        winningTypes[game] = HandStrengths.typeOf(context.getStrength(context.getWinner(0)));
+        splits[game] = context.getNumberOfWinners() > 1;
+        firstHands[game] = context.getHand(0);
+        lastStrengths[game] = context.getStrength(players[game] - 1);
+      }
+      assertEquals(NUMBER_OF_GAMES, writer.getNumberOfGames(), "all games were appended");
+      writer.commit();
+    }
+
+    List<GameFilter> filters = List.of(GameFilter.ALL,
+        GameFilter.ALL.withWinningType(HandType.FULL_HOUSE).withPlayers(6, 10),
+        GameFilter.ALL.withPlayers(2, 2),
+        GameFilter.ALL.withWinningTypes(HandType.PAIR, HandType.TWO_PAIRS).withSplitsOnly(),
+        GameFilter.ALL.withPlayers(1, 1));
+    try (ForkJoinPool pool = new ForkJoinPool(4);
+         GameArchive archive = GameArchive.open(path, pool)) {
+      assertEquals(NUMBER_OF_GAMES, archive.getNumberOfGames(), "the games of the header");
+      assertEquals(7, archive.getSeats(), "the seats of the header");
+
+      for (GameFilter filter : filters) {
+        long[] expected = LongStream.range(0, NUMBER_OF_GAMES).filter(game -> players[(int) game]
+                >= filter.minPlayers() && players[(int) game] <= filter.maxPlayers()
+                && winningTypes[(int) game].compareTo(filter.minType()) >= 0
+                && winningTypes[(int) game].compareTo(filter.maxType()) <= 0
+                && (splits[(int) game] || !filter.splitsOnly()))
+            .toArray();
+        assertArrayEquals(expected, archive.findGames(filter), "the games of " + filter);
+        assertEquals(expected.length, archive.count(filter), "the number of games of " + filter);
+
+        Map<HandType, Long> counts = new EnumMap<>(HandType.class);
+        Map<HandType, Long> splitCounts = new EnumMap<>(HandType.class);
+        for (HandType type : HandType.values()) {
+          counts.put(type, 0L);
+          splitCounts.put(type, 0L);
+        }
+        for (long game : expected) {
+          counts.merge(winningTypes[(int) game], 1L, Long::sum);
+          splitCounts.merge(winningTypes[(int) game], splits[(int) game] ? 1L : 0L, Long::sum);
+        }
+        assertEquals(counts, archive.countByWinningType(filter), "the types of " + filter);
+
+        Map<HandType, Double> rates = archive.splitPotRateByWinningType(filter);
+        for (HandType type : HandType.values()) {
+          if (counts.get(type) == 0) {
+            assertFalse(rates.containsKey(type), "no rate without games of " + type);
+          } else {
+            assertEquals((double) splitCounts.get(type) / counts.get(type), rates.get(type), 1e-12,
+                "the split pot rate of " + type);
+          }
+        }
+      }
+      assertTrue(archive.count(filters.get(1)) > 0, "some full houses with 6 or more players");
+
+      for (int game : new int[]{0, 4095, 4096, 12_345, NUMBER_OF_GAMES - 1}) {
+        assertEquals(players[game], archive.numberOfPlayersOf(game), "players of game " + game);
+        assertEquals(firstHands[game], archive.handOf(game, 0), "first hand of game " + game);
+        assertEquals(lastStrengths[game], archive.strengthOf(game, players[game] - 1),
+            "last strength of game " + game);
+        assertEquals(winningTypes[game], archive.winningTypeOf(game), "winner of game " + game);
+        assertEquals(splits[game], archive.isSplit(game), "split of game " + game);
+      }
+      assertThrows(IllegalArgumentException.class, () -> archive.handOf(0, 2),
+          "the heads up game has no third player");
+      assertThrows(IllegalArgumentException.class, () -> archive.isSplit(NUMBER_OF_GAMES),
+          "there is no game after the last one");
+    }
+  }
+
+  @Test
+  public void testHandHistoryIsArchived() {
+    int numberOfPlayers = 6;
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(42), ANALYZER);
+    var context = new GameContext(numberOfPlayers);
+    Path history = directory.resolve("games.bin");
+    long fullHouses = 0;
+    try (HandHistoryWriter writer = HandHistoryWriter.create(history, numberOfPlayers, 42)) {
+      for (int game = 0; game < 5_000; game++) {
+        dealer.deal(numberOfPlayers, context);
+        dealer.showdown(context);
+        writer.write(context);
+        if (HandStrengths.typeOf(context.getStrength(context.getWinner(0)))
+            == HandType.FULL_HOUSE) {
+          fullHouses++;
+        }
+      }
+    }
+
+    Path path = directory.resolve("archive");
+    try (ForkJoinPool pool = new ForkJoinPool(2)) {
+      try (HandHistoryReader reader = HandHistoryReader.open(history);
+           GameArchiveWriter writer = new GameArchiveWriter(path, numberOfPlayers)) {
+        assertEquals(5_000, new HandHistoryEvaluator(ANALYZER, pool).archive(reader, writer),
+            "all games were archived");
+        writer.commit();
+      }
+      try (GameArchive archive = GameArchive.open(path, pool)) {
+        assertEquals(fullHouses, archive.count(GameFilter.ALL.withWinningType(HandType.FULL_HOUSE)
+            .withPlayers(6, 6)), "the games won by a full house");
+      }
+    }
+  }
+
+  @Test
+  public void testIncompleteArchiveIsRejected() throws Exception {
+    Path path = directory.resolve("archive");
+    GameArchiveWriter writer = new GameArchiveWriter(path, 2);
+    try (ForkJoinPool pool = new ForkJoinPool(1)) {
+      assertThrows(IllegalArgumentException.class, () -> GameArchive.open(path, pool),
+          "the header is written when the writer is committed");
+      writer.close();
+      assertThrows(IllegalArgumentException.class, () -> GameArchive.open(path, pool),
+          "a writer that is closed without a commit leaves no header");
+
+      try (GameArchiveWriter committed = new GameArchiveWriter(path, 2)) {
+        committed.commit();
+        assertThrows(IllegalStateException.class, () -> committed.append(
+            new int[]{PackedHands.pack(0, 1, 2, 3, 5), PackedHands.pack(13, 14, 15, 16, 18)},
+            new int[]{1, 2}, 0, 2),
+            "a committed archive takes no more games");
+      }
+      try (GameArchive archive = GameArchive.open(path, pool)) {
+        assertEquals(0, archive.count(GameFilter.ALL), "the archive is empty");
+      }
+
+      Files.write(path.resolve("archive.header"), new byte[]{1, 2, 3});
+      assertThrows(IllegalArgumentException.class, () -> GameArchive.open(path, pool),
+          "the header is broken");
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> new GameArchiveWriter(path, GameContext.MAX_PLAYERS + 1), "too many seats");
+    assertThrows(IllegalArgumentException.class,
+        () -> GameFilter.ALL.withPlayers(6, 2), "the filter would select no game");
+  }
+}
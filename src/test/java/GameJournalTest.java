@@ -0,0 +1,208 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tt.models.GameContext;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.journal.GameJournal;
+import tt.services.impl.journal.JournalOptions;
+import tt.services.impl.journal.JournalReader;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+  private static final JournalOptions SMALL_BUFFERS = JournalOptions.defaults()
+      .withBuffers(2, 1 << 12, 4);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testGamesOfAllThreadsAreRecorded() throws InterruptedException {
+    Path path = directory.resolve("games.journal");
+    List<String> expected = Collections.synchronizedList(new ArrayList<>());
+    try (GameJournal journal = new GameJournal(path, SMALL_BUFFERS)) {
+      var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(3), ANALYZER, journal);
+      List<Thread> producers = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int numberOfPlayers = 2 + thread;
+        producers.add(Thread.ofPlatform().start(() -> {
+          var context = new GameContext(numberOfPlayers);
+          for (int game = 0; game < 5_000; game++) {
+            dealer.deal(numberOfPlayers, context);
+            dealer.showdown(context);
+            expected.add(describe(context));
+          }
+        }));
+      }
+      for (Thread producer : producers) {
+        producer.join();
+      }
+
+      journal.flush();
+      assertEquals(20_000, journal.getDurableGames(), "all games are on the disk after a flush");
+      assertEquals(0, journal.getDroppedGames(), "producers wait for a free buffer");
+    }
+
+    List<String> replayed = new ArrayList<>();
+    assertEquals(20_000, JournalReader.replay(path, context -> replayed.add(describe(context))),
+        "all games were replayed");
+    Collections.sort(expected);
+    Collections.sort(replayed);
+    assertEquals(expected, replayed, "hands, strengths and winners are restored");
+  }
+
+  @Test
+  public void testTornFrameIsDiscardedAndTheJournalIsContinued() throws IOException {
+    Path path = directory.resolve("games.journal");
+    var context = new GameContext(6);
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(5), ANALYZER);
+    try (GameJournal journal = new GameJournal(path, SMALL_BUFFERS)) {
+      for (int game = 0; game < 1_000; game++) {
+        dealer.deal(6, context);
+        dealer.showdown(context);
+        journal.append(context);
+      }
+    }
+    long completeSize = Files.size(path);
+
+    // a frame that was cut off by a crash
+    try (GameJournal journal = new GameJournal(path, SMALL_BUFFERS)) {
+      for (int game = 0; game < 100; game++) {
+        dealer.deal(6, context);
+        dealer.showdown(context);
+        journal.append(context);
+      }
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.truncate(Files.size(path) - 7);
+    }
+    assertEquals(1_000, JournalReader.replay(path, game -> {
+    }), "the torn frame is ignored");
+
+    try (GameJournal journal = new GameJournal(path, SMALL_BUFFERS)) {
+      assertEquals(completeSize, Files.size(path), "the torn frame is truncated");
+      dealer.deal(6, context);
+      dealer.showdown(context);
+      journal.append(context);
+    }
+    assertEquals(1_001, JournalReader.replay(path, game -> {
+    }), "new games follow the valid frames");
+
+    Files.write(directory.resolve("other.bin"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IllegalArgumentException.class,
+        () -> new GameJournal(directory.resolve("other.bin"), SMALL_BUFFERS),
+        "the file isn't a journal");
+  }
+
+  @Test
+  public void testDroppedGamesAreCounted() {
+    Path path = directory.resolve("games.journal");
+    JournalOptions options = SMALL_BUFFERS.withBuffers(1, 1 << 12, 2)
+        .withBackpressure(JournalOptions.Backpressure.DROP)
+        .withFsyncPolicy(JournalOptions.FsyncPolicy.EVERY_WRITE)
+        .withFlushInterval(Duration.ofMillis(1));
+    long written;
+    try (GameJournal journal = new GameJournal(path, options)) {
+      var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(9), ANALYZER, journal);
+      var context = new GameContext(7);
+      for (int game = 0; game < 50_000; game++) {
+        dealer.deal(7, context);
+        dealer.showdown(context);
+      }
+      journal.flush();
+      written = journal.getWrittenGames();
+      assertEquals(50_000, written + journal.getDroppedGames(),
+          "every game is either written or dropped");
+    }
+
+    assertEquals(written, JournalReader.replay(path, game -> {
+    }), "only the written games are in the journal");
+    assertThrows(IllegalArgumentException.class, () -> options.withBuffers(3, 1 << 12, 8),
+        "the stripes must be a power of two");
+    assertThrows(IllegalArgumentException.class, () -> options.withBuffers(2, 1 << 12, 2),
+        "there must be a buffer for the writer");
+  }
+
+  @Test
+  public void testWrittenGamesAreForcedWhenTheJournalIsIdle() {
+    JournalOptions options = SMALL_BUFFERS.withFsyncPolicy(JournalOptions.FsyncPolicy.INTERVAL)
+        .withFlushInterval(Duration.ofMillis(10));
+    var context = new GameContext(4);
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(13), ANALYZER);
+    try (GameJournal journal = new GameJournal(directory.resolve("games.journal"), options)) {
+      for (int game = 0; game < 100; game++) {
+        dealer.deal(4, context);
+        dealer.showdown(context);
+        journal.append(context);
+      }
+      assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+        while (journal.getDurableGames() < 100) {
+          Thread.sleep(5);
+        }
+      }, "the games are forced without a flush or another write");
+    }
+  }
+
+  @Test
+  public void testPartOfAHeaderIsCompleted() throws IOException {
+    Path path = directory.resolve("games.journal");
+    new GameJournal(path, SMALL_BUFFERS).close();
+    byte[] header = Files.readAllBytes(path);
+
+    // a crash while the journal was created
+    Files.write(path, Arrays.copyOf(header, 3));
+    var context = new GameContext(2);
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(17), ANALYZER);
+    try (GameJournal journal = new GameJournal(path, SMALL_BUFFERS)) {
+      dealer.deal(2, context);
+      dealer.showdown(context);
+      journal.append(context);
+    }
+    assertEquals(1, JournalReader.replay(path, game -> {
+    }), "the header was completed and the game follows it");
+
+    Files.write(path, new byte[]{1, 2, 3});
+    assertThrows(IllegalArgumentException.class, () -> new GameJournal(path, SMALL_BUFFERS),
+        "a short file that doesn't start like a journal");
+    assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(path), "the file is unchanged");
+  }
+
+  @Test
+  public void testClosedJournalRejectsGames() {
+    var context = new GameContext(2);
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(1), ANALYZER);
+    GameJournal journal = new GameJournal(directory.resolve("games.journal"), SMALL_BUFFERS);
+    journal.close();
+    dealer.deal(2, context);
+    dealer.showdown(context);
+    assertThrows(IllegalStateException.class, () -> journal.append(context),
+        "the journal is closed");
+  }
+
+  private static String describe(GameContext context) {
+    StringBuilder game = new StringBuilder();
+    for (int player = 0; player < context.getNumberOfPlayers(); player++) {
+      // the journal stores the cards of a hand in ascending order
+      game.append(PackedHands.cardBitsOf(context.getHand(player))).append(':')
+          .append(context.getStrength(player)).append(' ');
+    }
+    for (int winner = 0; winner < context.getNumberOfWinners(); winner++) {
+      game.append('w').append(context.getWinner(winner));
+    }
+    return game.toString();
+  }
+}
@@ -0,0 +1,64 @@
+import org.junit.jupiter.api.Test;
+import tt.models.EnumerationResult;
+import tt.models.HandType;
+import tt.services.impl.enumeration.HandEnumerator;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.util.CardUtils;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HandEnumeratorTest {
+  /**
+   * The number of hands per type of a complete deck, the ace can't be the low card of a straight.
+   */
+  private static final Map<HandType, Long> EXPECTED_COUNTS = Map.of(
+      HandType.HIGH_CARD, 1_303_560L,
+      HandType.PAIR, 1_098_240L,
+      HandType.TWO_PAIRS, 123_552L,
+      HandType.THREE_OF_A_KIND, 54_912L,
+      HandType.STRAIGHT, 9_180L,
+      HandType.FLUSH, 5_112L,
+      HandType.FULL_HOUSE, 3_744L,
+      HandType.FOUR_OF_A_KIND, 624L,
+      HandType.STRAIGHT_FLUSH, 36L);
+
+  @Test
+  public void testAllHandsOfTheDeckAreCounted() {
+    EnumerationResult result =
+        new HandEnumerator(new PerfectHashHandTypeAnalyzer(), ForkJoinPool.commonPool())
+            .enumerate();
+
+    assertEquals(2_598_960, result.numberOfHands(), "every hand is enumerated once");
+    EXPECTED_COUNTS.forEach((type, count) -> assertEquals(count, result.countOf(type),
+        "number of hands of the type " + type));
+    assertEquals(FiveCardRankTable.NUMBER_OF_RANK_CLASSES, result.numberOfRankClasses(),
+        "every rank class occurs");
+    assertEquals(4, result.countOfRank(FiveCardRankTable.NUMBER_OF_RANK_CLASSES - 1),
+        "one royal flush per suit");
+  }
+
+  @Test
+  public void testDeadCardsAreLeftOutAndTheAnalyzersAgree() {
+    var deadCards = CardUtils.parseCardFromString(
+        "2C 3C 4C 5C 6C 7C 8C 9C TC JC QC KC AC 2D 3D 4D 5D 6D 7D 8D 9D TD JD QD KD AD");
+    EnumerationResult fast =
+        new HandEnumerator(new PerfectHashHandTypeAnalyzer(), ForkJoinPool.commonPool())
+            .enumerate(deadCards);
+    EnumerationResult reference =
+        new HandEnumerator(new DefaultHandTypeAnalyzer(), ForkJoinPool.commonPool())
+            .enumerate(deadCards);
+
+    assertEquals(65_780, fast.numberOfHands(), "C(26, 5) hands of the hearts and spades");
+    assertEquals(18, fast.countOf(HandType.STRAIGHT_FLUSH), "9 straight flushes per suit");
+    assertEquals(0, fast.countOf(HandType.FOUR_OF_A_KIND), "only two cards of each value");
+    for (int rank = 0; rank < FiveCardRankTable.NUMBER_OF_RANK_CLASSES; rank++) {
+      assertEquals(reference.countOfRank(rank), fast.countOfRank(rank),
+          "both analyzers agree on the rank class " + rank);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tt.models.Card;
+import tt.models.Player;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.history.HandHistoryEvaluator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandHistoryEvaluatorTest {
+  private static final ForkJoinPool POOL = new ForkJoinPool(3);
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+
+  @TempDir
+  Path directory;
+
+  @AfterAll
+  public static void shutdownPool() {
+    POOL.shutdown();
+  }
+
+  @Test
+  public void testWinnersAreWrittenInTheOrderOfTheInput() throws IOException {
+    // deal random games and remember the winners of the dealer
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(42), ANALYZER);
+    List<String> lines = new ArrayList<>();
+    StringBuilder expected = new StringBuilder();
+    for (int game = 0; game < 300; game++) {
+      List<Player> players = dealer.deal(2 + game % 6);
+      String cardDelimiter = game % 2 == 0 ? "," : ";";
+      lines.add(players.stream()
+          .map(player -> player.hand().getCards().stream().map(HandHistoryEvaluatorTest::shortName)
+              .collect(Collectors.joining(cardDelimiter)))
+          .collect(Collectors.joining(game % 3 == 0 ? "  " : " ")));
+      List<Player> winners = dealer.showdown(players);
+      expected.append(winners.stream().map(winner -> String.valueOf(players.indexOf(winner) + 1))
+          .collect(Collectors.joining(" "))).append('\n');
+    }
+    lines.add("");
+    expected.append('\n');
+    lines.add("\"AS,KS,QS,JS,TS\" \"AH,KH,QH,JH,TH\"\r");
+    expected.append("1 2\n");
+    Path input = directory.resolve("showdowns.txt");
+    Files.writeString(input, String.join("\n", lines));
+
+    // tiny chunks split the lines at every possible position
+    for (int chunkSize : new int[]{1, 7, 64, 1 << 20}) {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      long numberOfLines = new HandHistoryEvaluator(ANALYZER, POOL, chunkSize).evaluate(input,
+          output);
+      assertEquals(lines.size(), numberOfLines, "every line is scored once");
+      assertEquals(expected.toString(), output.toString(StandardCharsets.US_ASCII),
+          "the winners are in the order of the input with chunks of " + chunkSize);
+    }
+
+    Path output = directory.resolve("winners.txt");
+    new HandHistoryEvaluator(ANALYZER, POOL).evaluate(input, output);
+    assertEquals(expected.toString(), Files.readString(output), "the winners are written");
+  }
+
+  @Test
+  public void testInvalidLinesAreRejected() throws IOException {
+    var evaluator = new HandHistoryEvaluator(ANALYZER, POOL, 16);
+    for (String line : List.of("AS,KS,QS,JS AH,KH,QH,JH,TH", "AS,KS,QS,JS,TS AS,KH,QH,JH,TH",
+        "AS,KS,QS,JS,TSAH,KH,QH,JH,TH", "AS,KS,QS,JS,1S", "x".repeat(10_000))) {
+      Path input = directory.resolve("invalid.txt");
+      Files.writeString(input, "2C,3C,4C,5C,7D 8D,9D,TD,JD,KC\n" + line + "\n");
+      assertThrows(IllegalArgumentException.class,
+          () -> evaluator.evaluate(input, new ByteArrayOutputStream()), "invalid line " + line);
+    }
+  }
+
+  private static String shortName(Card card) {
+    return card.value().getName() + card.suit().getShortName();
+  }
+}
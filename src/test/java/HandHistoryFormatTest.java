@@ -0,0 +1,110 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tt.models.GameContext;
+import tt.services.impl.dealer.FiveCardDrawDealer;
+import tt.services.impl.decks.CounterBasedPokerDeckCreator;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.history.HandHistoryEvaluator;
+import tt.services.impl.history.HandHistoryReader;
+import tt.services.impl.history.HandHistoryWriter;
+import tt.util.PackedHands;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandHistoryFormatTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testGamesAreWrittenAndReadBackInBlocks() {
+    int numberOfPlayers = 6;
+    int numberOfGames = 50_000;
+    var dealer = new FiveCardDrawDealer(new CounterBasedPokerDeckCreator(42), ANALYZER);
+    var context = new GameContext(numberOfPlayers);
+    long[] cards = new long[numberOfGames * numberOfPlayers];
+    StringBuilder expected = new StringBuilder();
+
+    Path path = directory.resolve("games.bin");
+    try (HandHistoryWriter writer = HandHistoryWriter.create(path, numberOfPlayers, 42)) {
+      for (int game = 0; game < numberOfGames; game++) {
+        dealer.deal(numberOfPlayers, context);
+        writer.write(context);
+        dealer.showdown(context);
+        for (int player = 0; player < numberOfPlayers; player++) {
+          cards[game * numberOfPlayers + player] = PackedHands.cardBitsOf(context.getHand(player));
+        }
+        for (int winner = 0; winner < context.getNumberOfWinners(); winner++) {
+          expected.append(winner > 0 ? " " : "").append(context.getWinner(winner) + 1);
+        }
+        expected.append('\n');
+      }
+    }
+
+    // 3 bytes per hand instead of about 15 characters of text
+    assertEquals(24 + 3L * numberOfGames * numberOfPlayers, path.toFile().length(),
+        "the size of the file");
+
+    try (HandHistoryReader reader = HandHistoryReader.open(path)) {
+      assertEquals(numberOfPlayers, reader.getNumberOfPlayers(), "the players of the header");
+      assertEquals(42, reader.getSeed(), "the seed of the header");
+
+      int[] hands = new int[1000 * numberOfPlayers];
+      int position = 0;
+      int games;
+      while ((games = reader.read(hands, 1000)) > 0) {
+        for (int hand = 0; hand < games * numberOfPlayers; hand++) {
+          assertEquals(cards[position++], PackedHands.cardBitsOf(hands[hand]),
+              "the same cards are read back");
+        }
+      }
+      assertEquals(cards.length, position, "all hands are read");
+    }
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (HandHistoryReader reader = HandHistoryReader.open(path);
+         ForkJoinPool pool = new ForkJoinPool(2)) {
+      assertEquals(numberOfGames, new HandHistoryEvaluator(ANALYZER, pool).evaluate(reader,
+          output), "all games are scored");
+    }
+    assertEquals(expected.toString(), output.toString(StandardCharsets.US_ASCII),
+        "the same winners as the dealer");
+  }
+
+  @Test
+  public void testInvalidHistoriesAreRejected() throws IOException {
+    Path path = directory.resolve("games.bin");
+    try (HandHistoryWriter writer = HandHistoryWriter.create(path, 2, 1)) {
+      writer.write(new int[]{PackedHands.pack(0, 1, 2, 3, 4), PackedHands.pack(5, 6, 7, 8, 9)});
+      assertThrows(IllegalArgumentException.class,
+          () -> writer.write(new int[]{PackedHands.pack(0, 1, 2, 3, 4)}), "2 hands per game");
+      assertThrows(IllegalArgumentException.class,
+          () -> writer.write(new int[]{PackedHands.pack(0, 0, 2, 3, 4), 0}), "invalid hand");
+    }
+
+    // cut the last game in half
+    byte[] bytes = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(bytes, bytes.length - 2));
+    try (HandHistoryReader reader = HandHistoryReader.open(path)) {
+      assertThrows(IllegalArgumentException.class, () -> reader.read(new int[2], 1),
+          "the game is incomplete");
+    }
+
+    Files.write(path, new byte[]{1, 2, 3});
+    assertThrows(IllegalArgumentException.class, () -> HandHistoryReader.open(path),
+        "the header is missing");
+    assertThrows(IllegalArgumentException.class, () -> HandHistoryWriter.create(path, 0, 1),
+        "a game needs a player");
+    assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(path),
+        "the file isn't replaced by an invalid hand history");
+  }
+}
@@ -0,0 +1,132 @@
+import org.junit.jupiter.api.Test;
+import tt.models.Card;
+import tt.models.Hand;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.history.HandHistoryEvaluator;
+import tt.services.impl.history.HandHistoryPipeline;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandHistoryPipelineTest {
+  private static final PerfectHashHandTypeAnalyzer ANALYZER = new PerfectHashHandTypeAnalyzer();
+  private static final String ACES = "AS,AH,3D,2S,5D";
+  private static final String TENS = "AD,4D,TH,TS,TC";
+
+  @Test
+  public void testWinnersKeepTheOrderOfTheInput() {
+    StringBuilder input = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int line = 0; line < 50_000; line++) {
+      switch (line % 3) {
+        case 0 -> input.append(ACES).append(' ').append(TENS);
+        case 1 -> input.append(TENS).append(' ').append(ACES);
+        default -> input.append(ACES).append(' ').append(TENS).append(' ').append(ACES);
+      }
+      input.append('\n');
+      expected.append(switch (line % 3) {
+        case 0 -> "2";
+        case 1 -> "1";
+        default -> "error invalid hand history line (duplicate card): " + ACES + " " + TENS + " "
+            + ACES;
+      }).append('\n');
+    }
+    input.append("\"2C,3C,4C,5C,7D\" \"2D,3D,4D,5D,7H\"");
+    expected.append("1 2\n");
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    long lines = new HandHistoryPipeline(ANALYZER, 3, 4).run(
+        new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.US_ASCII)), output);
+    assertEquals(50_001, lines, "every line is scored");
+    assertEquals(expected.toString(), output.toString(StandardCharsets.UTF_8),
+        "the winners are in the order of the input");
+  }
+
+  @Test
+  public void testLinesAreAnsweredBeforeTheNextLineArrives() {
+    CountDownLatch answered = new CountDownLatch(1);
+    byte[] firstLine = (ACES + " " + TENS + "\n").getBytes(StandardCharsets.US_ASCII);
+    InputStream input = new InputStream() {
+      private int reads;
+
+      @Override
+      public int read() {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(byte[] bytes, int offset, int length) {
+        if (reads++ == 0) {
+          System.arraycopy(firstLine, 0, bytes, offset, firstLine.length);
+          return firstLine.length;
+        }
+
+        // a stream that doesn't end until the first answer was written
+        try {
+          assertTrue(answered.await(10, TimeUnit.SECONDS), "the first line was answered");
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return -1;
+      }
+    };
+    ByteArrayOutputStream output = new ByteArrayOutputStream() {
+      @Override
+      public void flush() {
+        if (size() > 0) {
+          answered.countDown();
+        }
+      }
+    };
+
+    assertEquals(1, new HandHistoryPipeline(ANALYZER, 2, 2).run(input, output), "one line");
+    assertEquals("2\n", output.toString(StandardCharsets.US_ASCII), "the tens win");
+  }
+
+  @Test
+  public void testFailingWorkerStopsThePipeline() {
+    HandTypeAnalyzer failingAnalyzer = new HandTypeAnalyzer() {
+      @Override
+      public Hand createHand(Collection<Card> cards) {
+        throw new IllegalStateException("the analyzer is broken");
+      }
+
+      @Override
+      public Collection<Hand> tiebreak(Collection<Hand> hands) {
+        return hands;
+      }
+    };
+    byte[] input = (ACES + " " + TENS + "\n").repeat(100_000).getBytes(StandardCharsets.US_ASCII);
+
+    IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(30),
+        () -> assertThrows(IllegalStateException.class,
+            () -> new HandHistoryPipeline(failingAnalyzer, 2, 2).run(
+                new ByteArrayInputStream(input), new ByteArrayOutputStream())),
+        "the pipeline doesn't wait for the lost batch");
+    assertEquals("the analyzer is broken", failure.getMessage(), "the failure of the worker");
+  }
+
+  @Test
+  public void testLinesAreLimitedToTheMaximumLength() {
+    String longLine = (ACES + " ").repeat(HandHistoryEvaluator.MAX_LINE_LENGTH / 15 + 1);
+    for (String input : List.of(longLine + "\n" + ACES + " " + TENS + "\n", longLine,
+        "x".repeat(200_000))) {
+      IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+          () -> new HandHistoryPipeline(ANALYZER, 2, 2).run(
+              new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)),
+              new ByteArrayOutputStream()), "the line is too long");
+      assertTrue(failure.getMessage().contains("longer than "
+          + HandHistoryEvaluator.MAX_LINE_LENGTH), "the limit is the one of the evaluator");
+    }
+  }
+}
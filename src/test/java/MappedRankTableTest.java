@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tt.models.Card;
+import tt.models.Hand;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.MappedRankTableHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.CardUtils;
+import tt.util.PackedHands;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedRankTableTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  public void testCombinatorialNumbersCoverAllHands() {
+    int expectedIndex = 0;
+    for (int c4 = 4; c4 < 52; c4++) {
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              assertEquals(PackedHands.pack(c0, c1, c2, c3, c4),
+                  MappedRankTable.handOf(expectedIndex), "the number is reversed to the hand");
+              assertEquals(expectedIndex++, MappedRankTable.indexOf(c0, c1, c2, c3, c4),
+                  "hands are numbered in colexicographic order");
+            }
+          }
+        }
+      }
+    }
+    assertEquals(MappedRankTable.NUMBER_OF_HANDS, expectedIndex, "all hands are numbered");
+    assertEquals(MappedRankTable.indexOf(7, 3, 51, 0, 20), MappedRankTable.indexOf(0, 3, 7, 20, 51),
+        "the order of the cards doesn't matter");
+  }
+
+  @Test
+  public void testTableIsGeneratedFromTheReferenceAndReused() throws IOException {
+    Path path = directory.resolve("ranks.bin");
+    MappedRankTable table = MappedRankTable.open(path, new DefaultHandTypeAnalyzer());
+    assertTrue(Files.isRegularFile(path), "table was written on the first run");
+
+    for (int c4 = 4; c4 < 52; c4++) {
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              assertEquals(FiveCardRankTable.rank(c0, c1, c2, c3, c4),
+                  table.rank(c0, c1, c2, c3, c4), "the ranks of both tables match");
+            }
+          }
+        }
+      }
+    }
+
+    // a second run maps the existing file
+    FileTime lastModified = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(path, lastModified);
+    MappedRankTableHandTypeAnalyzer analyzer =
+        new MappedRankTableHandTypeAnalyzer(MappedRankTable.open(path));
+    assertEquals(lastModified, Files.getLastModifiedTime(path), "the table wasn't generated again");
+
+    Hand hand1 = analyzer.createHand(CardUtils.parseCardFromString("9C 9H 9S KC KH"));
+    Hand hand2 = analyzer.createHand(CardUtils.parseCardFromString("JS JD JH QS QH"));
+    assertEquals(List.of(hand2), analyzer.tiebreak(List.of(hand1, hand2)),
+        "jacks full of queens beat nines full of kings");
+  }
+
+  @Test
+  public void testTableOfAnotherReferenceIsGeneratedAgain() throws IOException {
+    PerfectHashHandTypeAnalyzer standard = new PerfectHashHandTypeAnalyzer();
+    // a reference for lowball, where the lowest hand wins
+    HandTypeAnalyzer lowball = new HandTypeAnalyzer() {
+      @Override
+      public Hand createHand(Collection<Card> cards) {
+        int rank = FiveCardRankTable.rankOf(standard.createHand(cards).getStrength());
+        int lowballRank = FiveCardRankTable.NUMBER_OF_RANK_CLASSES - 1 - rank;
+        return Hand.of(FiveCardRankTable.handTypeOf(lowballRank),
+            FiveCardRankTable.strengthOf(lowballRank), cards);
+      }
+
+      @Override
+      public Collection<Hand> tiebreak(Collection<Hand> hands) {
+        return standard.tiebreak(hands);
+      }
+    };
+
+    Path path = directory.resolve("ranks.bin");
+    MappedRankTable.open(path, lowball);
+    MappedRankTable table = MappedRankTable.open(path, standard);
+    assertEquals(FiveCardRankTable.rank(8, 21, 34, 47, 12), table.rank(8, 21, 34, 47, 12),
+        "the table of the other reference isn't reused");
+
+    FileTime lastModified = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(path, lastModified);
+    MappedRankTable.open(path, new DefaultHandTypeAnalyzer());
+    assertEquals(lastModified, Files.getLastModifiedTime(path),
+        "a reference with the same ranks reuses the table");
+  }
+
+  @Test
+  public void testInvalidTableIsGeneratedAgain() throws IOException {
+    Path path = directory.resolve("ranks.bin");
+    Files.write(path, new byte[]{1, 2, 3});
+
+    MappedRankTable table = MappedRankTable.open(path, new PerfectHashHandTypeAnalyzer());
+    assertEquals(FiveCardRankTable.rank(0, 1, 2, 3, 4), table.rank(0, 1, 2, 3, 4),
+        "the broken file is replaced by a valid table");
+  }
+}
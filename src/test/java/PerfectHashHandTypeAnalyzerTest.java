@@ -0,0 +1,182 @@
+import org.junit.jupiter.api.Test;
+import tt.models.*;
+import tt.services.impl.decks.SeededShuffledPokerDeckCreator;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.util.CardUtils;
+import tt.util.PackedHands;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerfectHashHandTypeAnalyzerTest {
+  @Test
+  public void testCreatingAHandFromListOfCardsReturnsAHandWithType() {
+    PerfectHashHandTypeAnalyzer analyzer = new PerfectHashHandTypeAnalyzer();
+
+    assertThrows(IllegalArgumentException.class, () -> analyzer.createHand(Collections.emptyList()),
+        "a list of cards must be provided, otherwise an exception should be thrown");
+    assertThrows(IllegalArgumentException.class, () -> analyzer.createHand(null),
+        "a list of cards must be provided, otherwise an exception should be thrown");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.createHand(CardUtils.parseCardFromString("2S 2S 3S 4S 5S")),
+        "all cards must be unique");
+
+    Map.of( //
+        HandType.HIGH_CARD, "2S 3H 5S 6S 7S", //
+        HandType.PAIR, "2S 2H 5S 6S 7S", //
+        HandType.TWO_PAIRS, "2S 2H 5S 5H 7S", //
+        HandType.THREE_OF_A_KIND, "2S 2H 2C 6S 7S", //
+        HandType.STRAIGHT, "2S 3H 4S 5S 6S", //
+        HandType.FLUSH, "2S 3S 5S 6S 7S", //
+        HandType.FULL_HOUSE, "2S 2H 5S 5H 5D", //
+        HandType.FOUR_OF_A_KIND, "2S 2H 2C 2D 7S", //
+        HandType.STRAIGHT_FLUSH, "2S 3S 4S 5S 6S" //
+    ).forEach((expectedType, cards) -> assertEquals(expectedType,
+        analyzer.createHand(CardUtils.parseCardFromString(cards)).getType(),
+        "type of the hand %s is correct".formatted(cards)));
+
+    assertEquals(HandType.HIGH_CARD,
+        analyzer.createHand(CardUtils.parseCardFromString("AS 2H 3S 4S 5S")).getType(),
+        "the ace can't be the lowest card of a straight");
+  }
+
+  @Test
+  public void testAllHandsAreMappedToTheEquivalenceClasses() {
+    Map<HandType, Integer> countsByType = new EnumMap<>(HandType.class);
+    BitSet ranks = new BitSet(FiveCardRankTable.NUMBER_OF_RANK_CLASSES);
+    for (int c0 = 0; c0 < 52; c0++) {
+      for (int c1 = c0 + 1; c1 < 52; c1++) {
+        for (int c2 = c1 + 1; c2 < 52; c2++) {
+          for (int c3 = c2 + 1; c3 < 52; c3++) {
+            for (int c4 = c3 + 1; c4 < 52; c4++) {
+              int rank = FiveCardRankTable.rank(c0, c1, c2, c3, c4);
+              ranks.set(rank);
+              countsByType.merge(FiveCardRankTable.handTypeOf(rank), 1, Integer::sum);
+            }
+          }
+        }
+      }
+    }
+
+    assertEquals(FiveCardRankTable.NUMBER_OF_RANK_CLASSES, ranks.cardinality(),
+        "every class is used by at least one hand");
+    assertEquals(Map.of( //
+        HandType.HIGH_CARD, 1303560, //
+        HandType.PAIR, 1098240, //
+        HandType.TWO_PAIRS, 123552, //
+        HandType.THREE_OF_A_KIND, 54912, //
+        HandType.STRAIGHT, 9180, //
+        HandType.FLUSH, 5112, //
+        HandType.FULL_HOUSE, 3744, //
+        HandType.FOUR_OF_A_KIND, 624, //
+        HandType.STRAIGHT_FLUSH, 36 //
+    ), countsByType, "all 2598960 hands have the expected types");
+  }
+
+  @Test
+  public void testAnalyzerMatchesTheStrategies() {
+    DefaultHandTypeAnalyzer strategies = new DefaultHandTypeAnalyzer();
+    PerfectHashHandTypeAnalyzer analyzer = new PerfectHashHandTypeAnalyzer();
+    SeededShuffledPokerDeckCreator deckCreator = new SeededShuffledPokerDeckCreator(42);
+
+    IntStream.range(0, 20_000).forEach(game -> {
+      // two hands from the same deck, so they can't share any card
+      PokerDeck deck = deckCreator.create();
+      List<Card> cards1 = IntStream.range(0, 5).mapToObj(deck::drawCard).toList();
+      List<Card> cards2 = IntStream.range(5, 10).mapToObj(deck::drawCard).toList();
+
+      Hand expected1 = strategies.createHand(cards1);
+      Hand expected2 = strategies.createHand(cards2);
+      Hand hand1 = analyzer.createHand(cards1);
+      Hand hand2 = analyzer.createHand(cards2);
+      assertEquals(expected1.getType(), hand1.getType(), "same type for " + cards1);
+      assertEquals(expected2.getType(), hand2.getType(), "same type for " + cards2);
+      assertEquals(expected1.getStrength(), hand1.getStrength(), "same strength for " + cards1);
+      assertEquals(expected2.getStrength(), hand2.getStrength(), "same strength for " + cards2);
+
+      if (hand1.getType() == hand2.getType()) {
+        Collection<Hand> expectedWinners = strategies.tiebreak(List.of(expected1, expected2));
+        Collection<Hand> winners = analyzer.tiebreak(List.of(hand1, hand2));
+        assertEquals(expectedWinners.contains(expected1), winners.contains(hand1),
+            "same tiebreak for %s and %s".formatted(cards1, cards2));
+        assertEquals(expectedWinners.contains(expected2), winners.contains(hand2),
+            "same tiebreak for %s and %s".formatted(cards1, cards2));
+      }
+    });
+  }
+
+  @Test
+  public void testTiebreakKeepsAllWinnersInOrder() {
+    PerfectHashHandTypeAnalyzer analyzer = new PerfectHashHandTypeAnalyzer();
+
+    Hand hand1 = analyzer.createHand(CardUtils.parseCardFromString("2S 2D 8H TC KD"));
+    Hand hand2 = analyzer.createHand(CardUtils.parseCardFromString("2H 2C 8C TD KH"));
+    Hand hand3 = analyzer.createHand(CardUtils.parseCardFromString("4S 4H 5C TC KC"));
+    Hand hand4 = analyzer.createHand(CardUtils.parseCardFromString("3S 3H AC 9C 7C"));
+
+    assertEquals(List.of(hand1), analyzer.tiebreak(List.of(hand1)), "only one hand always wins");
+    assertEquals(List.of(hand1, hand2), analyzer.tiebreak(List.of(hand1, hand2)),
+        "hand 1 and 2 split the pot");
+    assertEquals(List.of(hand1, hand2, hand2), analyzer.tiebreak(List.of(hand1, hand2, hand2)),
+        "hand 1 and 2 split the pot but the duplicate isn't eliminated");
+    assertEquals(List.of(hand3), analyzer.tiebreak(List.of(hand1, hand2, hand3)),
+        "hand 3 beats both other hands");
+    assertEquals(List.of(hand4), analyzer.tiebreak(List.of(hand1, hand4)),
+        "the pair of threes beats the pair of twos");
+
+    Hand fourOfAKind = analyzer.createHand(CardUtils.parseCardFromString("JS JD JH JC AS"));
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.tiebreak(List.of(hand1, hand2, hand3, fourOfAKind)),
+        "tie-breaking should throw an  exception if one hand has a different type");
+  }
+
+  @Test
+  public void testBatchEvaluationMatchesSingleHands() {
+    DefaultHandTypeAnalyzer strategies = new DefaultHandTypeAnalyzer();
+    PerfectHashHandTypeAnalyzer analyzer = new PerfectHashHandTypeAnalyzer();
+
+    // enough hands to be split over the fork/join pool
+    int numberOfHands = 4 * PerfectHashHandTypeAnalyzer.PARALLEL_THRESHOLD + 17;
+    int[] hands = new int[numberOfHands];
+    Random random = new Random(8);
+    int[] deck = IntStream.range(0, 52).toArray();
+    for (int i = 0; i < numberOfHands; i++) {
+      for (int j = 0; j < 5; j++) {
+        int k = j + random.nextInt(deck.length - j);
+        int card = deck[j];
+        deck[j] = deck[k];
+        deck[k] = card;
+      }
+      hands[i] = PackedHands.pack(deck[0], deck[1], deck[2], deck[3], deck[4]);
+    }
+
+    int[] strengths = new int[numberOfHands];
+    analyzer.evaluate(hands, strengths, numberOfHands);
+    int[] expectedStrengths = new int[1000];
+    strategies.evaluate(hands, expectedStrengths, expectedStrengths.length);
+    for (int i = 0; i < numberOfHands; i++) {
+      assertEquals(analyzer.createHand(PackedHands.toCards(hands[i])).getStrength(), strengths[i],
+          "batch and single hand have the same strength");
+      if (i < expectedStrengths.length) {
+        assertEquals(expectedStrengths[i], strengths[i], "strategies agree on the strength");
+      }
+    }
+
+    assertEquals(PackedHands.pack(CardUtils.parseCardFromString("2S 3S 4S 5S 6S")),
+        PackedHands.pack(39, 40, 41, 42, 43), "the cards are packed by their index");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(PackedHands.pack(1, 2, 3, 4, 4)), "all cards must be unique");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(PackedHands.pack(1, 2, 3, 4, 52)), "there are only 52 cards");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(hands, new int[10], 11), "the output must hold all hands");
+    hands[numberOfHands - 1] = PackedHands.pack(1, 1, 1, 1, 1);
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(hands, strengths, numberOfHands),
+        "an invalid hand in a parallel batch is reported");
+  }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import tt.models.*;
+import tt.services.impl.hands.SevenCardHandAnalyzer;
+import tt.services.impl.hands.lookup.FiveCardRankTable;
+import tt.services.impl.hands.lookup.SevenCardRankTable;
+import tt.util.CardUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SevenCardHandAnalyzerTest {
+  @Test
+  public void testBestHandIsChosenFromTheCards() {
+    SevenCardHandAnalyzer analyzer = new SevenCardHandAnalyzer();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.createBestHand(CardUtils.parseCardFromString("2S 3S 4S 5S")),
+        "at least 5 cards must be provided");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.createBestHand(CardUtils.parseCardFromString("2S 3S 4S 5S 6S 7S 8S 9S")),
+        "at most 7 cards can be provided");
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.createBestHand(CardUtils.parseCardFromString("2S 3S 4S 5S 6S 7S 7S")),
+        "all cards must be unique");
+    assertThrows(IllegalArgumentException.class, () -> analyzer.createBestHand(null),
+        "a list of cards must be provided");
+
+    // of two cards with the same value the one of the lower suit is chosen
+    Map.of( //
+        "AS KS QS JS 9S 9H 9D", "AS KS QS JS 9S", //
+        "KS KH KD 7C 7S 7H 2D", "KS KH KD 7C 7H", //
+        "2C 3D 4H 5S 6C 7D 7H", "3D 4H 5S 6C 7D", //
+        "AH AD 8C 8D 4S 4H 3C", "AH AD 8C 8D 4H", //
+        "9C 9D 9H 9S 2C 2D KH", "9C 9D 9H 9S KH", //
+        "TH JH QH KH AH 9H 8H", "TH JH QH KH AH", //
+        "2C 4D 6H 8S TC QD", "4D 6H 8S TC QD", //
+        "AC 2D 3H 4S 5C", "AC 2D 3H 4S 5C" //
+    ).forEach((cards, expectedCards) -> {
+      Hand hand = analyzer.createBestHand(CardUtils.parseCardFromString(cards));
+      Hand expectedHand = analyzer.createHand(CardUtils.parseCardFromString(expectedCards));
+      assertEquals(expectedHand.getCardSet(), hand.getCardSet(),
+          "best cards of %s are chosen".formatted(cards));
+      assertEquals(expectedHand.getType(), hand.getType(),
+          "type of the best hand of %s is correct".formatted(cards));
+      assertEquals(expectedHand.getStrength(), hand.getStrength(),
+          "strength of the best hand of %s is correct".formatted(cards));
+    });
+  }
+
+  @Test
+  public void testTableMatchesTheBestOfAllFiveCardHands() {
+    SevenCardHandAnalyzer analyzer = new SevenCardHandAnalyzer();
+    Random random = new Random(7);
+    int[] deck = new int[52];
+    for (int i = 0; i < deck.length; i++) {
+      deck[i] = i;
+    }
+
+    for (int game = 0; game < 200_000; game++) {
+      // partial shuffle of the first 7 cards
+      for (int i = 0; i < 7; i++) {
+        int j = i + random.nextInt(deck.length - i);
+        int card = deck[i];
+        deck[i] = deck[j];
+        deck[j] = card;
+      }
+
+      int best = -1;
+      for (int c4 = 4; c4 < 7; c4++) {
+        for (int c3 = 3; c3 < c4; c3++) {
+          for (int c2 = 2; c2 < c3; c2++) {
+            for (int c1 = 1; c1 < c2; c1++) {
+              for (int c0 = 0; c0 < c1; c0++) {
+                best = Math.max(best, FiveCardRankTable.rank(deck[c0], deck[c1], deck[c2],
+                    deck[c3], deck[c4]));
+              }
+            }
+          }
+        }
+      }
+      int rank = SevenCardRankTable.rank(deck[0], deck[1], deck[2], deck[3], deck[4], deck[5],
+          deck[6]);
+      assertEquals(best, rank, "rank of the best of the 21 hands is found");
+
+      if (game % 10 == 0) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+          cards.add(Card.fromIndex(deck[i]));
+        }
+        Hand hand = analyzer.createBestHand(cards);
+        Hand fiveCardHand = analyzer.createHand(hand.getCards());
+        assertTrue(CardSet.of(cards).containsAll(hand.getCardSet()),
+            "the chosen cards are part of the given cards");
+        assertEquals(FiveCardRankTable.strengthOf(best), hand.getStrength(),
+            "strength of the best hand is correct");
+        assertEquals(fiveCardHand.getType(), hand.getType(),
+            "the 5-card path determines the same type for the chosen cards");
+        assertEquals(fiveCardHand.getStrength(), hand.getStrength(),
+            "the 5-card path determines the same strength for the chosen cards");
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import tt.services.HandTypeAnalyzer;
+import tt.services.impl.hands.DefaultHandTypeAnalyzer;
+import tt.services.impl.hands.PerfectHashHandTypeAnalyzer;
+import tt.services.impl.hands.VectorSupport;
+import tt.services.impl.hands.lookup.MappedRankTable;
+import tt.util.PackedHands;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorSupportTest {
+  @AfterEach
+  public void disableVectorSupport() {
+    System.clearProperty(VectorSupport.PROPERTY);
+  }
+
+  @Test
+  public void testScalarAnalyzerIsUsedByDefault() {
+    assertFalse(VectorSupport.isAvailable(), "the SIMD evaluator must be enabled explicitly");
+    assertEquals(PerfectHashHandTypeAnalyzer.class, VectorSupport.createAnalyzer().getClass(),
+        "the scalar analyzer is used");
+  }
+
+  @Test
+  public void testVectorAnalyzerMatchesTheDefaultAnalyzer() {
+    System.setProperty(VectorSupport.PROPERTY, "true");
+    assertTrue(VectorSupport.isAvailable(), "the tests run with the vector module");
+    HandTypeAnalyzer analyzer = VectorSupport.createAnalyzer();
+    assertEquals("VectorHandTypeAnalyzer", analyzer.getClass().getSimpleName(),
+        "the SIMD analyzer is used");
+
+    int[] hands = new int[MappedRankTable.NUMBER_OF_HANDS];
+    int numberOfHands = 0;
+    for (int c4 = 4; c4 < 52; c4++) {
+      for (int c3 = 3; c3 < c4; c3++) {
+        for (int c2 = 2; c2 < c3; c2++) {
+          for (int c1 = 1; c1 < c2; c1++) {
+            for (int c0 = 0; c0 < c1; c0++) {
+              // rotate the positions, so every card appears at every position of the packing
+              hands[numberOfHands] = switch (numberOfHands % 3) {
+                case 0 -> PackedHands.pack(c0, c1, c2, c3, c4);
+                case 1 -> PackedHands.pack(c4, c0, c3, c1, c2);
+                default -> PackedHands.pack(c2, c4, c1, c0, c3);
+              };
+              numberOfHands++;
+            }
+          }
+        }
+      }
+    }
+
+    int[] strengths = new int[numberOfHands];
+    int[] expectedStrengths = new int[numberOfHands];
+    analyzer.evaluate(hands, strengths, numberOfHands);
+    new DefaultHandTypeAnalyzer().evaluate(hands, expectedStrengths, numberOfHands);
+    for (int i = 0; i < numberOfHands; i++) {
+      assertEquals(expectedStrengths[i], strengths[i], "same strength for the hand " + i);
+    }
+
+    hands[numberOfHands / 2] = PackedHands.pack(0, 1, 2, 3, 0);
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(hands, strengths, hands.length),
+        "duplicate cards are rejected by the SIMD evaluator");
+    hands[numberOfHands / 2] = PackedHands.pack(0, 1, 2, 3, 60);
+    assertThrows(IllegalArgumentException.class,
+        () -> analyzer.evaluate(hands, strengths, hands.length),
+        "invalid cards are rejected by the SIMD evaluator");
+  }
+}
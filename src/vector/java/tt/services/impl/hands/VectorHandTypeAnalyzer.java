@@ -0,0 +1,22 @@
+package tt.services.impl.hands;
+
+import tt.services.impl.hands.lookup.VectorFiveCardRankTable;
+
+/**
+ * Evaluates batches of packed hands with the SIMD lookups of {@link VectorFiveCardRankTable}.
+ * The hands that don't fill all the lanes at the end of a range are evaluated one by one. Use
+ * {@link VectorSupport#createAnalyzer()} to create it only if the vector module is present.
+ */
+public class VectorHandTypeAnalyzer extends PerfectHashHandTypeAnalyzer {
+
+  public VectorHandTypeAnalyzer() {
+    // initialize the tables now, so a missing module is noticed on creation
+    VectorFiveCardRankTable.lanes();
+  }
+
+  @Override
+  protected void evaluate(int[] hands, int[] strengths, int from, int to) {
+    int next = VectorFiveCardRankTable.evaluate(hands, strengths, from, to);
+    super.evaluate(hands, strengths, next, to);
+  }
+}
@@ -0,0 +1,108 @@
+package tt.services.impl.hands.lookup;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import tt.util.PackedHands;
+
+/**
+ * Evaluates packed hands with the tables of {@link FiveCardRankTable}, one hand per lane of the
+ * preferred int vector. The card codes are gathered and summed lane-wise, the flushes are
+ * detected from the suit counts and the strength is gathered from the flush or unsuited table.
+ * The results are identical to the ones of the scalar lookups.
+ */
+public final class VectorFiveCardRankTable {
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  private static final int[] LOWER_CODES = FiveCardRankTable.lowerCardCodes();
+  private static final int[] UPPER_CODES = FiveCardRankTable.upperCardCodes();
+  private static final int[] FLUSH_STRENGTHS = FiveCardRankTable.flushStrengths();
+  private static final int[] UNSUITED_STRENGTHS = FiveCardRankTable.unsuitedStrengths();
+
+  /**
+   * The gathers take their indices from an array, every thread reuses its own.
+   */
+  private static final ThreadLocal<int[]> INDICES =
+      ThreadLocal.withInitial(() -> new int[SPECIES.length()]);
+
+  private VectorFiveCardRankTable() {
+    // no instance
+  }
+
+  /**
+   * Returns the number of hands that are evaluated at once.
+   *
+   * @return the number of lanes
+   */
+  public static int lanes() {
+    return SPECIES.length();
+  }
+
+  /**
+   * Determine the strengths of the hands in the range in steps of {@link #lanes()} hands. The
+   * hands at the end of the range that don't fill all lanes are left to the caller.
+   *
+   * @param hands     the packed hands as defined by {@link PackedHands}
+   * @param strengths the array that receives the strength of each hand at its position
+   * @param from      the first hand (incl.)
+   * @param to        the last hand (excl.)
+   * @return the position of the first hand that wasn't evaluated
+   * @throws IllegalArgumentException if any hand doesn't consist of 5 distinct cards
+   */
+  public static int evaluate(int[] hands, int[] strengths, int from, int to) {
+    int[] indices = INDICES.get();
+    int end = from + SPECIES.loopBound(to - from);
+    for (int i = from; i < end; i += SPECIES.length()) {
+      IntVector packed = IntVector.fromArray(SPECIES, hands, i);
+      IntVector c0 = cardAt(packed, 0);
+      IntVector c1 = cardAt(packed, 1);
+      IntVector c2 = cardAt(packed, 2);
+      IntVector c3 = cardAt(packed, 3);
+      IntVector c4 = cardAt(packed, 4);
+      if (!isValid(packed, c0, c1, c2, c3, c4).allTrue()) {
+        throw new IllegalArgumentException("must have exactly 5 distinct cards");
+      }
+
+      IntVector lower = gather(LOWER_CODES, c0, indices).add(gather(LOWER_CODES, c1, indices))
+          .add(gather(LOWER_CODES, c2, indices)).add(gather(LOWER_CODES, c3, indices))
+          .add(gather(LOWER_CODES, c4, indices));
+      IntVector upper = gather(UPPER_CODES, c0, indices).add(gather(UPPER_CODES, c1, indices))
+          .add(gather(UPPER_CODES, c2, indices)).add(gather(UPPER_CODES, c3, indices))
+          .add(gather(UPPER_CODES, c4, indices));
+
+      // one suit nibble reached 5, so all cards of the lane share the same suit
+      VectorMask<Integer> flush = lower.add(0x3333).and(0x8888).compare(VectorOperators.NE, 0);
+      IntVector unsuited = gather(UNSUITED_STRENGTHS, upper, indices);
+      // the value mask of the other lanes can exceed the table, so it's cut to 13 bits
+      lower.lanewise(VectorOperators.LSHR, 16).and(FLUSH_STRENGTHS.length - 1)
+          .intoArray(indices, 0);
+      IntVector flushes = IntVector.fromArray(SPECIES, FLUSH_STRENGTHS, 0, indices, 0, flush);
+      unsuited.blend(flushes, flush).intoArray(strengths, i);
+    }
+    return end;
+  }
+
+  private static IntVector cardAt(IntVector packed, int position) {
+    return packed.lanewise(VectorOperators.LSHR, PackedHands.CARD_BITS * position)
+        .and(PackedHands.CARD_MASK);
+  }
+
+  private static VectorMask<Integer> isValid(IntVector packed, IntVector c0, IntVector c1,
+                                             IntVector c2, IntVector c3, IntVector c4) {
+    // no bits beyond the 5 cards, every index is a card and all cards are distinct
+    return packed.lanewise(VectorOperators.LSHR, 5 * PackedHands.CARD_BITS)
+        .compare(VectorOperators.EQ, 0)
+        .and(c0.max(c1).max(c2).max(c3).max(c4).compare(VectorOperators.LT, 52))
+        .and(c0.compare(VectorOperators.NE, c1)).and(c0.compare(VectorOperators.NE, c2))
+        .and(c0.compare(VectorOperators.NE, c3)).and(c0.compare(VectorOperators.NE, c4))
+        .and(c1.compare(VectorOperators.NE, c2)).and(c1.compare(VectorOperators.NE, c3))
+        .and(c1.compare(VectorOperators.NE, c4)).and(c2.compare(VectorOperators.NE, c3))
+        .and(c2.compare(VectorOperators.NE, c4)).and(c3.compare(VectorOperators.NE, c4));
+  }
+
+  private static IntVector gather(int[] table, IntVector index, int[] indices) {
+    index.intoArray(indices, 0);
+    return IntVector.fromArray(SPECIES, table, 0, indices, 0);
+  }
+}